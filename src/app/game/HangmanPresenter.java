@@ -6,12 +6,20 @@ import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
 
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -20,6 +28,8 @@ import app.misc.AboutDialog;
 import app.settings.Settings;
 import app.settings.SettingsDialog;
 import engine.Dict;
+import engine.DictLoadListener;
+import engine.DictWatcher;
 import engine.Game;
 import engine.Game.GameOverException;
 
@@ -57,6 +67,12 @@ public class HangmanPresenter implements Runnable {
 	// Models
 	private Game game;
 	private Settings settings;
+	
+	// Dictionary loading
+	private Future<Dict> dictLoad;   // Load in progress, if any
+	private File dictFile;           // File of the last Dict loaded, if any
+	private File savedDictFile;      // File of the saved settings' Dict
+	private DictWatcher dictWatcher; // Watches savedDictFile for changes
 
 
 	// Private utility classes
@@ -158,9 +174,10 @@ public class HangmanPresenter implements Runnable {
 	
 	/** 
 	 * The Dict Change Listener listens for property changes in the 
-	 * dictionary chooser of the settings view. It rejects the change if
-	 * the new dictionary cannot be loaded successfully, else updates
-	 * the model with the new dictioary
+	 * dictionary chooser of the settings view. It starts loading the new
+	 * dictionary in the background, so that the settings view stays 
+	 * responsive, and rejects the change right away only if the file cannot
+	 * be opened at all.
 	 * 
 	 * @author Vance Zuo
 	 * Created: Aug 8, 2014
@@ -170,25 +187,140 @@ public class HangmanPresenter implements Runnable {
 		@Override
 		public void vetoableChange(PropertyChangeEvent evt)
 				throws PropertyVetoException {
+			if (dictLoad != null) { // Superseded by this change
+				dictLoad.cancel(true);
+				dictLoad = null;
+				settingsView.setDictLoading(false);
+			}
+			Future<Dict> load;
 			try {
-				Dict dict = settingsView.getDictChooser().getDict();
-				settings.setDictionary(dict);
-				settingsView.getLengthChooser().setMin(dict.getMinLength());
-				settingsView.getLengthChooser().setMax(dict.getMaxLength());
+				load = settingsView.getDictChooser().loadDict(
+						new DictLoadProgressListener());
 			} catch (FileNotFoundException e) {
 				e.printStackTrace();
-				veto(evt, "File not found.");
+				throw veto(evt, "File not found.");
 			} catch (Exception e) {
 				e.printStackTrace();
-				veto(evt, "Failed to successfully load file.");
+				throw veto(evt, "Failed to successfully load file.");
+			}
+			dictLoad = load;
+			if (load.isDone()) { // Already loaded before
+				finishDictLoad(load);
+			} else {
+				settingsView.setDictLoading(true);
+				new DictLoadWorker(load).execute();
 			}
 		}
 
-		private void veto(PropertyChangeEvent evt, String msg)
-				throws PropertyVetoException {
+		private PropertyVetoException veto(PropertyChangeEvent evt, 
+				String msg) {
 			JOptionPane.showMessageDialog(view, msg, "Error",
 					JOptionPane.ERROR_MESSAGE);
-			throw new PropertyVetoException(msg, evt);
+			return new PropertyVetoException(msg, evt);
+		}
+	}
+	
+	/** 
+	 * The Dict Load Worker waits for a background dictionary load to finish,
+	 * then applies its outcome to the settings on the event dispatch thread.
+	 * 
+	 * @author agent
+	 * Created: Oct 16, 2026
+	 *
+	 */
+	private class DictLoadWorker extends SwingWorker<Dict, Void> {
+		private final Future<Dict> load;
+		
+		public DictLoadWorker(Future<Dict> dictLoad) {
+			load = dictLoad;
+		}
+		
+		@Override
+		protected Dict doInBackground() throws Exception {
+			return load.get();
+		}
+		
+		@Override
+		protected void done() {
+			if (load != dictLoad) // Superseded by a later change
+				return;
+			settingsView.setDictLoading(false);
+			finishDictLoad(load);
+		}
+	}
+	
+	/** 
+	 * The Dict Load Progress Listener shows the progress of a background
+	 * dictionary load in the settings view.
+	 * 
+	 * @author agent
+	 * Created: Oct 16, 2026
+	 *
+	 */
+	private class DictLoadProgressListener implements DictLoadListener {
+		@Override
+		public void progressMade(final long bytesRead, final long totalBytes,
+				final long wordsAccepted) {
+			// Called from the loading threads
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					int percent = (totalBytes > 0) 
+							? (int) (100 * bytesRead / totalBytes) : -1;
+					settingsView.getDictLoadPanel().setProgress(percent, 
+							wordsAccepted + " words");
+				}
+			});
+		}
+	}
+	
+	/** 
+	 * The Dict Reload Listener listens for new versions of the selected
+	 * dictionary, published when its file changes on disk, and swaps them 
+	 * into the settings model. The game in progress keeps the version it
+	 * started with (see DictWatcher for when a compiled file allows that);
+	 * the next one uses the new version.
+	 * 
+	 * @author agent
+	 * Created: Oct 16, 2026
+	 *
+	 */
+	private class DictReloadListener implements PropertyChangeListener {
+		@Override
+		public void propertyChange(final PropertyChangeEvent evt) {
+			// Called from the watcher's thread
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					Dict oldDict = (Dict) evt.getOldValue();
+					Dict newDict = (Dict) evt.getNewValue();
+					settings.replaceDictionary(oldDict, newDict);
+					// Update the view only if the chooser still shows this Dict
+					if (evt.getSource() == dictWatcher && dictLoad == null &&
+							Objects.equals(dictFile, savedDictFile)) {
+						settingsView.getLengthChooser().setMin(
+								newDict.getMinLength());
+						settingsView.getLengthChooser().setMax(
+								newDict.getMaxLength());
+					}
+				}
+			});
+		}
+	}
+	
+	/** 
+	 * The Dict Load Abort Listener cancels the dictionary load in progress
+	 * when the user asks to.
+	 * 
+	 * @author agent
+	 * Created: Oct 16, 2026
+	 *
+	 */
+	private class DictLoadAbortListener implements ActionListener {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			if (dictLoad != null)
+				dictLoad.cancel(true);
 		}
 	}
 	
@@ -277,6 +409,7 @@ public class HangmanPresenter implements Runnable {
 				return;
 			}
 			settings.commit();
+			watchSavedDict();
 			settingsView.setVisible(false);
 			resetGame();
 		}
@@ -293,7 +426,7 @@ public class HangmanPresenter implements Runnable {
 	private class SettingsCancelListener implements ActionListener {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			settings.revert();
+			revertSettings();
 			settingsView.setVisible(false);
 		}
 	}
@@ -312,7 +445,7 @@ public class HangmanPresenter implements Runnable {
 		public void windowClosing(WindowEvent e) {
 			String msg = "Changes will not be saved.";
 			JOptionPane.showMessageDialog(settingsView, msg);
-			settings.revert();
+			revertSettings();
 		}
 	}
 
@@ -342,6 +475,8 @@ public class HangmanPresenter implements Runnable {
 		settingsView.addWindowListener(new SettingsWindowListener());
 		settingsView.getDictChooser().addVetoableChangeListener(
 				new DictChangeListener());
+		settingsView.getDictLoadPanel().addAbortActionListener(
+				new DictLoadAbortListener());
 		settingsView.getModeChooser().addActionListener(
 				new ModeChangeListener());
 		settingsView.getLengthChooser().addChangeListener(
@@ -374,6 +509,89 @@ public class HangmanPresenter implements Runnable {
 		resetModel();
 	}
 
+	/**
+	 * Reverts the settings model to its last saved state, and the dictionary
+	 * chooser to the saved settings' dictionary, cancelling the dictionary
+	 * load in progress, if any.
+	 */
+	private void revertSettings() {
+		cancelDictLoad();
+		settings.revert();
+		dictFile = savedDictFile;
+		settingsView.getDictChooser().restoreSelectedFile(dictFile);
+		Dict dict = settings.getDict();
+		settingsView.getLengthChooser().setMin(dict.getMinLength());
+		settingsView.getLengthChooser().setMax(dict.getMaxLength());
+	}
+
+	/**
+	 * Cancels the dictionary load in progress, if any. The dictionary 
+	 * chooser goes back to the last dictionary that was loaded.
+	 */
+	private void cancelDictLoad() {
+		if (dictLoad == null)
+			return;
+		Future<Dict> load = dictLoad;
+		load.cancel(true);
+		settingsView.setDictLoading(false);
+		finishDictLoad(load);
+	}
+	
+	/**
+	 * Applies the outcome of a finished dictionary load. If the load 
+	 * succeeded, the settings model is updated with the new dictionary; if
+	 * it failed or was cancelled, the change of dictionary is rejected after
+	 * all, and the dictionary chooser goes back to the last dictionary that 
+	 * was loaded.
+	 * @param load The finished load.
+	 */
+	private void finishDictLoad(Future<Dict> load) {
+		dictLoad = null;
+		try {
+			Dict dict = load.get();
+			settings.setDictionary(dict);
+			settingsView.getLengthChooser().setMin(dict.getMinLength());
+			settingsView.getLengthChooser().setMax(dict.getMaxLength());
+			dictFile = settingsView.getDictChooser().getSelectedFile();
+			return;
+		} catch (CancellationException e) {
+			System.err.println("Dictionary load cancelled.");
+		} catch (Exception e) {
+			e.printStackTrace();
+			String error = "Failed to successfully load file.";
+			JOptionPane.showMessageDialog(settingsView, error, "Error",
+					JOptionPane.ERROR_MESSAGE);
+		}
+		settingsView.getDictChooser().restoreSelectedFile(dictFile);
+	}
+
+	/**
+	 * Starts watching the file of the saved settings' Dict for changes, so
+	 * that edits to it are picked up by later games, once the settings are
+	 * saved with a new Dict. Dicts loaded but not saved are not watched.
+	 * Any file watched before is no longer watched.
+	 */
+	private void watchSavedDict() {
+		Dict dict = settings.getDict();
+		if (dictWatcher != null ? dictWatcher.getDict() == dict
+				: Objects.equals(dictFile, savedDictFile))
+			return; // Already watched
+		savedDictFile = dictFile;
+		try {
+			if (dictWatcher != null)
+				dictWatcher.close();
+			dictWatcher = null;
+			if (dictFile == null)
+				return; // The default dictionary never changes
+			dictWatcher = new DictWatcher(dictFile, dict);
+			dictWatcher.addPropertyChangeListener(new DictReloadListener());
+		} catch (IOException e) {
+			System.err.println("Warning: Unable to watch " + dictFile + 
+					" for changes.");
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Resets the view to the beginning of a hangman game.
 	 */
@@ -63,6 +63,15 @@ public class ControlPanel extends JPanel {
 		cancelButton.addActionListener(l);
 	}
 
+	/**
+	 * Enables or disables the okay button, e.g. while the settings are in
+	 * a state that cannot be confirmed yet.
+	 * @param enabled Whether the okay button can be pressed.
+	 */
+	public void setOkEnabled(boolean enabled) {
+		okButton.setEnabled(enabled);
+	}
+	
 	/**
 	 * Gets the default button; that is, the one that should be pressed when
 	 * the enter key is hit and the Control Panel is active.
@@ -232,6 +232,19 @@ public class FileChooserPanel extends JPanel {
 	}
 	
 	
+	/**
+	 * Puts back a previously selected file, without firing a change event.
+	 * This undoes a selection that was accepted at first, but turned out to
+	 * be unusable later on.
+	 * @param file The file to restore. Null parameter acceptable.
+	 */
+	public void restoreSelectedFile(File file) {
+		selectedFile = file;
+		fileText.setText((file == null) ? nullFileText 
+				                        : file.getAbsolutePath());
+	}
+	
+	
 	// Private methods
 	/**
 	 * Enables/disables the components for enabling/disabling the file chooser.
@@ -0,0 +1,77 @@
+package app.misc;
+
+import java.awt.event.ActionListener;
+
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.border.TitledBorder;
+
+/**
+ * A Progress Panel shows the progress of a long-running task, with a 
+ * button the user can press to abort it. 
+ * 
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class ProgressPanel extends JPanel {
+	// Constants
+	private static final int H_GAP = 5; // Horizontal spacing
+	
+	// Instance Fields
+	private JProgressBar progressBar;
+	private JButton abortButton;
+	
+	// Constructors
+	/**
+	 * Creates a new Progress Panel.
+	 * @param title      the title of the panel
+	 * @param abortText  the text of the abort button
+	 */
+	public ProgressPanel(String title, String abortText) {
+		setBorder(new TitledBorder(title));
+		setLayout(new BoxLayout(this, BoxLayout.X_AXIS));
+		
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setStringPainted(true);
+		add(progressBar);
+		
+		add(Box.createHorizontalStrut(H_GAP));
+		
+		abortButton = new JButton(abortText);
+		add(abortButton);
+	}
+	
+	/**
+	 * Creates a new Progress Panel with an "Abort" button.
+	 * @param title the title of the panel
+	 */
+	public ProgressPanel(String title) {
+		this(title, "Abort");
+	}
+	
+	
+	// Public methods
+	/**
+	 * Adds an action listener to the abort button.
+	 * @param l The ActionListener object.
+	 */
+	public void addAbortActionListener(ActionListener l) {
+		abortButton.addActionListener(l);
+	}
+	
+	/**
+	 * Sets the progress shown, along with a description of it.
+	 * @param percent The percentage complete, or -1 if not known.
+	 * @param text    The text shown on the progress bar.
+	 */
+	public void setProgress(int percent, String text) {
+		progressBar.setIndeterminate(percent < 0);
+		if (percent >= 0)
+			progressBar.setValue(percent);
+		progressBar.setString(text);
+	}
+}
@@ -1,11 +1,16 @@
 package app.settings;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import app.misc.FileChooserPanel;
 import engine.Dict;
+import engine.DictLoadListener;
+import engine.DictRegistry;
 
 /**
  * A Dict Choice Panel is the part of a settings dialog for selecting the
@@ -22,21 +27,47 @@ public class DictChooserPanel extends FileChooserPanel {
 	 */
 	public DictChooserPanel() {
 		super("Dictionary");
-		setFileFilter(new FileNameExtensionFilter("Text Files", "txt"));
+		setFileFilter(new FileNameExtensionFilter(
+				"Dictionaries (text, compiled, gzip or zip)", 
+				"txt", "dict", "gz", "zip"));
 		setNullText("(Default Dictionary)");
 	}
 	
 	
 	// Public methods
 	/**
-	 * Gets the current Dict selected by the Dict Choice Panel.
+	 * Gets the current Dict selected by the Dict Choice Panel. Dicts are 
+	 * shared through the Dict Registry, so switching back to a previously
+	 * selected dictionary does not load it again.
 	 * @return The currently selected Dict
-	 * @throws FileNotFoundException
+	 * @throws FileNotFoundException if the selected file does not exist
+	 * @throws IOException if the selected file could not be read
 	 */
-	public Dict getDict() throws FileNotFoundException {
+	public Dict getDict() throws IOException {
 		if (getSelectedFile() == null)
-			return new Dict();
-		return new Dict(getSelectedFile());
+			return DictRegistry.getDefault();
+		return DictRegistry.get(getSelectedFile());
+	}
+	
+	/**
+	 * Starts loading the current Dict selected by the Dict Choice Panel in 
+	 * the background, so that a large dictionary does not freeze the GUI.
+	 * @param listener Listener notified of the load's progress, from the
+	 *                 loading threads.
+	 * @return A Future of the currently selected Dict, which can be 
+	 *         cancelled to abort the load
+	 * @throws FileNotFoundException if the selected file does not exist
+	 * @throws IOException if the selected file could not be opened
+	 */
+	public Future<Dict> loadDict(DictLoadListener listener) 
+			throws IOException {
+		if (getSelectedFile() != null)
+			return DictRegistry.getAsync(getSelectedFile(), listener);
+		FutureTask<Dict> done = new FutureTask<Dict>(new Runnable() {
+			@Override public void run() {}
+		}, DictRegistry.getDefault());
+		done.run();
+		return done;
 	}
 	
 }
@@ -1,6 +1,7 @@
 package app.settings;
 
 import engine.Dict;
+import engine.DictRegistry;
 import engine.Mode;
 
 /** 
@@ -15,7 +16,7 @@ import engine.Mode;
  */
 public class Settings {
 	// Constants
-	public static final Dict DEFAULT_DICT = new Dict();
+	public static final Dict DEFAULT_DICT = DictRegistry.getDefault();
 
 	public static final Mode DEFAULT_MODE = Mode.ADVERSARY;
 
@@ -107,6 +108,21 @@ public class Settings {
 		newSettings.randomLength = randomizeLength;
 	}
 
+	/**
+	 * Swaps a dictionary for a newer version of itself, e.g. after its file
+	 * was edited. Tentative settings using the old dictionary switch to the
+	 * new one; committed settings do too, unless the new dictionary lacks
+	 * words of the committed word length.
+	 * @param oldDict the dictionary being replaced
+	 * @param newDict the new version of the dictionary
+	 */
+	public void replaceDictionary(Dict oldDict, Dict newDict) {
+		if (newSettings.dictionary == oldDict)
+			newSettings.dictionary = newDict;
+		if (dictionary == oldDict && newDict.hasLength(wordLength))
+			dictionary = newDict;
+	}
+
 	public void commit() {
 		dictionary = newSettings.dictionary;
 		mode = newSettings.mode;
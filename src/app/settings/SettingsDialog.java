@@ -13,6 +13,7 @@ import javax.swing.border.EmptyBorder;
 
 import app.misc.ControlPanel;
 import app.misc.IntSliderPanel;
+import app.misc.ProgressPanel;
 
 /** 
  * A Settings Dialog provides the user the means to change different parameters
@@ -31,6 +32,7 @@ public class SettingsDialog extends JDialog {
 	// Instance Fields
 	private JPanel mainPanel;
 	private DictChooserPanel dictChooser;	
+	private ProgressPanel dictLoadPanel;
 	private ModeChooserPanel modeChooser;	
 	private JPanel slidersPanel;
 	private IntSliderPanel livesChooser;	
@@ -69,6 +71,7 @@ public class SettingsDialog extends JDialog {
 		getContentPane().add(mainPanel, BorderLayout.CENTER);
 		
 		initDictChooser();
+		initDictLoadPanel();
 		addVerticalGlue();
 		initModeChooser();
 		addVerticalGlue();
@@ -93,6 +96,16 @@ public class SettingsDialog extends JDialog {
 		mainPanel.add(dictChooser);
 	}
 
+	/**
+	 * Initializes and adds the dictionary load progress panel. It is hidden
+	 * until a dictionary starts loading.
+	 */
+	private void initDictLoadPanel() {
+		dictLoadPanel = new ProgressPanel("Loading Dictionary");
+		dictLoadPanel.setVisible(false);
+		mainPanel.add(dictLoadPanel);
+	}
+
 	/**
 	 * Initializes and adds the word length and lives sliders.
 	 */
@@ -155,6 +168,25 @@ public class SettingsDialog extends JDialog {
 		return dictChooser;
 	}
 	
+	/**
+	 * Gets the Settings Dialog's dictionary load progress panel.
+	 * @return this dialog's Progress Panel instance for dictionary loads
+	 */
+	public ProgressPanel getDictLoadPanel() {
+		return dictLoadPanel;
+	}
+	
+	/**
+	 * Shows or hides the dictionary load progress panel. While it is shown,
+	 * the settings cannot be confirmed.
+	 * @param loading whether a dictionary is being loaded
+	 */
+	public void setDictLoading(boolean loading) {
+		dictLoadPanel.setVisible(loading);
+		controlPanel.setOkEnabled(!loading);
+		pack();
+	}
+	
 	/**
 	 * Gets the Settings Dialog's mode chooser.
 	 * @return this dialog's Mode Chooser Panel instance
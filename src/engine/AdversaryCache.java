@@ -0,0 +1,363 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * The Adversary Cache is a process-wide cache of the decisions Adversary
+ * Words make, shared by every game and thread.
+ * <p>
+ * For a given word bucket, an Adversary Word's answer to a guess depends
+ * only on the game state (see TranspositionTable), so games that replay a
+ * popular opening keep making the same decisions. The cache keeps, per
+ * bucket, state and guess, the reveal pattern chosen and the ids of the
+ * possible words it leaves, so a game that meets a cached decision takes
+ * both over in constant time instead of partitioning its possible words.
+ * Cached id arrays are the ones the deciding game wrote its possible words
+ * to, taken over rather than copied, and are shared by the games that use
+ * them and never written. Only decisions over at least MIN_WORDS words are
+ * cached; smaller ones are cheaper to make again.
+ * <p>
+ * Entries are kept in primitive open-addressing hash tables (linear probing
+ * over power of two sized arrays), split into segments by hash so that
+ * threads rarely wait for each other, and looking a decision up builds no
+ * key and allocates nothing: the decision is copied into a holder the
+ * caller reuses. Only adding entries allocates, when a table grows or is
+ * rebuilt after an eviction.
+ * <p>
+ * Each segment is bounded by the total number of ids it holds. Every entry
+ * counts its uses, and when a segment grows past its bound it evicts the
+ * least used entries down to three quarters of the bound, then halves the
+ * use counts of the rest, so that popular openings stay and entries that
+ * were popular once fade away. Buckets are identified by serial number, so
+ * the cache keeps no Dict alive; the entries of a Dict no longer in use
+ * simply age out.
+ * <p>
+ * Hits, misses and evictions are counted for monitoring.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class AdversaryCache {
+
+	// Constants
+	/** Fewest possible words a decision must be over to be cached. */
+	static final int MIN_WORDS = 64;
+
+	private static final long MAX_WEIGHT = 1 << 22; // Ids held, about 16 MB
+	private static final int ENTRY_WEIGHT = 16;     // Ids an entry costs
+	                                                // besides its own
+	private static final int SEGMENT_BITS = 4;      // 16 segments
+
+	// Class Fields
+	private static final Segment[] segments =
+			new Segment[1 << SEGMENT_BITS];
+	static {
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment(MAX_WEIGHT >> SEGMENT_BITS);
+		}
+	}
+
+	private AdversaryCache() {} // Not instantiable
+
+	// Public methods
+	/**
+	 * Gets the number of lookups the cache has answered.
+	 * @return The hit count.
+	 */
+	public static long getHitCount() {
+		long hits = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Gets the number of lookups the cache could not answer.
+	 * @return The miss count.
+	 */
+	public static long getMissCount() {
+		long misses = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		}
+		return misses;
+	}
+
+	/**
+	 * Gets the number of entries the cache has evicted to stay in bounds.
+	 * @return The eviction count.
+	 */
+	public static long getEvictionCount() {
+		long evictions = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				evictions += segment.evictions;
+			}
+		}
+		return evictions;
+	}
+
+	/**
+	 * Gets the number of decisions in the cache.
+	 * @return The entry count.
+	 */
+	public static int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes every decision from the cache. Games using cached decisions
+	 * are unaffected. The counters are kept.
+	 */
+	public static void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	// Package-private methods
+	/**
+	 * Looks up the decision made for a guess in a game state.
+	 * @param bucket   The bucket of the game's words.
+	 * @param state    The key of the state (see TranspositionTable).
+	 * @param letter   The guessed letter's index in the alphabet.
+	 * @param decision Where to put the decision, if the cache has it.
+	 * @return True if the cache had the decision, else false.
+	 */
+	static boolean get(WordBucket bucket, long state, int letter,
+			Decision decision) {
+		int hash = hash(bucket.getSerial(), state, letter);
+		Segment segment = segments[hash >>> (32 - SEGMENT_BITS)];
+		synchronized (segment) {
+			return segment.get(hash, bucket.getSerial(), state, letter,
+					decision);
+		}
+	}
+
+	/**
+	 * Adds the decision made for a guess in a game state, evicting the
+	 * least used decisions if the cache grows too large.
+	 * @param bucket  The bucket of the game's words.
+	 * @param state   The key of the state.
+	 * @param letter  The guessed letter's index in the alphabet.
+	 * @param pattern The reveal pattern chosen.
+	 * @param ids     The ids of the possible words it leaves, in order. The
+	 *                array must not be written afterwards.
+	 */
+	static void put(WordBucket bucket, long state, int letter, long pattern,
+			int[] ids) {
+		int hash = hash(bucket.getSerial(), state, letter);
+		Segment segment = segments[hash >>> (32 - SEGMENT_BITS)];
+		synchronized (segment) {
+			segment.put(hash, bucket.getSerial(), state, letter, pattern,
+					ids);
+		}
+	}
+
+	// Private methods
+	/**
+	 * Hashes the key of an entry. The high bits pick the segment, the low
+	 * bits the slot within it.
+	 */
+	private static int hash(int serial, long state, int letter) {
+		long h = state ^ (((long) serial << 8 | letter) * 0x9E3779B97F4A7C15L);
+		h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	// Package-private utility classes
+	/**
+	 * A Decision holds an Adversary Word's answer to a guess in a game
+	 * state, as looked up in the cache. It is meant to be reused for every
+	 * lookup.
+	 */
+	static class Decision {
+		private long pattern;
+		private int[] ids;
+
+		/**
+		 * @return The reveal pattern chosen.
+		 */
+		long getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * @return The ids of the possible words left, in order. The array
+		 *         is shared and must not be written.
+		 */
+		int[] getIds() {
+			return ids;
+		}
+	}
+
+	// Private utility classes
+	/**
+	 * A Segment is a hash table of the entries whose hashes share their
+	 * high bits. Its methods must be called while holding its lock.
+	 */
+	private static class Segment {
+		private static final int INITIAL_CAPACITY = 64; // Power of two
+
+		private final long maxWeight;
+		private int[] serials;
+		private long[] states;
+		private int[] letters;
+		private long[] patterns;
+		private int[][] ids;     // Null for an empty slot
+		private int[] uses;
+		private int size;
+		private long weight;     // Ids held, see getWeight()
+		private long hits;
+		private long misses;
+		private long evictions;
+
+		Segment(long maxWeight) {
+			this.maxWeight = maxWeight;
+			allocate(INITIAL_CAPACITY);
+		}
+
+		boolean get(int hash, int serial, long state, int letter,
+				Decision decision) {
+			int slot = find(hash, serial, state, letter);
+			if (ids[slot] == null) {
+				misses++;
+				return false;
+			}
+			if (uses[slot] < Integer.MAX_VALUE)
+				uses[slot]++;
+			hits++;
+			decision.pattern = patterns[slot];
+			decision.ids = ids[slot];
+			return true;
+		}
+
+		void put(int hash, int serial, long state, int letter, long pattern,
+				int[] ids) {
+			int slot = find(hash, serial, state, letter);
+			if (this.ids[slot] != null)
+				return; // Another game made it first
+			if (2 * (size + 1) > this.ids.length) {
+				rebuild(2 * this.ids.length);
+				slot = find(hash, serial, state, letter);
+			}
+			serials[slot] = serial;
+			states[slot] = state;
+			letters[slot] = letter;
+			patterns[slot] = pattern;
+			this.ids[slot] = ids;
+			uses[slot] = 1;
+			size++;
+			weight += getWeight(slot);
+			if (weight > maxWeight)
+				evict();
+		}
+
+		void clear() {
+			Arrays.fill(ids, null);
+			size = 0;
+			weight = 0;
+		}
+
+		/**
+		 * Finds the slot of an entry, or the empty slot it would go in.
+		 */
+		private int find(int hash, int serial, long state, int letter) {
+			int mask = ids.length - 1;
+			int slot = hash & mask;
+			while (ids[slot] != null && (states[slot] != state ||
+					serials[slot] != serial || letters[slot] != letter)) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * Evicts the least used entries until the segment holds three
+		 * quarters of its bound, and halves the use counts of the others.
+		 */
+		private void evict() {
+			// Each entry's use count in the high half, its slot in the low
+			long[] order = new long[size];
+			int n = 0;
+			for (int slot = 0; slot < ids.length; slot++) {
+				if (ids[slot] != null)
+					order[n++] = ((long) uses[slot] << 32) | slot;
+			}
+			Arrays.sort(order);
+			for (long packed : order) {
+				int slot = (int) packed;
+				if (weight > maxWeight / 4 * 3) {
+					weight -= getWeight(slot);
+					ids[slot] = null;
+					size--;
+					evictions++;
+				} else {
+					uses[slot] /= 2;
+				}
+			}
+			// Emptied slots break the probe sequences of the rest
+			int capacity = INITIAL_CAPACITY;
+			while (2 * size > capacity) {
+				capacity *= 2;
+			}
+			rebuild(capacity);
+		}
+
+		/**
+		 * Moves every entry to new tables of a given capacity.
+		 */
+		private void rebuild(int capacity) {
+			int[] oldSerials = serials;
+			long[] oldStates = states;
+			int[] oldLetters = letters;
+			long[] oldPatterns = patterns;
+			int[][] oldIds = ids;
+			int[] oldUses = uses;
+			allocate(capacity);
+			for (int old = 0; old < oldIds.length; old++) {
+				if (oldIds[old] == null)
+					continue;
+				int slot = find(hash(oldSerials[old], oldStates[old],
+						oldLetters[old]), oldSerials[old], oldStates[old],
+						oldLetters[old]);
+				serials[slot] = oldSerials[old];
+				states[slot] = oldStates[old];
+				letters[slot] = oldLetters[old];
+				patterns[slot] = oldPatterns[old];
+				ids[slot] = oldIds[old];
+				uses[slot] = oldUses[old];
+			}
+		}
+
+		private void allocate(int capacity) {
+			serials = new int[capacity];
+			states = new long[capacity];
+			letters = new int[capacity];
+			patterns = new long[capacity];
+			ids = new int[capacity][];
+			uses = new int[capacity];
+		}
+
+		/**
+		 * Gets the number of ids an entry counts as.
+		 */
+		private long getWeight(int slot) {
+			return ids[slot].length + ENTRY_WEIGHT;
+		}
+	}
+}
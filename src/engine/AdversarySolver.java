@@ -0,0 +1,366 @@
+package engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An Adversary Solver solves hangman exactly for the words of one length
+ * and a number of lives: it finds how many wrong guesses an adversary can
+ * force on a player who plays perfectly, and the adversary's policy that
+ * forces them.
+ * <p>
+ * Every guess splits the possible words into realities as it does for an
+ * Adversary Word. The value of a list of possible words is the least, over
+ * the player's guesses, of the most, over the adversary's realities, of one
+ * for a miss plus the value of the reality's words. A single word is worth
+ * nothing, as the player spells it out. Only guesses that split the words
+ * are worth trying: any other guess either misses for sure or reveals what
+ * every possible word has, and gives the player nothing.
+ * <p>
+ * A value only depends on the possible words, not on the letters guessed
+ * to reach them (guessed letters agree with every possible word), so
+ * values are memoized by word list, keyed by a 64-bit hash of its ids
+ * (see PolicyTable.keyOf()). The search is capped at the lives: a value of
+ * lives or more means the player has lost, however many more misses the
+ * adversary could force, so each search only needs to find whether it
+ * reaches a cap, and the player's search stops trying guesses once one
+ * is worth less than its cap allows. Memoized values below their cap are
+ * exact; the others are lower bounds, searched again under a higher cap.
+ * Guesses are tried best split first, and those of large word lists are
+ * searched in parallel on the common ForkJoinPool, sharing the memo.
+ * <p>
+ * The adversary's policy answers each guess with the reality worth the most
+ * for the solver's lives, the largest one of those for ties. An answer that
+ * is best for some lives is best for any fewer lives too, so a policy
+ * solved for some lives serves every game with as many lives or fewer.
+ * Solving takes time exponential in the worst case, so it is meant for
+ * moderate word lists, offline (see PolicyCompiler).
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AdversarySolver {
+
+	// Constants
+	/** Fewest possible words a list must have to be part of a policy. */
+	static final int MIN_POLICY_WORDS = 16;
+	/** Most word lists a policy holds. */
+	static final int MAX_POLICY_LISTS = 1 << 14;
+	/** Most word lists the memo of a solver shared by games holds. */
+	static final int SHARED_MEMO_SIZE = 1 << 18;
+
+	private static final int PARALLEL_SIZE = 256; // Words to fork for
+
+	// Instance Fields
+	private final WordBucket bucket;
+	private final WordSignatures signatures;
+	private final int lives;
+	// Value of a word list by key: twice the value, plus one if exact
+	private final Map<Long, Integer> memo;
+	private final int maxMemoSize; // Lists memoized before it is cleared
+
+	// Constructors
+	/**
+	 * Creates a solver for the words of a bucket.
+	 * @param wordBucket The bucket, of words no longer than
+	 *                   MAX_PATTERN_LENGTH.
+	 * @param maxLives   The number of lives to solve for, at least 1.
+	 */
+	AdversarySolver(WordBucket wordBucket, int maxLives) {
+		this(wordBucket, maxLives, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a solver for the words of a bucket whose memo is bounded, to
+	 * be shared by the games of a Dict. When the memo is full, it is
+	 * cleared, which only costs the time to solve its lists again.
+	 * @param wordBucket  The bucket, of words no longer than
+	 *                    MAX_PATTERN_LENGTH.
+	 * @param maxLives    The number of lives to solve for, at least 1.
+	 * @param maxMemoSize The most word lists to memoize.
+	 */
+	AdversarySolver(WordBucket wordBucket, int maxLives, int maxMemoSize) {
+		if (wordBucket.getWordLength() > WordSignatures.MAX_PATTERN_LENGTH)
+			throw new IllegalArgumentException("Words of length " +
+					wordBucket.getWordLength() + " are too long to solve");
+		if (maxLives < 1)
+			throw new IllegalArgumentException("Lives " + maxLives +
+					" is less than 1");
+		bucket = wordBucket;
+		signatures = bucket.getSignatures();
+		lives = maxLives;
+		memo = new ConcurrentHashMap<Long, Integer>();
+		this.maxMemoSize = maxMemoSize;
+	}
+
+	// Package-private Methods
+	/**
+	 * Solves the game from its start.
+	 * @return The number of wrong guesses the adversary can force, or the
+	 *         lives if it can force the player to lose.
+	 */
+	int solve() {
+		return solve(getAllIds());
+	}
+
+	/**
+	 * Solves the game from a list of possible words.
+	 * @param ids The ids of the possible words, in increasing order.
+	 * @return The number of wrong guesses the adversary can force, or the
+	 *         lives if it can force the player to lose.
+	 */
+	int solve(int[] ids) {
+		return solve(ids, lives);
+	}
+
+	/**
+	 * Finds the adversary's answer to a guess in a list of possible words.
+	 * @param ids    The ids of the possible words, in increasing order.
+	 * @param letter The guessed letter's index in the alphabet.
+	 * @return The reveal pattern of the answer.
+	 */
+	long getAnswer(int[] ids, int letter) {
+		PatternCounts realities = new PatternCounts();
+		int[][] groups = LookaheadWord.partition(signatures, ids, letter,
+				realities);
+		return realities.getPattern(getBestReality(groups, realities));
+	}
+
+	/**
+	 * Builds the adversary's policy: its answer to every guess in every
+	 * list of possible words it can lead the player to, nearest the start
+	 * first. Lists of fewer than MIN_POLICY_WORDS words are left out, as
+	 * they take little time to solve when they come up, and would make up
+	 * most of the policy. So are lists past the first MAX_POLICY_LISTS:
+	 * with enough letters to guess, a player can reach a great many lists,
+	 * and those far from the start are also smaller and quicker to solve.
+	 * @return The answers to each letter, by key of the word list.
+	 */
+	Map<Long, long[]> getPolicy() {
+		Map<Long, long[]> policy = new HashMap<Long, long[]>();
+		Queue<int[]> pending = new ArrayDeque<int[]>();
+		int[] all = getAllIds();
+		if (all.length >= MIN_POLICY_WORDS) {
+			policy.put(PolicyTable.keyOf(all, all.length), null);
+			pending.add(all);
+		}
+		PatternCounts realities = new PatternCounts();
+		while (!pending.isEmpty()) {
+			int[] ids = pending.remove();
+			long[] answers = new long[WordSignatures.ALPHABET];
+			for (int letter = 0; letter < answers.length; letter++) {
+				realities.clear();
+				int[][] groups = LookaheadWord.partition(signatures, ids,
+						letter, realities);
+				int best = getBestReality(groups, realities);
+				answers[letter] = realities.getPattern(best);
+				long key = PolicyTable.keyOf(groups[best],
+						groups[best].length);
+				if (groups[best].length >= MIN_POLICY_WORDS &&
+						policy.size() < MAX_POLICY_LISTS &&
+						!policy.containsKey(key)) {
+					policy.put(key, null); // Queued
+					pending.add(groups[best]);
+				}
+			}
+			policy.put(PolicyTable.keyOf(ids, ids.length), answers);
+		}
+		return policy;
+	}
+
+	// Private methods
+	/**
+	 * Finds the reality the adversary answers a guess with: the one worth
+	 * the most, capped at the lives, of those worth the most the largest.
+	 * @param groups    The ids of each reality.
+	 * @param realities The counts of each reality.
+	 * @return The index of the reality.
+	 */
+	private int getBestReality(int[][] groups, PatternCounts realities) {
+		if (groups.length == 1)
+			return 0; // Nothing to choose
+		int best = -1;
+		int bestScore = -1;
+		for (int i = 0; i < groups.length; i++) {
+			int miss = (realities.getPattern(i) == 0) ? 1 : 0;
+			int score = miss + solve(groups[i], lives - miss);
+			if (best == -1 || score > bestScore || (score == bestScore &&
+					PatternCounts.isBetter(realities.getCount(i),
+							realities.getPattern(i), realities.getCount(best),
+							realities.getPattern(best)))) {
+				best = i;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Solves a list of possible words under a cap.
+	 * @param ids The ids of the possible words, in increasing order.
+	 * @param cap The cap.
+	 * @return The value of the words, or the cap if it is no less.
+	 */
+	private int solve(int[] ids, int cap) {
+		// Raise the cap one at a time: values are small, and the searches
+		// under a low cap are shallow and leave bounds for the next ones
+		for (int low = 1; low < cap; low++) {
+			int value = search(ids, low);
+			if (value < low)
+				return value;
+		}
+		return search(ids, cap);
+	}
+
+	/**
+	 * Searches a list of possible words under a cap.
+	 * @param ids The ids of the possible words, in increasing order.
+	 * @param cap The cap.
+	 * @return The value of the words, or the cap if it is no less.
+	 */
+	private int search(int[] ids, int cap) {
+		Search search = new Search(ids, cap);
+		return (ids.length >= PARALLEL_SIZE)
+				? ForkJoinPool.commonPool().invoke(search) : search.compute();
+	}
+
+	/**
+	 * Lists the ids of every word of the bucket.
+	 */
+	private int[] getAllIds() {
+		int[] ids = new int[bucket.size()];
+		for (int id = 0; id < ids.length; id++) {
+			ids[id] = id;
+		}
+		return ids;
+	}
+
+	// Private utility classes
+	/**
+	 * A Search finds the value of a list of possible words under a cap.
+	 */
+	private class Search extends RecursiveTask<Integer> {
+		private final int[] ids;
+		private final int cap;
+
+		/**
+		 * @param ids The ids of the possible words, in increasing order.
+		 * @param cap The cap, the value at which the search may stop.
+		 */
+		Search(int[] ids, int cap) {
+			this.ids = ids;
+			this.cap = cap;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (ids.length <= 1 || cap <= 0)
+				return 0;
+			long key = PolicyTable.keyOf(ids, ids.length);
+			Integer known = memo.get(key);
+			if (known != null) {
+				int value = known >> 1;
+				if ((known & 1) != 0 || value >= cap)
+					return Math.min(value, cap);
+			}
+
+			// Split the words by every guess that splits them at all,
+			// trying the guesses whose largest reality is smallest first
+			List<int[][]> splits = new ArrayList<int[][]>();
+			List<long[]> patterns = new ArrayList<long[]>();
+			PatternCounts realities = new PatternCounts();
+			for (int letter = 0; letter < WordSignatures.ALPHABET; letter++) {
+				realities.clear();
+				int[][] groups = LookaheadWord.partition(signatures, ids,
+						letter, realities);
+				if (groups.length == 1)
+					continue;
+				long[] groupPatterns = new long[groups.length];
+				for (int i = 0; i < groups.length; i++) {
+					groupPatterns[i] = realities.getPattern(i);
+				}
+				splits.add(groups);
+				patterns.add(groupPatterns);
+			}
+			// Each guess's largest reality in the high half, its index in
+			// the low half
+			long[] order = new long[splits.size()];
+			for (int i = 0; i < order.length; i++) {
+				int largest = 0;
+				for (int[] group : splits.get(i)) {
+					largest = Math.max(largest, group.length);
+				}
+				order[i] = ((long) largest << 32) | i;
+			}
+			Arrays.sort(order);
+
+			int best = cap;
+			if (ids.length >= PARALLEL_SIZE) {
+				List<Guess> guesses = new ArrayList<Guess>();
+				for (long packed : order) {
+					guesses.add(new Guess(splits.get((int) packed),
+							patterns.get((int) packed), cap));
+				}
+				invokeAll(guesses);
+				for (Guess guess : guesses) {
+					best = Math.min(best, guess.join());
+				}
+			} else {
+				for (long packed : order) {
+					best = Math.min(best, new Guess(splits.get((int) packed),
+							patterns.get((int) packed), best).compute());
+					if (best == 0)
+						break;
+				}
+			}
+			// Keep the most that is known of the value. Racing searches of
+			// the same words may lose some of it, which only costs time.
+			if (known == null && memo.size() >= maxMemoSize)
+				memo.clear();
+			if (known == null || best > (known >> 1) || best < cap)
+				memo.put(key, (best < cap) ? (best << 1) | 1 : best << 1);
+			return best;
+		}
+	}
+
+	/**
+	 * A Guess finds the value of one guess of the player: the adversary's
+	 * best reality, under a cap.
+	 */
+	private class Guess extends RecursiveTask<Integer> {
+		private final int[][] groups;
+		private final long[] patterns;
+		private final int cap;
+
+		/**
+		 * @param groups   The ids of each reality of the guess.
+		 * @param patterns The pattern of each reality.
+		 * @param cap      The cap, the value at which the search may stop.
+		 */
+		Guess(int[][] groups, long[] patterns, int cap) {
+			this.groups = groups;
+			this.patterns = patterns;
+			this.cap = cap;
+		}
+
+		@Override
+		protected Integer compute() {
+			int best = 0;
+			for (int i = 0; i < groups.length && best < cap; i++) {
+				int miss = (patterns[i] == 0) ? 1 : 0;
+				best = Math.max(best, miss +
+						new Search(groups[i], cap - miss).compute());
+			}
+			return Math.min(best, cap);
+		}
+	}
+}
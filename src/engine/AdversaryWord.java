@@ -1,7 +1,7 @@
 package engine;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 /**
  * An Adversary Word object is a Word, meaning that it represents a hangman
@@ -16,6 +16,37 @@ import java.util.Queue;
  * The Adversary Word attempts to force the most guesses possible, but 
  * this is not necessarily optimal at forcing a player to lose in hangman 
  * since lives are only lost after <i>incorrect</i> guesses.
+ * <p>
+ * Every guess splits the possible words into "realities" by their reveal
+ * pattern: the set of positions at which a word has the guessed letter,
+ * none for words without it. Words with repeated letters are played like
+ * any other, so a guess may reveal a letter at several positions at once.
+ * <p>
+ * Possible words are kept as ids into the Dict's packed storage. Each
+ * guess computes every word's pattern as a bitmask, using the words'
+ * precomputed letter signatures to skip words without the letter, counts
+ * the patterns in one pass with a primitive hash table (see PatternCounts),
+ * and then keeps the ids of the words of the chosen pattern. Every game
+ * starts from the bucket's shared array of all its ids. The pattern buffer
+ * and table are scratch space, reused by every game on the same thread.
+ * <p>
+ * Decisions over many words are shared with other games through the
+ * Adversary Cache: a guess it has the decision for is answered by taking
+ * over the cached pattern and possible words, without partitioning, and a
+ * guess it does not have writes the words it keeps to a new array of
+ * exactly their number, which the cache then shares as is. Shorter lists
+ * of possible words are kept on the game's own Id Stack, filtered in place
+ * from guess to guess. After a game is created, a guess thus allocates no
+ * memory unless the cache misses on a decision over many words, the
+ * thread meets more words or patterns at once than it ever has, or
+ * snapshots hold on to enough of the stack that it starts a new array. As
+ * shared ids are never overwritten, saving a game's state and branching it
+ * only take the range of its possible words.
+ * <p>
+ * If the Dict has an opening book for the word length, the first guesses
+ * are answered from it instead, without looking at any word. The possible
+ * words are only found, in a single pass, once the game leaves the book,
+ * and are cached like the words a decision leaves.
  * 
  * @author Vance Zuo
  * Created: May 12, 2013
@@ -23,36 +54,62 @@ import java.util.Queue;
  */
 class AdversaryWord extends Word {
 	
+	// Constants
+	// Letter index the words left after the opening book are cached under
+	private static final int LEFT_BOOK = WordSignatures.ALPHABET;
+
 	// Instance Fields
-	private Queue<String> possibleWords;
-	private int length;
-	private String usedLetters;
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private int[] possibleWords; // Word ids into bucket, read-only; those
+	private int possibleStart;   // from possibleStart on, possibleCount of
+	private int possibleCount;   // them, are still possible
+	private IdStack stack;       // Where guesses keep short lists of words
+	private int usedLetters;     // Mask of letters, bit 0 for 'a'
 	private char[] partialWord; // AdversaryWord must give answers consistent
 	                            // with this partialWord
+	private OpeningBook book;   // Null once the game has left the book
+	private long state;         // Key of the game state, for the book and
+	                            // the Adversary Cache
 	private Word backup; 
 
+	// Class Fields
+	private static final ThreadLocal<Scratch> scratches =
+			new ThreadLocal<Scratch>() {
+				@Override
+				protected Scratch initialValue() {
+					return new Scratch();
+				}
+			};
+
 	// Constructors
 	/**
 	 * Creates a new Adversary Word object using a given Dict and word length.
 	 * @param dict       The Dict of possible words to choose from.
 	 * @param wordLength The desired word length.
+	 * @param rng        The random number generator for the backup word
+	 *                   chooser, if one is needed.
 	 */
-	public AdversaryWord(Dict dict, int wordLength) {
+	public AdversaryWord(Dict dict, int wordLength, RandomGenerator rng) {
 		super(dict, wordLength);
-		possibleWords = new LinkedList<String>();
-		for (String word : dict.getWordList(wordLength)) {
-			// For simplicity, the AdversaryWord ignores words that contain
-			// repeated letters. For small dictionaries or very long words,
-			// it may ignore all the possible words; in this case, Adversary 
-			// word reverts to a "backup" word chooser.
-			if (isUnique(word))
-				possibleWords.add(word);
-		}
-		length = wordLength;
-		usedLetters = "";
+		bucket = dict.getBucket(wordLength);
+		signatures = bucket.getSignatures();
+		// Patterns of words longer than a long has bits cannot be kept;
+		// no real word list has any, but the AdversaryWord reverts to a 
+		// "backup" word chooser for them.
+		if (wordLength > WordSignatures.MAX_PATTERN_LENGTH) {
+			backup = new RandomWord(dict, wordLength, rng);
+			return;
+		}
+		possibleWords = bucket.getIds();
+		possibleStart = 0;
+		possibleCount = possibleWords.length;
+		stack = newStack();
+		usedLetters = 0;
 		partialWord = new char[wordLength];
-		backup = possibleWords.isEmpty() ? new RandomWord(dict, wordLength) 
-										 : null; // null -> no backup needed
+		book = dict.getBook(wordLength);
+		state = TranspositionTable.initialKey(wordLength);
+		backup = null; // null -> no backup needed
 	}
 
 	// Public Methods
@@ -62,7 +119,7 @@ class AdversaryWord extends Word {
 			return backup.hasLetter(letter);
 		if (!hasUsed(letter))
 			processLetter(letter); // Updates usedLetters and partialWord
-		return getIndexOf(partialWord, letter) != null;
+		return getPatternOf(partialWord, letter) != 0;
 	}
 
 
@@ -72,19 +129,85 @@ class AdversaryWord extends Word {
 			return backup.getLetterPositions(letter);
 		if (!hasUsed(letter))
 			processLetter(letter); // Updates usedLetters and partialWord
-		return getIndexOf(partialWord, letter);
+		return toPositions(getPatternOf(partialWord, letter));
 	}
 
 	@Override
 	public String toString() {
 		if (backup != null)
 			return backup.toString();
+		if (book != null)
+			leaveBook(scratches.get());
 		// If forced to show its "word", the Adversary simply picks the first
 		// one in its list of possible word. So this method can return 
 		// a different result if called in a later state.
-		return possibleWords.peek();
+		return bucket.getWord(possibleWords[possibleStart]);
 	}	
+
+	@Override
+	public Snapshot snapshot() {
+		if (backup != null)
+			return backup.snapshot();
+		stack.share(possibleWords, possibleStart + possibleCount);
+		return new State(this);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		if (backup != null) {
+			backup.restore(snapshot);
+			return;
+		}
+		State state = (State) snapshot;
+		possibleWords = state.possibleWords;
+		possibleStart = state.possibleStart;
+		possibleCount = state.possibleCount;
+		usedLetters = state.usedLetters;
+		partialWord = state.partialWord.clone();
+		book = state.book;
+		this.state = state.state;
+	}
+
+	@Override
+	public Word branch() {
+		AdversaryWord branch = (AdversaryWord) super.branch();
+		if (backup == null) // A stack of its own
+			branch.stack = newStack();
+		return branch;
+	}
+	
+	// Package-private methods
+	/**
+	 * Finds the positions of a letter in a partial word.
+	 * @param word   The partial word.
+	 * @param letter The letter as a char. 
+	 * @return A bitmask with bit i set if the letter is at position i.
+	 */
+	static long getPatternOf(char[] word, char letter) {
+		long pattern = 0;
+		for (int i = 0; i < word.length; i++) {
+			if (word[i] == letter)
+				pattern |= 1L << i;
+		}
+		return pattern;
+	}
 	
+	/**
+	 * Lists the positions of a reveal pattern.
+	 * @param pattern The pattern.
+	 * @return Null if the pattern is empty, else an array of the positions
+	 *         it reveals, in increasing order.
+	 */
+	static int[] toPositions(long pattern) {
+		if (pattern == 0)
+			return null;
+		int[] positions = new int[Long.bitCount(pattern)];
+		for (int i = 0; pattern != 0; pattern &= pattern - 1) {
+			positions[i++] = Long.numberOfTrailingZeros(pattern);
+		}
+		return positions;
+	}
+
 	// Private methods
 	/**
 	 * Checks if a letter has been guessed/queried for yet.
@@ -93,7 +216,8 @@ class AdversaryWord extends Word {
 	 *         else false.
 	 */
 	private boolean hasUsed(char letter) {
-		return usedLetters.indexOf(letter) != -1;
+		int index = WordSignatures.indexOf(letter);
+		return index >= 0 && (usedLetters & (1 << index)) != 0;
 	}
 
 	/**
@@ -102,76 +226,189 @@ class AdversaryWord extends Word {
 	 * @param letter The letter as a char.
 	 */
 	private void processLetter(char letter) {
-		usedLetters += letter;
+		int index = WordSignatures.indexOf(letter);
+		if (index < 0)
+			return; // No word contains it; every word stays possible
+		long maxPattern = decide(index);
+		usedLetters |= 1 << index;
+		state ^= TranspositionTable.guessKey(index, maxPattern);
+		for (long mask = maxPattern; mask != 0; mask &= mask - 1) {
+			partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+		}
+	}
+
+	/**
+	 * Chooses the reality of a guess, from the opening book or the Adversary
+	 * Cache if either has it, and keeps only its possible words. The
+	 * letter must not be in the used letters yet.
+	 * @param index The guessed letter's index in the alphabet.
+	 * @return The reveal pattern of the reality.
+	 */
+	private long decide(int index) {
+		if (book != null) {
+			int entry = book.indexOf(state);
+			if (entry >= 0)
+				return book.getAnswer(entry, index);
+		}
+		Scratch scratch = scratches.get();
+		if (possibleCount >= AdversaryCache.MIN_WORDS &&
+				AdversaryCache.get(bucket, state, index, scratch.decision)) {
+			possibleWords = scratch.decision.getIds();
+			possibleStart = 0;
+			possibleCount = possibleWords.length;
+			book = null;
+			return scratch.decision.getPattern();
+		}
+		if (book != null)
+			leaveBook(scratch);
 		
 		// There are several different "realities" that the Adversary Word
-		// can choose from: letter not in word, letter at first index,
-		// letter at second index, etc... The AdversaryWord chooses the
-		// reality containing the largest number of possible words.
+		// can choose from: letter not in word, letter only at the first 
+		// index, letter at the first and third index, etc... The 
+		// AdversaryWord chooses the reality containing the largest number
+		// of possible words, preferring to reveal as little as it can.
 		// This greedy approach is probably not optimal for maximizing lives
 		// lost player, but it works pretty well in practice.
-		Queue<String>[] realities = new LinkedList[length + 1];
-		for (int i = 0; i < realities.length; i++) {
-			realities[i] = new LinkedList<String>();
-		}
-		while (!possibleWords.isEmpty()) {
-			String current = possibleWords.remove();
-			int letterPos = current.indexOf(letter);
-			letterPos++;
-			realities[letterPos].add(current);
+		long[] patterns = scratch.getPatterns(possibleCount);
+		PatternCounts realities = scratch.realities;
+		realities.clear();
+		for (int i = 0; i < possibleCount; i++) {
+			patterns[i] = signatures.getPattern(
+					possibleWords[possibleStart + i], index);
+			realities.add(patterns[i]);
 		}
+		long maxPattern = realities.getBestPattern();
 		
-		// Find the possible words list with the greatest number of words,
-		// preferring the word list corresponding to the letter not being
-		// in the hangman word for ties.
-		int maxIndex = 0;
-		for (int i = 1; i < realities.length; i++) {
-			if (realities[i].size() > realities[maxIndex].size())
-				maxIndex = i;
+		// Keep the words of the pattern, in order: in an array the cache
+		// can share if they were many, else on the stack
+		boolean cached = possibleCount >= AdversaryCache.MIN_WORDS;
+		int[] kept;
+		int start;
+		if (cached) {
+			kept = new int[realities.getCount(realities.indexOf(maxPattern))];
+			start = 0;
+		} else {
+			kept = stack.reserve(possibleWords, possibleStart, possibleCount);
+			start = stack.getTop();
 		}
-		
-		possibleWords = realities[maxIndex];
-		
-		// 0-th index means not in word, the rest n-th index means the n-th
-		// letter of the word, so the partial word needs to be updated 
-		// at the (n-1)-th index.
-		if (maxIndex != 0)
-			partialWord[maxIndex - 1] = letter;
+		int count = 0;
+		for (int i = 0; i < possibleCount; i++) {
+			if (patterns[i] == maxPattern)
+				kept[start + count++] = possibleWords[possibleStart + i];
+		}
+		if (cached)
+			AdversaryCache.put(bucket, state, index, maxPattern, kept);
+		else
+			stack.push(count);
+		possibleWords = kept;
+		possibleStart = start;
+		possibleCount = count;
+		return maxPattern;
 	}
-	
+
 	/**
-	 * Returns the first index of a given character array that contains the
-	 * same as the given character.
-	 * @param word   The char array.
-	 * @param letter The letter as a char. 
-	 * @return Null if the letter is not in the word, else an array of the 
-	 *         int index where the letter appears.
+	 * Finds the possible words after the guesses answered from the opening
+	 * book: the words with each guessed letter at exactly the positions
+	 * it was revealed at, in id order. They are looked up in the Adversary
+	 * Cache first, as if left by a guess of the letter past 'z'.
+	 * @param scratch The calling thread's scratch space.
 	 */
-	private int[] getIndexOf(char[] word, char letter) {
-		for (int i = 0; i < word.length; i++) {
-			// The AdversaryWord does not include words with repeated 
-			// characters in its possible words list, so the array should 
-			// have only one element.
-			if (word[i] == letter)
-				return new int[] {i};
+	private void leaveBook(Scratch scratch) {
+		book = null;
+		if (AdversaryCache.get(bucket, state, LEFT_BOOK, scratch.decision)) {
+			possibleWords = scratch.decision.getIds();
+			possibleStart = 0;
+			possibleCount = possibleWords.length;
+			return;
+		}
+		long[] revealed = scratch.revealed;
+		Arrays.fill(revealed, 0);
+		for (int pos = 0; pos < partialWord.length; pos++) {
+			if (partialWord[pos] != '\0')
+				revealed[partialWord[pos] - 'a'] |= 1L << pos;
+		}
+		int[] found = scratch.getIds(bucket.size());
+		int count = 0;
+		for (int id = 0; id < bucket.size(); id++) {
+			boolean agrees = true;
+			for (int mask = usedLetters; mask != 0 && agrees; 
+					mask &= mask - 1) {
+				int index = Integer.numberOfTrailingZeros(mask);
+				agrees = signatures.getPattern(id, index) == revealed[index];
+			}
+			if (agrees)
+				found[count++] = id;
+		}
+		if (count >= AdversaryCache.MIN_WORDS) {
+			possibleWords = Arrays.copyOf(found, count);
+			possibleStart = 0;
+			AdversaryCache.put(bucket, state, LEFT_BOOK, 0, possibleWords);
+		} else {
+			possibleWords = stack.reserve(found, 0, count);
+			possibleStart = stack.getTop();
+			System.arraycopy(found, 0, possibleWords, possibleStart, count);
+			stack.push(count);
 		}
-		return null;
+		possibleCount = count;
 	}
-	
+
 	/**
-	 * Checks if a string has any repeated characters. A "unique" string
-	 * has no repeats.
-	 * @param s The string.
-	 * @return True if the string contains unique characters only, else false.
+	 * Creates an empty stack, big enough for any list of possible words
+	 * too short to be cached.
 	 */
-	private boolean isUnique(String s) {
-		s = s.toLowerCase();
-		for (int i = 0; i < s.length(); i++) {
-			for (int j = i + 1; j < s.length(); j++) {
-				if (s.charAt(i) == s.charAt(j))
-					return false;
-			}
+	private IdStack newStack() {
+		return new IdStack(Math.min(bucket.size(), AdversaryCache.MIN_WORDS));
+	}
+
+	// Private utility classes
+	/**
+	 * A Scratch holds the buffers a guess works in, reused by every
+	 * Adversary Word on the same thread. Each grows to the most any guess
+	 * on the thread has needed.
+	 */
+	private static class Scratch {
+		private long[] patterns = new long[0]; // Pattern of each word
+		private int[] ids = new int[0];        // Words left after the book
+		private final long[] revealed = new long[WordSignatures.ALPHABET];
+		private final PatternCounts realities = new PatternCounts();
+		private final AdversaryCache.Decision decision =
+				new AdversaryCache.Decision();
+
+		long[] getPatterns(int count) {
+			if (patterns.length < count)
+				patterns = new long[count];
+			return patterns;
+		}
+
+		int[] getIds(int count) {
+			if (ids.length < count)
+				ids = new int[count];
+			return ids;
+		}
+	}
+
+	/**
+	 * A State is a snapshot of an Adversary Word. Its possible words are a
+	 * range of a read-only array, shared with the Adversary Word: one the
+	 * cache shares, or a range of the stack the snapshot shared.
+	 */
+	private static class State implements Snapshot {
+		private final int[] possibleWords;
+		private final int possibleStart;
+		private final int possibleCount;
+		private final int usedLetters;
+		private final char[] partialWord;
+		private final OpeningBook book;
+		private final long state;
+
+		State(AdversaryWord word) {
+			possibleWords = word.possibleWords;
+			possibleStart = word.possibleStart;
+			possibleCount = word.possibleCount;
+			usedLetters = word.usedLetters;
+			partialWord = word.partialWord.clone();
+			book = word.book;
+			state = word.state;
 		}
-		return true;
 	}
 }
@@ -0,0 +1,87 @@
+package engine;
+
+import java.nio.IntBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * An Alias Table samples indices in proportion to fixed integer weights in
+ * constant time, using Walker's alias method (as built by Vose's algorithm).
+ * <p>
+ * Every index owns one equally likely column, split between the index itself
+ * and one other index, its alias. A sample picks a column uniformly and then
+ * one of its two halves by a biased coin, so it costs two random numbers and
+ * two array reads, and allocates nothing. Building the table takes linear
+ * time in the number of weights.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AliasTable {
+
+	// Instance Fields
+	private final double[] probabilities; // Of keeping a column's own index
+	private final int[] aliases;
+
+	// Constructors
+	/**
+	 * Builds the table of a list of weights.
+	 * @param weights The weights, one per index, none negative and at least
+	 *                one positive. Only the buffer's first size entries are
+	 *                used, by absolute index.
+	 * @param size    The number of weights.
+	 */
+	AliasTable(IntBuffer weights, int size) {
+		probabilities = new double[size];
+		aliases = new int[size];
+		long total = 0;
+		for (int i = 0; i < size; i++) {
+			total += weights.get(i);
+		}
+		if (total <= 0)
+			throw new IllegalArgumentException("No positive weight");
+		// Scale so that the average column holds exactly 1
+		int[] small = new int[size];
+		int[] large = new int[size];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < size; i++) {
+			probabilities[i] = (double) weights.get(i) * size / total;
+			if (probabilities[i] < 1.0)
+				small[smallCount++] = i;
+			else
+				large[largeCount++] = i;
+		}
+		// Fill each small column up with part of a large one
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[largeCount - 1];
+			aliases[less] = more;
+			probabilities[more] -= 1.0 - probabilities[less];
+			if (probabilities[more] < 1.0) {
+				largeCount--;
+				small[smallCount++] = more;
+			}
+		}
+		// Whatever is left is full, up to rounding errors
+		while (largeCount > 0) {
+			probabilities[large[--largeCount]] = 1.0;
+		}
+		while (smallCount > 0) {
+			probabilities[small[--smallCount]] = 1.0;
+		}
+	}
+
+	// Package-private Methods
+	/**
+	 * Draws an index at random, each with probability proportional to its
+	 * weight.
+	 * @param rng The random number generator to draw from.
+	 * @return The index, from 0 to the number of weights - 1.
+	 */
+	int sample(RandomGenerator rng) {
+		int column = rng.nextInt(aliases.length);
+		return (rng.nextDouble() < probabilities[column]) ? column
+				: aliases[column];
+	}
+}
@@ -0,0 +1,118 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Anytime Stats collects, process-wide, how long Anytime Words take to
+ * answer guesses and how deep they search, so that their deadline can be
+ * tuned: if most guesses reach the deepest search well before the
+ * deadline, it can be lowered, and if many run over it, the greedy answer
+ * alone is too slow for it.
+ * <p>
+ * Every guess an Anytime Word answers is recorded, with the time it took
+ * and the depth of its deepest finished search: 0 for the greedy answer,
+ * which includes guesses that leave the possible words nothing to choose.
+ * Each Anytime Word also keeps the record of its own guesses.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class AnytimeStats {
+
+	// Constants
+	/** Deepest search depth counted on its own; deeper ones count as it. */
+	public static final int MAX_COUNTED_DEPTH = WordSignatures.ALPHABET;
+
+	// Class Fields
+	private static final LongAdder guesses = new LongAdder();
+	private static final LongAdder overruns = new LongAdder();
+	private static final LongAdder totalNanos = new LongAdder();
+	private static final AtomicLong maxNanos = new AtomicLong();
+	private static final AtomicLongArray depths =
+			new AtomicLongArray(MAX_COUNTED_DEPTH + 1);
+
+	private AnytimeStats() {} // Not instantiable
+
+	// Public methods
+	/**
+	 * Gets the number of guesses answered.
+	 * @return The guess count.
+	 */
+	public static long getGuessCount() {
+		return guesses.sum();
+	}
+
+	/**
+	 * Gets the number of guesses that took longer than their deadline.
+	 * @return The overrun count.
+	 */
+	public static long getOverrunCount() {
+		return overruns.sum();
+	}
+
+	/**
+	 * Gets the total time spent answering guesses.
+	 * @return The time in nanoseconds.
+	 */
+	public static long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * Gets the longest time spent answering a guess.
+	 * @return The time in nanoseconds.
+	 */
+	public static long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Gets the number of guesses whose deepest finished search was of a
+	 * given depth.
+	 * @param depth The depth, 0 for guesses answered greedily, up to
+	 *              MAX_COUNTED_DEPTH.
+	 * @return The guess count.
+	 */
+	public static long getDepthCount(int depth) {
+		if (depth < 0 || depth > MAX_COUNTED_DEPTH)
+			throw new IllegalArgumentException("Depth " + depth +
+					" is out of range");
+		return depths.get(depth);
+	}
+
+	/**
+	 * Resets every statistic to zero. Guesses being answered meanwhile may
+	 * be partly counted.
+	 */
+	public static void reset() {
+		guesses.reset();
+		overruns.reset();
+		totalNanos.reset();
+		maxNanos.set(0);
+		for (int depth = 0; depth <= MAX_COUNTED_DEPTH; depth++) {
+			depths.set(depth, 0);
+		}
+	}
+
+	// Package-private methods
+	/**
+	 * Records a guess answered.
+	 * @param nanos    The time it took, in nanoseconds.
+	 * @param depth    The depth of its deepest finished search.
+	 * @param deadline The deadline it had, in nanoseconds.
+	 */
+	static void record(long nanos, int depth, long deadline) {
+		guesses.increment();
+		if (nanos > deadline)
+			overruns.increment();
+		totalNanos.add(nanos);
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+		depths.incrementAndGet(Math.min(depth, MAX_COUNTED_DEPTH));
+	}
+}
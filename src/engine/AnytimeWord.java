@@ -0,0 +1,262 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * An Anytime Word object is a Word that plays as a Lookahead Word does, but
+ * within a deadline per guess rather than a fixed amount of work, so that
+ * answering a guess never blocks the game for long.
+ * <p>
+ * Each guess first gets the greedy answer an Adversary Word would give.
+ * The Anytime Word then searches one guess ahead, two, and so on, keeping
+ * the answer of the deepest search that finishes, until the deadline
+ * passes, the search cannot look further ahead than the letters left, or
+ * nothing is left to choose. A search that runs out of time is abandoned.
+ * Results stored in the game's Transposition Table only answer searches of
+ * the same depth, so a deeper search does not reuse the shallower ones'
+ * scores, but it does try their best answers first, which cuts off most
+ * of their siblings.
+ * <p>
+ * The time each guess took and the depth it reached are recorded, in the
+ * Anytime Word and in the process-wide Anytime Stats, to tune the deadline
+ * by. Searches check the deadline at every step, so a guess overruns it by
+ * about one step at most, except that the greedy answer is always found:
+ * a deadline shorter than it takes is overrun by it.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AnytimeWord extends Word {
+
+	// Constants
+	/** Default time to answer a guess in, in milliseconds. */
+	static final long DEFAULT_DEADLINE = Mode.DEFAULT_DEADLINE;
+
+	private static final int TABLE_SIZE = 1 << 16; // Searches remembered
+
+	// Instance Fields
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private int[] possibleWords; // Word ids into bucket
+	private int usedLetters;     // Mask of letters, bit 0 for 'a'
+	private int livesLeft;       // Lives, less those the player has lost
+	private char[] partialWord;  // Answers must be consistent with it
+	private long state;          // Transposition key of the game state
+	private TranspositionTable table; // Shared by every search of the game
+	private long deadlineNanos;  // Time to answer a guess in
+	private long[] guessNanos;   // Time each guess took, in the order
+	private int[] guessDepths;   // answered; depth each guess reached
+	private int guessCount;
+	private Word backup;
+
+	// Constructors
+	/**
+	 * Creates a new Anytime Word object using a given Dict and word length.
+	 * @param dict       The Dict of possible words to choose from.
+	 * @param wordLength The desired word length.
+	 * @param lives      The number of wrong guesses the player is allowed.
+	 * @param deadline   The time to answer each guess in, in milliseconds.
+	 * @param rng        The random number generator for the backup word
+	 *                   chooser, if one is needed.
+	 */
+	public AnytimeWord(Dict dict, int wordLength, int lives, long deadline,
+			RandomGenerator rng) {
+		super(dict, wordLength);
+		if (deadline < 0)
+			throw new IllegalArgumentException("Deadline " + deadline +
+					" is negative");
+		bucket = dict.getBucket(wordLength);
+		// As for an Adversary Word, a backup word is used for words too
+		// long for their patterns to fit a long
+		if (wordLength > WordSignatures.MAX_PATTERN_LENGTH) {
+			backup = new RandomWord(dict, wordLength, rng);
+			return;
+		}
+		signatures = bucket.getSignatures();
+		possibleWords = bucket.getIds();
+		usedLetters = 0;
+		livesLeft = lives;
+		partialWord = new char[wordLength];
+		state = TranspositionTable.initialKey(wordLength);
+		table = new TranspositionTable(TABLE_SIZE);
+		deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadline);
+		guessNanos = new long[WordSignatures.ALPHABET];
+		guessDepths = new int[WordSignatures.ALPHABET];
+		guessCount = 0;
+		backup = null;
+	}
+
+	// Public Methods
+	@Override
+	public boolean hasLetter(char letter) {
+		if (backup != null)
+			return backup.hasLetter(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.getPatternOf(partialWord, letter) != 0;
+	}
+
+	@Override
+	public int[] getLetterPositions(char letter) {
+		if (backup != null)
+			return backup.getLetterPositions(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.toPositions(
+				AdversaryWord.getPatternOf(partialWord, letter));
+	}
+
+	@Override
+	public String toString() {
+		if (backup != null)
+			return backup.toString();
+		// As an Adversary Word does, show the first possible word
+		return bucket.getWord(possibleWords[0]);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		if (backup != null)
+			return backup.snapshot();
+		return new State(this);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		if (backup != null) {
+			backup.restore(snapshot);
+			return;
+		}
+		State state = (State) snapshot;
+		possibleWords = state.possibleWords;
+		usedLetters = state.usedLetters;
+		livesLeft = state.livesLeft;
+		partialWord = state.partialWord.clone();
+		this.state = state.state;
+	}
+
+	@Override
+	public Word branch() {
+		AnytimeWord branch = (AnytimeWord) super.branch();
+		if (backup == null) { // A record of its own, starting as this one
+			branch.guessNanos = guessNanos.clone();
+			branch.guessDepths = guessDepths.clone();
+		}
+		return branch;
+	}
+
+	// Package-private Methods
+	@Override
+	void loseLife() {
+		if (backup == null && livesLeft > 0)
+			livesLeft--;
+	}
+
+	/**
+	 * Gets the time each guess took to answer, in the order answered.
+	 * Guesses undone by restore() stay in the record.
+	 * @return The times in nanoseconds; empty if a backup word plays.
+	 */
+	long[] getGuessNanos() {
+		return Arrays.copyOf(guessNanos, guessCount);
+	}
+
+	/**
+	 * Gets the depth of the deepest finished search of each guess, in the
+	 * order answered: 0 for a greedy answer.
+	 * @return The depths; empty if a backup word plays.
+	 */
+	int[] getGuessDepths() {
+		return Arrays.copyOf(guessDepths, guessCount);
+	}
+
+	// Private methods
+	/**
+	 * Checks if a letter has been guessed/queried for yet.
+	 * @param letter The letter as a char.
+	 * @return True if the letter has been processed previously (queried),
+	 *         else false.
+	 */
+	private boolean hasUsed(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		return index >= 0 && (usedLetters & (1 << index)) != 0;
+	}
+
+	/**
+	 * Adds a letter to the used letters, keeping the reality of possible
+	 * words that looks worst for the player by the deadline.
+	 * @param letter The letter as a char.
+	 */
+	private void processLetter(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		if (index < 0)
+			return; // No word contains it; every word stays possible
+		long start = System.nanoTime();
+		long deadline = start + deadlineNanos;
+		int used = usedLetters | (1 << index);
+		PatternCounts realities = new PatternCounts();
+		int[][] groups = LookaheadWord.partition(signatures, possibleWords,
+				index, realities);
+
+		// Start from the greedy answer, and deepen until time runs out;
+		// looking further ahead than the letters left finds nothing more
+		int best = realities.indexOf(realities.getBestPattern());
+		int depth = 0;
+		int maxDepth = WordSignatures.ALPHABET - Integer.bitCount(used);
+		try {
+			while (groups.length > 1 && depth < maxDepth &&
+					System.nanoTime() - deadline < 0) {
+				best = LookaheadWord.searchRealities(signatures, table,
+						groups, realities, index, used, state, livesLeft,
+						depth + 1, deadline);
+				depth++;
+			}
+		} catch (CancellationException e) {
+			// Out of time: keep the answer of the deepest finished search
+		}
+		long nanos = System.nanoTime() - start;
+		if (guessCount == guessNanos.length) { // Guesses were undone
+			guessNanos = Arrays.copyOf(guessNanos, 2 * guessCount);
+			guessDepths = Arrays.copyOf(guessDepths, 2 * guessCount);
+		}
+		guessNanos[guessCount] = nanos;
+		guessDepths[guessCount] = depth;
+		guessCount++;
+		AnytimeStats.record(nanos, depth, deadlineNanos);
+
+		long pattern = realities.getPattern(best);
+		possibleWords = groups[best];
+		usedLetters = used;
+		state ^= TranspositionTable.guessKey(index, pattern);
+		if (pattern == 0)
+			livesLeft--;
+		for (long mask = pattern; mask != 0; mask &= mask - 1) {
+			partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+		}
+	}
+
+	// Private utility classes
+	/**
+	 * A State is a snapshot of an Anytime Word. Its possible words are an
+	 * array of the Anytime Word's, which are never written.
+	 */
+	private static class State implements Snapshot {
+		private final int[] possibleWords;
+		private final int usedLetters;
+		private final int livesLeft;
+		private final char[] partialWord;
+		private final long state;
+
+		State(AnytimeWord word) {
+			possibleWords = word.possibleWords;
+			usedLetters = word.usedLetters;
+			livesLeft = word.livesLeft;
+			partialWord = word.partialWord.clone();
+			state = word.state;
+		}
+	}
+}
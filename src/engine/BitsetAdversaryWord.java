@@ -0,0 +1,352 @@
+package engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A Bitset Adversary Word is an Adversary Word for large word lists: it
+ * plays exactly as an Adversary Word does, answer for answer, but keeps its
+ * possible words as a bitset over its Dict's Word Bucket instead of a list
+ * of ids.
+ * <p>
+ * Most words have a guessed letter at most once, so most realities are
+ * sized from the bucket's Word Index alone: the words of "letter not in
+ * word" are the possible words it does not list as containing the letter,
+ * and those of "letter only at position i" are the possible words it lists
+ * for (i, letter), less those it lists at any other position too. These
+ * sets are found by ANDing bitsets and sized by counting bits, without
+ * visiting a single word. Only the few words with the letter at several
+ * positions are visited, and their patterns counted as an Adversary Word
+ * counts them. The chosen reality then replaces the possible words in
+ * place. A guess costs O(words / 64 * length) long operations plus the
+ * repeated-letter words, and allocates nothing unless it has more patterns
+ * than any guess before it. Only the range of longs that still has possible
+ * words is visited, so guesses get cheaper as the game goes on.
+ * <p>
+ * As an Adversary Word does, it answers the first guesses from the Dict's
+ * opening book if it has one, and then matches the revealed letters
+ * against the Word Index to find the possible words.
+ * <p>
+ * A snapshot shares the bitset with the Bitset Adversary Word, which copies
+ * it before its next guess writes it, so that taking a snapshot stays cheap
+ * and the copy costs a fraction of the guess that needs it.
+ * <p>
+ * The Word Index takes 26 * (length + 1) bits per word of the bucket, so
+ * Mode only uses this variant for buckets large enough to repay it (see
+ * suits()).
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class BitsetAdversaryWord extends Word {
+
+	// Constants
+	private static final int MIN_WORDS = 1 << 15; // Bucket size to use it
+
+	// Instance Fields
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private WordIndex index;
+	private long[] possibleWords; // Bitset of word ids into bucket
+	private boolean shared;       // Whether a snapshot has possibleWords,
+	                              // which must then be copied to be written
+	private long[] repeated;      // Reused, possible words with the guessed
+	                              // letter at several positions
+	private PatternCounts realities; // Reused, patterns of repeated words;
+	                                 // both null until first needed
+	private int firstSlot;        // Longs of possibleWords that may still
+	private int endSlot;          // be nonzero: [firstSlot, endSlot)
+	private int usedLetters;      // Mask of letters, bit 0 for 'a'
+	private char[] partialWord;   // Answers must be consistent with it
+	private OpeningBook book;     // Null once the game has left the book
+	private long state;           // Key of the game state in the book
+	private Word backup;
+
+	// Constructors
+	/**
+	 * Creates a new Bitset Adversary Word object using a given Dict and word
+	 * length.
+	 * @param dict       The Dict of possible words to choose from.
+	 * @param wordLength The desired word length.
+	 * @param rng        The random number generator for the backup word
+	 *                   chooser, if one is needed.
+	 */
+	public BitsetAdversaryWord(Dict dict, int wordLength,
+			RandomGenerator rng) {
+		super(dict, wordLength);
+		bucket = dict.getBucket(wordLength);
+		// As for an Adversary Word, a backup word is used for words too
+		// long for their patterns to fit a long
+		if (wordLength > WordSignatures.MAX_PATTERN_LENGTH) {
+			backup = new RandomWord(dict, wordLength, rng);
+			return;
+		}
+		signatures = bucket.getSignatures();
+		index = bucket.getIndex();
+		possibleWords = index.getAllWords();
+		shared = false;
+		repeated = null;  // Allocated by the first guess that needs them
+		realities = null;
+		firstSlot = 0;
+		endSlot = possibleWords.length;
+		usedLetters = 0;
+		partialWord = new char[wordLength];
+		book = dict.getBook(wordLength);
+		state = TranspositionTable.initialKey(wordLength);
+		backup = null;
+	}
+
+	// Package-private Methods
+	/**
+	 * Checks if a bucket is large enough that a Bitset Adversary Word
+	 * plays on it faster than an Adversary Word does.
+	 * @param bucket The Word Bucket.
+	 * @return True if the bitset variant should be used, else false.
+	 */
+	static boolean suits(WordBucket bucket) {
+		return bucket.size() >= MIN_WORDS;
+	}
+
+	// Public Methods
+	@Override
+	public boolean hasLetter(char letter) {
+		if (backup != null)
+			return backup.hasLetter(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.getPatternOf(partialWord, letter) != 0;
+	}
+
+	@Override
+	public int[] getLetterPositions(char letter) {
+		if (backup != null)
+			return backup.getLetterPositions(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.toPositions(
+				AdversaryWord.getPatternOf(partialWord, letter));
+	}
+
+	@Override
+	public String toString() {
+		if (backup != null)
+			return backup.toString();
+		if (book != null)
+			leaveBook();
+		// As an Adversary Word does, show the first possible word
+		return bucket.getWord((firstSlot << 6) +
+				Long.numberOfTrailingZeros(possibleWords[firstSlot]));
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		if (backup != null)
+			return backup.snapshot();
+		shared = true;
+		return new State(this);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		if (backup != null) {
+			backup.restore(snapshot);
+			return;
+		}
+		State state = (State) snapshot;
+		possibleWords = state.possibleWords;
+		shared = true;
+		firstSlot = state.firstSlot;
+		endSlot = state.endSlot;
+		usedLetters = state.usedLetters;
+		partialWord = state.partialWord.clone();
+		book = state.book;
+		this.state = state.state;
+	}
+
+	@Override
+	public Word branch() {
+		BitsetAdversaryWord branch = (BitsetAdversaryWord) super.branch();
+		if (backup == null) { // Working buffers of its own, when needed
+			branch.repeated = null;
+			branch.realities = null;
+		}
+		return branch;
+	}
+
+	// Private methods
+	/**
+	 * Checks if a letter has been guessed/queried for yet.
+	 * @param letter The letter as a char.
+	 * @return True if the letter has been processed previously (queried),
+	 *         else false.
+	 */
+	private boolean hasUsed(char letter) {
+		int letterIndex = WordSignatures.indexOf(letter);
+		return letterIndex >= 0 && (usedLetters & (1 << letterIndex)) != 0;
+	}
+
+	/**
+	 * Adds a letter to the used letters, keeping the best reality of
+	 * possible words as an Adversary Word would.
+	 * @param letter The letter as a char.
+	 */
+	private void processLetter(char letter) {
+		int letterIndex = WordSignatures.indexOf(letter);
+		if (letterIndex < 0)
+			return; // No word contains it; every word stays possible
+		if (book != null) {
+			int entry = book.indexOf(state);
+			if (entry >= 0) {
+				long answer = book.getAnswer(entry, letterIndex);
+				usedLetters |= 1 << letterIndex;
+				state ^= TranspositionTable.guessKey(letterIndex, answer);
+				for (long mask = answer; mask != 0; mask &= mask - 1) {
+					partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+				}
+				return;
+			}
+			leaveBook();
+		}
+		usedLetters |= 1 << letterIndex;
+		int length = partialWord.length;
+		if (shared) {
+			possibleWords = possibleWords.clone();
+			shared = false;
+		}
+		if (repeated == null) {
+			repeated = new long[possibleWords.length];
+			realities = new PatternCounts();
+		}
+
+		// Find the words with the letter at several positions: those met
+		// at a position after having been met at an earlier one
+		for (int i = firstSlot; i < endSlot; i++) {
+			long seen = 0;
+			long several = 0;
+			for (int pos = 0; pos < length; pos++) {
+				long here = possibleWords[i] &
+						index.getPositionSet(pos, letterIndex)[i];
+				several |= seen & here;
+				seen |= here;
+			}
+			repeated[i] = several;
+		}
+
+		// Size the realities, starting with "not in word"
+		long[] letterSet = index.getLetterSet(letterIndex);
+		int maxCount = 0;
+		for (int i = firstSlot; i < endSlot; i++) {
+			maxCount += Long.bitCount(possibleWords[i] & ~letterSet[i]);
+		}
+		long maxPattern = 0;
+		for (int pos = 0; pos < length; pos++) {
+			if (partialWord[pos] != '\0')
+				continue; // Revealed positions hold other letters
+			long[] positionSet = index.getPositionSet(pos, letterIndex);
+			int count = 0;
+			for (int i = firstSlot; i < endSlot; i++) {
+				count += Long.bitCount(possibleWords[i] & positionSet[i] &
+						~repeated[i]);
+			}
+			if (PatternCounts.isBetter(count, 1L << pos, maxCount,
+					maxPattern)) {
+				maxCount = count;
+				maxPattern = 1L << pos;
+			}
+		}
+		realities.clear();
+		for (int i = firstSlot; i < endSlot; i++) {
+			for (long bits = repeated[i]; bits != 0; bits &= bits - 1) {
+				int id = (i << 6) + Long.numberOfTrailingZeros(bits);
+				realities.add(signatures.getPattern(id, letterIndex));
+			}
+		}
+		for (int i = 0; i < realities.size(); i++) {
+			if (PatternCounts.isBetter(realities.getCount(i),
+					realities.getPattern(i), maxCount, maxPattern)) {
+				maxCount = realities.getCount(i);
+				maxPattern = realities.getPattern(i);
+			}
+		}
+
+		// Keep only the words of the chosen reality
+		if (maxPattern == 0) {
+			for (int i = firstSlot; i < endSlot; i++) {
+				possibleWords[i] &= ~letterSet[i];
+			}
+		} else if (Long.bitCount(maxPattern) == 1) {
+			long[] positionSet = index.getPositionSet(
+					Long.numberOfTrailingZeros(maxPattern), letterIndex);
+			for (int i = firstSlot; i < endSlot; i++) {
+				possibleWords[i] &= positionSet[i] & ~repeated[i];
+			}
+		} else {
+			for (int i = firstSlot; i < endSlot; i++) {
+				long kept = 0;
+				for (long bits = repeated[i]; bits != 0; bits &= bits - 1) {
+					int id = (i << 6) + Long.numberOfTrailingZeros(bits);
+					if (signatures.getPattern(id, letterIndex) == maxPattern)
+						kept |= Long.lowestOneBit(bits);
+				}
+				possibleWords[i] = kept;
+			}
+		}
+		for (long mask = maxPattern; mask != 0; mask &= mask - 1) {
+			partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+		}
+		trimSlots();
+	}
+
+	/**
+	 * Finds the possible words after the guesses answered from the opening
+	 * book, matching the revealed letters against the Word Index.
+	 */
+	private void leaveBook() {
+		int[] pattern = new int[partialWord.length];
+		int revealed = 0;
+		for (int pos = 0; pos < pattern.length; pos++) {
+			pattern[pos] = WordSignatures.indexOf(partialWord[pos]);
+			if (pattern[pos] >= 0)
+				revealed |= 1 << pattern[pos];
+		}
+		possibleWords = index.match(pattern, usedLetters & ~revealed);
+		shared = false;
+		trimSlots();
+		book = null;
+	}
+
+	/**
+	 * Narrows the range of longs to visit to those with possible words.
+	 */
+	private void trimSlots() {
+		while (firstSlot < endSlot && possibleWords[firstSlot] == 0)
+			firstSlot++;
+		while (endSlot > firstSlot && possibleWords[endSlot - 1] == 0)
+			endSlot--;
+	}
+
+	// Private utility classes
+	/**
+	 * A State is a snapshot of a Bitset Adversary Word. Its bitset is shared
+	 * with the Bitset Adversary Word, and never written once shared.
+	 */
+	private static class State implements Snapshot {
+		private final long[] possibleWords;
+		private final int firstSlot;
+		private final int endSlot;
+		private final int usedLetters;
+		private final char[] partialWord;
+		private final OpeningBook book;
+		private final long state;
+
+		State(BitsetAdversaryWord word) {
+			possibleWords = word.possibleWords;
+			firstSlot = word.firstSlot;
+			endSlot = word.endSlot;
+			usedLetters = word.usedLetters;
+			partialWord = word.partialWord.clone();
+			book = word.book;
+			state = word.state;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The Book Compiler is a small command-line tool that builds the opening
+ * book of a dictionary file: the adversary's answers to every sequence of
+ * its first few guesses, for every word length. A Dict opened from the
+ * dictionary file then finds the book next to it and answers the first
+ * guesses of adversary games from it.
+ * <p>
+ * Usage: <code>java engine.BookCompiler words.dict [depth]</code>
+ * <p>
+ * The book is written next to the dictionary file, under its name with the
+ * extension replaced by ".book". The depth, the number of guesses the book
+ * covers, is 3 by default; each more guess multiplies the size of the book
+ * by up to 25.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class BookCompiler {
+
+	// Constants
+	private static final int DEFAULT_DEPTH = 3;
+
+	private BookCompiler() {} // Not instantiable
+
+	/**
+	 * Builds the opening book of a dictionary file.
+	 * @param args The dictionary file path, text or compiled, optionally
+	 *             followed by the depth.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: java engine.BookCompiler " +
+					"<dictionary file> [depth]");
+			System.exit(2);
+		}
+		File input = new File(args[0]);
+		File output = OpeningBook.fileFor(input);
+		int depth = DEFAULT_DEPTH;
+		try {
+			if (args.length > 1)
+				depth = Integer.parseInt(args[1]);
+			if (depth < 1)
+				throw new NumberFormatException();
+		} catch (NumberFormatException e) {
+			System.err.println("Error: depth must be a positive integer");
+			System.exit(2);
+		}
+		try {
+			long start = System.nanoTime();
+			Dict dict = new Dict(input);
+			OpeningBook.write(dict, depth, output);
+			long millis = (System.nanoTime() - start) / 1000000;
+			System.out.println("Built the " + depth + "-guess opening book " +
+					"of " + input + " to " + output + " (" + output.length() +
+					" bytes) in " + millis + " ms.");
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
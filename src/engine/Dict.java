@@ -2,11 +2,16 @@ package engine;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 /**
  * A Dict object represents a dictionary of words that a hangman game can
@@ -16,7 +21,28 @@ import java.util.Scanner;
  * The Dict is built from a text file of word strings delimited by whitespace.
  * Only word strings containing solely alphabetic characters are accepted;
  * the rest are ignored, including "words" that contain numbers, apostrophes,
- * or other punctuation. 
+ * or other punctuation. Alternatively, it can be opened from a compiled
+ * dictionary file (see DictCompiler), which is memory-mapped instead of
+ * parsed.
+ * <p>
+ * Words are stored packed by length in Word Buckets (one contiguous letter
+ * array per length), rather than as individual Strings; see WordBucket for
+ * the memory savings. Words are only materialized as Strings on request.
+ * For very large word lists, compact() gives a Dict that keeps each length
+ * as a minimized word graph instead; getMemoryUsage() tells the two apart.
+ * <p>
+ * A text file may also be a frequency list of "word&lt;TAB&gt;count" lines,
+ * such as the one the default dictionary was taken from. Random words of a
+ * length are then drawn in proportion to their counts, and random lengths
+ * can optionally be weighted by total count too.
+ * <p>
+ * Several loaded Dicts can also be stacked into one, less a list of blocked
+ * words, as a view that copies none of their words.
+ * <p>
+ * A Dict opened from a file also opens the file's opening book, if one was
+ * built for it (see BookCompiler), to answer the first adversary guesses,
+ * and its solved adversary policy, if one was solved for it (see
+ * PolicyCompiler).
  * 
  * @author Vance Zuo
  * Created: May 12, 2013
@@ -26,17 +52,32 @@ public class Dict {
 	
 	// Default dictionary (see the dict package)
 	private static final String DEFAULT = "/dict/Brown and LOB 5066.txt";
-	private static Random rand = new Random();
 	
-	// A list of lists, each corresponding to different word lengths.
-	private List<List<String>> wordLists;
+	// Packed words, each bucket corresponding to a different word length.
+	// NOTE: index = word length - 1; lengths with no words have empty buckets
+	private WordBucket[] buckets;
+	
+	// Statistics computed once the buckets are built, as the Dict is never
+	// modified afterwards.
+	private long[] cumulativeCounts; // Words of length <= index + 1
+	private long[] cumulativeWeights; // Word weights of length <= index + 1
+	private int minLength;
+	private int maxLength;
+	
+	// Opening book sections, index = word length - 1, or null for none
+	private OpeningBook[] books;
+	// Policy table sections, index = word length - 1, or null for none
+	private PolicyTable[] policies;
+	// Solvers of the lists policies leave out, shared by every game; each
+	// created on first use
+	private AdversarySolver[] solvers;
 	
 	// Constructors
 	/**
 	 * Creates a new Dict object using a default word text file.
 	 */
 	public Dict() {
-		this(new Scanner(Dict.class.getResourceAsStream(DEFAULT)));
+		this(loadDefault());
 	}
 	
 	/**
@@ -44,56 +85,181 @@ public class Dict {
 	 * @param path String representing path of words text file.
 	 * @throws FileNotFoundException if the path does not correspond to an 
 	 *                               existing file.
+	 * @throws IOException if the file could not be read.
 	 */
-	public Dict(String path) throws FileNotFoundException {
+	public Dict(String path) throws IOException {
 		this(new File(path));
 	}
 	
 	/**
-	 * Creates a new Dict object from a File object.
+	 * Creates a new Dict object from a File object. The file may be either
+	 * a text file of words or a compiled dictionary file; the latter is 
+	 * memory-mapped rather than parsed, so opening it takes constant time.
 	 * @param file The File object.
 	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read, or is a corrupt
+	 *                     compiled dictionary.
+	 */
+	public Dict(File file) throws IOException {
+		this(file, LoadProgress.NONE);
+	}
+	
+	/**
+	 * Creates a new Dict object from a File object, reporting progress as
+	 * the file is read.
+	 * @param file     The File object.
+	 * @param progress The progress to report to.
+	 * @throws IOException if the file could not be read.
+	 */
+	Dict(File file, LoadProgress progress) throws IOException {
+		this(load(file, progress));
+		books = readBooks(file);
+		policies = readPolicies(file);
+	}
+	
+	/**
+	 * Creates a new Dict object that stacks other Dicts as layers, such as
+	 * a base dictionary and a few small add-on lists, leaving out the words
+	 * of a block list. It holds exactly the words a Dict of the layers' 
+	 * concatenated word files would, less the blocked ones, but is a view:
+	 * words are read from the layers, and only the ids of blocked words are
+	 * stored. Word counts and weights are those of the layers.
+	 * @param layers   The Dicts to stack, in order.
+	 * @param excluded A Dict of the words to leave out, or null.
 	 */
-	public Dict(File file) throws FileNotFoundException {
-		this(new Scanner(file));
+	public Dict(List<Dict> layers, Dict excluded) {
+		this(stack(layers, excluded));
 	}
 	
 	/**
-	 * Creates a new Dict object from a Scanner object. The Scanner 
-	 * should have a stream of strings to be read as words.
-	 * @param in The Scanner object.
+	 * Creates a new Dict object over already built word buckets.
+	 * @param wordBuckets The buckets, index = word length - 1.
 	 */
-	private Dict(Scanner in) {
-		wordLists = new ArrayList<List<String>>();
-		while (in.hasNext()) {
-			String next = in.next().toLowerCase();
-			if (!next.matches("[a-zA-Z]+"))
-				continue;
-			int index = next.length() - 1; // NOTE: index = word length - 1
-			while (index >= wordLists.size()) {
-				wordLists.add(new ArrayList<String>());
+	private Dict(WordBucket[] wordBuckets) {
+		buckets = wordBuckets;
+		cumulativeCounts = new long[buckets.length];
+		cumulativeWeights = new long[buckets.length];
+		int total = 0;
+		long totalWeight = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			total += buckets[i].size();
+			cumulativeCounts[i] = total;
+			totalWeight += buckets[i].getTotalWeight();
+			cumulativeWeights[i] = totalWeight;
+			if (buckets[i].size() > 0) {
+				if (minLength == 0)
+					minLength = i + 1;
+				maxLength = i + 1;
 			}
-			wordLists.get(index).add(next);
 		}
-		in.close();
 	}
 	
 	// Public Methods
 	/**
-	 * Gets a random word from the Dict of a given length.
+	 * Starts loading a Dict from a File object in the background, as the 
+	 * constructor would. The load can be cancelled through the returned
+	 * Future, which stops it within one block of input.
+	 * @param file     The File object.
+	 * @param listener Listener notified of progress as the file is read,
+	 *                 or null. It is called from the loading threads.
+	 * @return A Future of the Dict. Its get() method throws an 
+	 *         ExecutionException wrapping any IOException the load met.
+	 */
+	public static Future<Dict> loadAsync(File file, DictLoadListener listener) {
+		return new DictLoadTask(file, listener).start();
+	}
+	
+	/**
+	 * Saves the Dict as a compiled dictionary file, which can later be 
+	 * opened much faster than the text file the Dict was built from.
+	 * @param file The file to write to. It is replaced if it exists; Dicts
+	 *             already opened from it keep their words.
+	 * @throws IOException if the file could not be written.
+	 */
+	public void save(File file) throws IOException {
+		DictFormat.write(buckets, file);
+	}
+	
+	/**
+	 * Creates a Dict of the same words, keeping the words of each length in
+	 * a minimized acyclic word graph (a DAWG) rather than packed letters.
+	 * For large word lists, whose words share many prefixes and suffixes,
+	 * this takes much less memory, but reading a word walks the graph. Word
+	 * ids (see match()) are in alphabetical order in the new Dict.
+	 * @return The compacted Dict, or this Dict if it is already compact.
+	 * @see #getMemoryUsage()
+	 */
+	public Dict compact() {
+		WordBucket[] graphs = new WordBucket[buckets.length];
+		boolean changed = false;
+		for (int i = 0; i < buckets.length; i++) {
+			graphs[i] = buckets[i].toGraph();
+			changed |= graphs[i] != buckets[i];
+		}
+		if (!changed)
+			return this;
+		Dict compacted = new Dict(graphs);
+		compacted.books = books; // Books do not depend on word order
+		return compacted;
+	}
+	
+	/**
+	 * Estimates the memory taken by the Dict's words, not counting any
+	 * signatures or indexes computed from them for games or queries. 
+	 * Comparing it with that of compact() shows which is smaller.
+	 * @return The size in bytes.
+	 */
+	public long getMemoryUsage() {
+		long bytes = 0;
+		for (WordBucket bucket : buckets) {
+			bytes += bucket.getMemoryUsage();
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Checks if the Dict's words have frequencies, i.e. if it was read from
+	 * a "word&lt;TAB&gt;count" list.
+	 * @return True if words have weights, false if all are equally likely.
+	 */
+	public boolean isWeighted() {
+		for (WordBucket bucket : buckets) {
+			if (bucket.isWeighted())
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets a random word from the Dict of a given length, using the calling
+	 * thread's own random number generator. If the Dict is weighted, words
+	 * are chosen in proportion to their frequency.
 	 * @param length The length of the desired word.
 	 * @return A string of the desired length, randomly chosen from the Dict.
 	 */
 	public String getRandom(int length) {
+		return getRandom(length, ThreadRandom.current());
+	}
+	
+	/**
+	 * Gets a random word from the Dict of a given length. If the Dict is
+	 * weighted, words are chosen in proportion to their frequency, in
+	 * constant time.
+	 * @param length The length of the desired word.
+	 * @param rng    The random number generator to draw from.
+	 * @return A string of the desired length, randomly chosen from the Dict.
+	 */
+	public String getRandom(int length, RandomGenerator rng) {
 		if (!hasLength(length))
 			throw new IllegalArgumentException("Dict has no words of " +
 					                           "length " + length);
-		List<String> words = wordLists.get(length - 1);
-		return words.get(rand.nextInt(words.size()) );
+		return buckets[length - 1].getWord(getRandomId(length, rng));
 	}
 	
 	/**
-	 * Gets a list of all words in the Dict of a given word length.
+	 * Gets a list of all words in the Dict of a given word length. The list
+	 * is a read-only view over the Dict's packed storage, so words are
+	 * created as Strings only as they are read.
 	 * @param length The length of the desired words.
 	 * @return A list of strings of the words in the Dict of the desired length.
 	 */
@@ -101,7 +267,52 @@ public class Dict {
 		if (!hasLength(length))
 			throw new IllegalArgumentException("Dict has no words of " +
 					                           "length " + length);
-		return wordLists.get(length - 1);
+		return buckets[length - 1].asList();
+	}
+	
+	/**
+	 * Gets a word of the Dict by its id, as returned by match().
+	 * @param length The length of the word.
+	 * @param id     The id of the word among words of that length, from 0
+	 *               to getWordList(length).size() - 1.
+	 * @return The word.
+	 */
+	public String getWord(int length, int id) {
+		return getBucket(length).getWord(id);
+	}
+	
+	/**
+	 * Finds the words that are consistent with a partially solved hangman
+	 * word, such as "_a__e" with the letters s and t guessed wrong. As in a
+	 * hangman game, a revealed letter is taken to occur only where it is 
+	 * shown, so "_a__e" does not match "banana". 
+	 * <p>
+	 * The query is answered with bitset operations on a positional index 
+	 * of the words, built the first time words of that length are queried,
+	 * or for a compacted Dict by walking the word graph.
+	 * @param pattern  The partial word. Letters are revealed letters; any
+	 *                 other character (such as '_' or '\0') is an unknown
+	 *                 position. Its length is the length of the words found.
+	 * @param excluded Letters the words must not contain.
+	 * @return A stream of the ids of the matching words, in increasing order,
+	 *         which can be turned into words with getWord().
+	 */
+	public IntStream match(String pattern, String excluded) {
+		int length = pattern.length();
+		int[] letters = new int[length];
+		for (int i = 0; i < length; i++) {
+			char ch = Character.toLowerCase(pattern.charAt(i));
+			letters[i] = WordSignatures.indexOf(ch);
+		}
+		int excludedMask = 0;
+		for (int i = 0; i < excluded.length(); i++) {
+			char ch = Character.toLowerCase(excluded.charAt(i));
+			int letter = WordSignatures.indexOf(ch);
+			if (letter >= 0)
+				excludedMask |= 1 << letter;
+		}
+		long[] ids = getBucket(length).match(letters, excludedMask);
+		return BitSet.valueOf(ids).stream();
 	}
 	
 	/**
@@ -109,11 +320,8 @@ public class Dict {
 	 * @return The total number of words in this Dict.
 	 */
 	public int getTotalWords() {
-		int total = 0;
-		for (List<String> wordList : wordLists) {
-			total += wordList.size();
-		}
-		return total;
+		return (buckets.length == 0) ? 0 
+				: (int) cumulativeCounts[buckets.length - 1];
 	}
 	
 	/**
@@ -123,48 +331,284 @@ public class Dict {
 	 *         the Dict, else false.
 	 */
 	public boolean hasLength(int length) {
-		if (length < 0 || length > wordLists.size())
+		if (length < 1 || length > buckets.length)
 			return false;
-		return !wordLists.get(length - 1).isEmpty();
+		return buckets[length - 1].size() > 0;
 	}
 	
 	/**
 	 * Gets the length of the shortest word(s) in the Dict.
-	 * @return The Dict's shortest word length.
+	 * @return The Dict's shortest word length, or 0 if it has no words.
 	 */
 	public int getMinLength() {
-		int min = 1;
-		while (!hasLength(min))
-			min++;
-		return min;
+		return minLength;
 	}
 	
 	/**
 	 * Gets the length of the longest word(s) in the Dict.
-	 * @return The Dict's longest word length.
+	 * @return The Dict's longest word length, or 0 if it has no words.
 	 */
 	public int getMaxLength() {
-		return wordLists.size();
+		return maxLength;
 	}
 	
 	/**
 	 * Returns a word length based on a weighted random selection of this
-	 * Dict's word length distributions. So word lengths corresponding
+	 * Dict's word length distributions, using the calling thread's own
+	 * random number generator. So word lengths corresponding
 	 * to greater number of words have a greater chance of being chosen. Only
 	 * values corresponding to word lengths that actually exist in the Dict
-	 * can be returned.
+	 * can be returned. 
+	 * <p>
+	 * The length is found by binary search over the cumulative word counts,
+	 * taking O(log n) time in the number of word lengths.
 	 * @return A random word length that the Dict has at least one word of.
+	 * @throws IllegalStateException if the Dict has no words.
 	 */
 	public int getRandomLength() {
-		int totalWeight = getTotalWords();
-		int weight = 1 + rand.nextInt(totalWeight);
-		Iterator<List<String>> it = wordLists.iterator();
-		int length = 0;
-		while (weight > 0) {
-			weight -= it.next().size();
-			length++;
+		return getRandomLength(ThreadRandom.current());
+	}
+	
+	/**
+	 * Returns a random word length, weighted as getRandomLength() does, 
+	 * drawn from a given random number generator.
+	 * @param rng The random number generator to draw from.
+	 * @return A random word length that the Dict has at least one word of.
+	 * @throws IllegalStateException if the Dict has no words.
+	 */
+	public int getRandomLength(RandomGenerator rng) {
+		return getRandomLength(rng, false);
+	}
+	
+	/**
+	 * Returns a random word length, weighted either by the number of words
+	 * of each length, as getRandomLength() does, or by their total 
+	 * frequency, using the calling thread's own random number generator.
+	 * @param byFrequency True to weight lengths by the total frequency of
+	 *                    their words, false to weight them by word count.
+	 *                    The two are the same if the Dict is not weighted.
+	 * @return A random word length that the Dict has at least one word of.
+	 * @throws IllegalStateException if the Dict has no words.
+	 */
+	public int getRandomLength(boolean byFrequency) {
+		return getRandomLength(ThreadRandom.current(), byFrequency);
+	}
+	
+	/**
+	 * Returns a random word length, weighted as getRandomLength(boolean)
+	 * does, drawn from a given random number generator.
+	 * @param rng         The random number generator to draw from.
+	 * @param byFrequency True to weight lengths by the total frequency of
+	 *                    their words, false to weight them by word count.
+	 * @return A random word length that the Dict has at least one word of.
+	 * @throws IllegalStateException if the Dict has no words.
+	 */
+	public int getRandomLength(RandomGenerator rng, boolean byFrequency) {
+		if (getTotalWords() == 0)
+			throw new IllegalStateException("Dict has no words to draw " +
+					"a length from");
+		long[] cumulative = byFrequency ? cumulativeWeights 
+				: cumulativeCounts;
+		if (cumulative[cumulative.length - 1] == 0) // Every weight is zero
+			cumulative = cumulativeCounts;
+		long weight = rng.nextLong(cumulative[cumulative.length - 1]);
+		// Find the first length whose cumulative weight exceeds the weight
+		int low = 0;
+		int high = cumulative.length - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulative[middle] > weight)
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return low + 1; // NOTE: index = word length - 1
+	}
+	
+	// Package-private methods
+	/**
+	 * Gets the bucket of all words in the Dict of a given word length.
+	 * @param length The length of the desired words.
+	 * @return The Word Bucket of the desired length.
+	 */
+	WordBucket getBucket(int length) {
+		if (!hasLength(length))
+			throw new IllegalArgumentException("Dict has no words of " +
+					                           "length " + length);
+		return buckets[length - 1];
+	}
+	
+	/**
+	 * Gets the opening book section of a word length, if the Dict has one
+	 * built for its words.
+	 * @param length The word length.
+	 * @return The section, or null if there is none.
+	 */
+	OpeningBook getBook(int length) {
+		if (books == null || length > books.length || !hasLength(length))
+			return null;
+		OpeningBook book = books[length - 1];
+		return (book != null && book.matches(getBucket(length))) ? book
+				: null;
+	}
+	
+	/**
+	 * Gets the policy table section of a word length, if the Dict has one
+	 * solved for its words. Compacted Dicts have none, as their word ids
+	 * differ.
+	 * @param length The word length.
+	 * @return The section, or null if there is none.
+	 */
+	PolicyTable getPolicy(int length) {
+		if (policies == null || length > policies.length || !hasLength(length))
+			return null;
+		PolicyTable policy = policies[length - 1];
+		return (policy != null && policy.matches(getBucket(length))) ? policy
+				: null;
+	}
+	
+	/**
+	 * Gets the solver of a word length's policy, for the word lists the
+	 * policy leaves out. It solves for the policy's lives, so it serves the
+	 * same games the policy does, and is shared by all of them along with
+	 * the lists it has solved.
+	 * @param length The word length, which must have a policy.
+	 * @return The solver.
+	 */
+	synchronized AdversarySolver getSolver(int length) {
+		PolicyTable policy = getPolicy(length);
+		if (policy == null)
+			throw new IllegalArgumentException("No policy for words of " +
+					"length " + length);
+		if (solvers == null)
+			solvers = new AdversarySolver[buckets.length];
+		if (solvers[length - 1] == null)
+			solvers[length - 1] = new AdversarySolver(getBucket(length),
+					policy.getLives(), AdversarySolver.SHARED_MEMO_SIZE);
+		return solvers[length - 1];
+	}
+	
+	/**
+	 * Gets the id of a random word from the Dict of a given length, drawn
+	 * in proportion to word frequency if the Dict is weighted.
+	 * @param length The length of the desired word.
+	 * @param rng    The random number generator to draw from.
+	 * @return An id into the Word Bucket of the desired length.
+	 */
+	int getRandomId(int length, RandomGenerator rng) {
+		return getBucket(length).getRandomId(rng);
+	}
+	
+	// Private methods
+	/**
+	 * Reads the word buckets of a text or compiled dictionary file.
+	 * @param file     The file.
+	 * @param progress The progress to report to.
+	 * @return The word buckets, index = word length - 1.
+	 * @throws IOException if the file could not be read.
+	 */
+	private static WordBucket[] load(File file, LoadProgress progress)
+			throws IOException {
+		if (!DictFormat.isCompiled(file))
+			return TextDictLoader.load(file, progress);
+		progress.setTotalBytes(file.length());
+		WordBucket[] buckets = DictFormat.read(file);
+		long words = 0;
+		for (WordBucket bucket : buckets) {
+			words += bucket.size();
+		}
+		progress.add(file.length(), words);
+		return buckets;
+	}
+	
+	/**
+	 * Opens the opening book of a dictionary file, if it has one. A book
+	 * that cannot be read, such as a truncated one or one of an older
+	 * version, is left out with a warning, and games then answer their
+	 * first guesses live.
+	 * @param file The dictionary file.
+	 * @return The book sections, or null if there is no readable book.
+	 */
+	private static OpeningBook[] readBooks(File file) {
+		try {
+			return OpeningBook.readFor(file);
+		} catch (IOException e) {
+			System.err.println("Warning: Ignoring opening book of " + file +
+					": " + e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Opens the policy table of a dictionary file, if it has one. As for
+	 * opening books, a table that cannot be read is left out with a
+	 * warning, and the SOLVED Mode then plays as the ADVERSARY one.
+	 * @param file The dictionary file.
+	 * @return The table sections, or null if there is no readable table.
+	 */
+	private static PolicyTable[] readPolicies(File file) {
+		try {
+			return PolicyTable.readFor(file);
+		} catch (IOException e) {
+			System.err.println("Warning: Ignoring policy table of " + file +
+					": " + e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Builds the word buckets of a stack of Dicts. A length found in only
+	 * one layer, with nothing to exclude, shares that layer's bucket.
+	 * @param layers   The Dicts to stack, in order.
+	 * @param excluded A Dict of the words to leave out, or null.
+	 * @return The word buckets, index = word length - 1.
+	 */
+	private static WordBucket[] stack(List<Dict> layers, Dict excluded) {
+		int maxLength = 0;
+		for (Dict layer : layers) {
+			maxLength = Math.max(maxLength, layer.getMaxLength());
+		}
+		WordBucket[] buckets = new WordBucket[maxLength];
+		for (int length = 1; length <= maxLength; length++) {
+			List<WordBucket> found = new ArrayList<WordBucket>();
+			for (Dict layer : layers) {
+				if (layer.hasLength(length))
+					found.add(layer.getBucket(length));
+			}
+			Set<ByteBuffer> blocked = new HashSet<ByteBuffer>();
+			if (excluded != null && excluded.hasLength(length)) {
+				WordBucket bucket = excluded.getBucket(length);
+				for (int id = 0; id < bucket.size(); id++) {
+					byte[] word = new byte[length];
+					bucket.copyWord(id, word);
+					blocked.add(ByteBuffer.wrap(word));
+				}
+			}
+			if (found.isEmpty()) {
+				buckets[length - 1] = new WordBucket(ByteBuffer.allocate(0),
+						length, 0, null);
+			} else if (found.size() == 1 && blocked.isEmpty()) {
+				buckets[length - 1] = found.get(0);
+			} else {
+				WordLayers view = new WordLayers(
+						found.toArray(new WordBucket[found.size()]), blocked);
+				buckets[length - 1] = new WordBucket(view, length);
+			}
+		}
+		return buckets;
+	}
+	
+	/**
+	 * Reads the word buckets of the default word text file.
+	 * @return The word buckets, index = word length - 1.
+	 */
+	private static WordBucket[] loadDefault() {
+		try {
+			return TextDictLoader.load(Dict.class.getResourceAsStream(DEFAULT),
+					LoadProgress.NONE);
+		} catch (IOException e) {
+			throw new IllegalStateException("Default dictionary unreadable", e);
 		}
-		return length;
 	}
 	
 //	public static void main(String[] args) {
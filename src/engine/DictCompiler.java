@@ -0,0 +1,81 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The Dict Compiler is a small command-line tool that turns a text file of
+ * whitespace-separated words into a compiled dictionary file. A Dict opens
+ * a compiled dictionary by memory-mapping it, without any parsing.
+ * <p>
+ * Usage: <code>java engine.DictCompiler words.txt [words.dict]</code>
+ * <p>
+ * If no output file is given, the input file's name is used with its
+ * extension replaced by ".dict". The output file may not be the input
+ * file: a compiled input is memory-mapped while it is read, so writing
+ * over it would corrupt the words being written.
+ * <p>
+ * It also reports the memory the words take packed, as a loaded Dict keeps
+ * them, next to that of a compacted Dict (see Dict.compact()), to help
+ * choose between the two for the dictionary.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class DictCompiler {
+
+	private DictCompiler() {} // Not instantiable
+
+	/**
+	 * Compiles a word text file.
+	 * @param args The input file path, optionally followed by the output
+	 *             file path.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: java engine.DictCompiler " +
+					"<words file> [output file]");
+			System.exit(2);
+		}
+		File input = new File(args[0]);
+		File output = (args.length > 1) ? new File(args[1])
+				: getDefaultOutput(input);
+		try {
+			if (input.getCanonicalFile().equals(output.getCanonicalFile())) {
+				System.err.println("Error: " + output + " is the input " +
+						"file; give another output file");
+				System.exit(2);
+			}
+			long start = System.nanoTime();
+			Dict dict = new Dict(input);
+			dict.save(output);
+			long millis = (System.nanoTime() - start) / 1000000;
+			System.out.println("Compiled " + dict.getTotalWords() +
+					" words (lengths " + dict.getMinLength() + "-" +
+					dict.getMaxLength() + ") to " + output + " in " +
+					millis + " ms.");
+			System.out.println("Word memory: " + dict.getMemoryUsage() +
+					" bytes packed, " + dict.compact().getMemoryUsage() +
+					" bytes as word graphs.");
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Gets the default output file for an input file, which is the input
+	 * file with its extension replaced by the compiled dictionary extension.
+	 * @param input The input file.
+	 * @return The output file.
+	 */
+	private static File getDefaultOutput(File input) {
+		String name = input.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0)
+			name = name.substring(0, dot);
+		return new File(input.getAbsoluteFile().getParentFile(),
+				name + "." + DictFormat.EXTENSION);
+	}
+}
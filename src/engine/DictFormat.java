@@ -0,0 +1,326 @@
+package engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * The Dict Format class reads and writes compiled (binary) dictionary files.
+ * <p>
+ * A compiled dictionary holds exactly the words a Dict would hold after
+ * parsing a text file, already split into length buckets, so opening one
+ * involves no parsing at all: the header is read, and each bucket's letters
+ * are memory-mapped straight from the file. Loading only makes one pass
+ * over the mapped words, checking that every letter is a-z and every weight
+ * at least 1, as the signatures and indexes built on them assume; nothing is
+ * copied, and the OS page cache shares the data between JVMs opening the
+ * same file.
+ * <p>
+ * Layout (all numbers big-endian):
+ * <pre>
+ *  0  magic            8 bytes, 0x89 'H' 'D' 'I' 'C' 'T' '\r' '\n'
+ *  8  version          int
+ * 12  bucket count     int, equal to the longest word length
+ * 16  total words      long
+ * 24  shortest length  int, 0 if there are no words
+ * 28  flags            int, bit 0 set if the words are weighted
+ * 32  bucket table     per word length 1..bucket count:
+ *                        word count (int), file offset of letters (long)
+ * ..  bucket letters   words of each length packed back to back
+ * ..  bucket weights   if weighted: the weight (int) of every word, bucket
+ *                        by bucket, right after the last bucket's letters
+ * </pre>
+ * Version 1 files have no flags and are read as unweighted.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class DictFormat {
+
+	// Constants
+	/** Conventional file extension of compiled dictionaries. */
+	static final String EXTENSION = "dict";
+	static final int VERSION = 2;
+
+	private static final byte[] MAGIC = { (byte) 0x89, 'H', 'D', 'I', 'C', 'T',
+		'\r', '\n' };
+	private static final int HEADER_SIZE = 32;
+	private static final int ENTRY_SIZE = 12; // Bucket table entry size
+	private static final int WEIGHTED = 1;    // Flag of weighted words
+
+	private DictFormat() {} // Not instantiable
+
+	// Package-private Methods
+	/**
+	 * Checks whether a file is a compiled dictionary, judging by its first
+	 * bytes.
+	 * @param file The file.
+	 * @return True if the file starts with the compiled dictionary magic
+	 *         number, else false.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read.
+	 */
+	static boolean isCompiled(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] head = new byte[MAGIC.length];
+			int read = 0;
+			while (read < head.length) {
+				int n = in.read(head, read, head.length - read);
+				if (n < 0)
+					return false;
+				read += n;
+			}
+			return Arrays.equals(head, MAGIC);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Opens a compiled dictionary file, memory-mapping its buckets.
+	 * @param file The compiled dictionary file.
+	 * @return The word buckets, index = word length - 1.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read or is not a valid
+	 *                     compiled dictionary.
+	 */
+	static WordBucket[] read(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			long fileSize = channel.size();
+			ByteBuffer header = readFully(channel, 0, HEADER_SIZE, fileSize);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC))
+				throw new IOException("Not a compiled dictionary: " + file);
+			int version = header.getInt();
+			if (version < 1 || version > VERSION)
+				throw new IOException("Unsupported dictionary version " +
+						version + " in " + file);
+			int count = header.getInt();
+			if (count < 0)
+				throw new IOException("Corrupt dictionary header in " + file);
+			header.getLong(); // Total words
+			header.getInt();  // Shortest length
+			boolean weighted = version > 1 &&
+					(header.getInt() & WEIGHTED) != 0;
+
+			ByteBuffer table = readFully(channel, HEADER_SIZE,
+					(long) count * ENTRY_SIZE, fileSize);
+			ByteBuffer[] letters = new ByteBuffer[count];
+			int[] sizes = new int[count];
+			long end = table.capacity() + HEADER_SIZE; // Of all letters
+			for (int i = 0; i < count; i++) {
+				int words = table.getInt();
+				long offset = table.getLong();
+				int length = i + 1;
+				long bytes = (long) words * length;
+				if (words < 0 || offset < 0 || bytes > Integer.MAX_VALUE ||
+						offset + bytes > fileSize)
+					throw new IOException("Corrupt bucket " + length +
+							" in " + file);
+				letters[i] = map(channel, offset, bytes);
+				checkLetters(letters[i], length, file);
+				sizes[i] = words;
+				end = Math.max(end, offset + bytes);
+			}
+			WordBucket[] buckets = new WordBucket[count];
+			for (int i = 0; i < count; i++) {
+				IntBuffer weights = null;
+				if (weighted) {
+					long bytes = 4L * sizes[i];
+					if (bytes > Integer.MAX_VALUE || end + bytes > fileSize)
+						throw new IOException("Corrupt weights of bucket " +
+								(i + 1) + " in " + file);
+					weights = map(channel, end, bytes).asIntBuffer();
+					checkWeights(weights, i + 1, file);
+					end += bytes;
+				}
+				buckets[i] = new WordBucket(letters[i], i + 1, sizes[i],
+						weights);
+			}
+			return buckets; // Mappings stay valid after the channel closes
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes word buckets out as a compiled dictionary file.
+	 * @param buckets The word buckets, index = word length - 1.
+	 * @param file    The file to write to. It is replaced if it exists, by a
+	 *                complete new file, so a Dict that mapped the old one
+	 *                goes on reading the old words.
+	 * @throws IOException if the file could not be written.
+	 */
+	static void write(WordBucket[] buckets, File file) throws IOException {
+		long total = 0;
+		int shortest = 0;
+		boolean weighted = false;
+		for (WordBucket bucket : buckets) {
+			total += bucket.size();
+			if (shortest == 0 && bucket.size() > 0)
+				shortest = bucket.getWordLength();
+			weighted |= bucket.isWeighted();
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE +
+				buckets.length * ENTRY_SIZE);
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(buckets.length);
+		header.putLong(total);
+		header.putInt(shortest);
+		header.putInt(weighted ? WEIGHTED : 0);
+		long offset = header.capacity();
+		for (WordBucket bucket : buckets) {
+			header.putInt(bucket.size());
+			header.putLong(offset);
+			offset += (long) bucket.size() * bucket.getWordLength();
+		}
+		header.flip();
+
+		File temp = createTemp(file);
+		try {
+			FileOutputStream out = new FileOutputStream(temp);
+			try {
+				FileChannel channel = out.getChannel();
+				while (header.hasRemaining()) {
+					channel.write(header);
+				}
+				for (WordBucket bucket : buckets) {
+					bucket.writeTo(channel);
+				}
+				if (weighted) {
+					for (WordBucket bucket : buckets) {
+						bucket.writeWeightsTo(channel);
+					}
+				}
+				channel.force(true);
+			} finally {
+				out.close();
+			}
+			replace(temp, file);
+		} finally {
+			temp.delete(); // Only still there if writing failed
+		}
+	}
+
+	/**
+	 * Creates an empty temporary file next to a file, to write its new
+	 * contents to before {@link #replace(File, File)} puts them in place.
+	 * @param file The file to be replaced.
+	 * @return The temporary file, in the same directory.
+	 * @throws IOException if the file could not be created.
+	 */
+	static File createTemp(File file) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		return File.createTempFile("." + file.getName() + ".", ".tmp", dir);
+	}
+
+	/**
+	 * Moves a complete file over another one in a single step.
+	 * <p>
+	 * Compiled files are memory-mapped, and truncating a mapped file makes
+	 * every later access to the lost pages crash the JVM. Replacing the
+	 * directory entry instead leaves existing mappings on the old contents,
+	 * which the OS keeps until the last of them is gone, while anything that
+	 * opens the file afterwards sees the whole new version.
+	 * @param temp The new contents, from {@link #createTemp(File)}.
+	 * @param file The file to replace. It need not exist.
+	 * @throws IOException if the file could not be moved.
+	 */
+	static void replace(File temp, File file) throws IOException {
+		try {
+			Files.move(temp.toPath(), file.toPath(),
+					StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Checks that a bucket's letters are all lowercase a-z.
+	 * @param letters The bucket's letters.
+	 * @param length  The bucket's word length.
+	 * @param file    The file the bucket was read from.
+	 * @throws IOException if a byte is not a lowercase letter.
+	 */
+	private static void checkLetters(ByteBuffer letters, int length,
+			File file) throws IOException {
+		for (int i = 0; i < letters.limit(); i++) {
+			byte letter = letters.get(i);
+			if (letter < 'a' || letter > 'z')
+				throw new IOException("Invalid letter in bucket " + length +
+						" of " + file);
+		}
+	}
+
+	/**
+	 * Checks that a bucket's weights are all at least 1.
+	 * @param weights The bucket's weights.
+	 * @param length  The bucket's word length.
+	 * @param file    The file the bucket was read from.
+	 * @throws IOException if a weight is less than 1.
+	 */
+	private static void checkWeights(IntBuffer weights, int length,
+			File file) throws IOException {
+		for (int i = 0; i < weights.limit(); i++) {
+			if (weights.get(i) < 1)
+				throw new IOException("Invalid weight in bucket " + length +
+						" of " + file);
+		}
+	}
+
+	/**
+	 * Memory-maps a region of a channel read-only.
+	 * @param channel  The channel.
+	 * @param position The file position the region starts at.
+	 * @param size     The number of bytes in the region.
+	 * @return A buffer of the region, or an empty buffer if size is 0.
+	 * @throws IOException if the region could not be mapped.
+	 */
+	static ByteBuffer map(FileChannel channel, long position,
+			long size) throws IOException {
+		if (size == 0)
+			return ByteBuffer.allocate(0);
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+	}
+
+	/**
+	 * Reads a region of a channel into a new heap buffer.
+	 * @param channel  The channel.
+	 * @param position The file position to start reading at.
+	 * @param size     The number of bytes to read.
+	 * @param fileSize The size of the file.
+	 * @return A buffer with exactly the region's bytes, ready to be read.
+	 * @throws IOException if the region lies beyond the end of the file.
+	 */
+	static ByteBuffer readFully(FileChannel channel, long position,
+			long size, long fileSize) throws IOException {
+		if (position + size > fileSize || size > Integer.MAX_VALUE)
+			throw new IOException("Truncated dictionary file");
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Truncated dictionary file");
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,23 @@
+package engine;
+
+/**
+ * A Dict Load Listener is notified of the progress of an asynchronous Dict
+ * load (see Dict.loadAsync).
+ * <p>
+ * Notifications are made from the threads doing the loading, possibly
+ * several at once, so implementations must be thread-safe and should hand
+ * off any GUI work to the appropriate thread.
+ * 
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public interface DictLoadListener {
+	/**
+	 * Called as a dictionary file is read.
+	 * @param bytesRead     The number of bytes of the file read so far.
+	 * @param totalBytes    The size of the file in bytes, or -1 if unknown.
+	 * @param wordsAccepted The number of words accepted into the Dict so far.
+	 */
+	void progressMade(long bytesRead, long totalBytes, long wordsAccepted);
+}
@@ -0,0 +1,74 @@
+package engine;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A Dict Load Task loads a Dict from a file in the background. It is a
+ * Future of the Dict, so callers can wait for it, poll it or cancel it.
+ * Cancelling stops the load promptly, even while it is in the middle of
+ * tokenizing the file on several threads.
+ * 
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class DictLoadTask extends FutureTask<Dict> {
+
+	// Loads are started on their own daemon threads, so that a slow load
+	// never holds up the application from exiting.
+	private static final ExecutorService LOADERS =
+			Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Dict loader");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	// Instance Fields
+	private final LoadProgress progress;
+
+	// Constructors
+	/**
+	 * Creates a new Dict Load Task. It does not start until start() is
+	 * called.
+	 * @param file     The text or compiled dictionary file to load.
+	 * @param listener The listener to report progress to, or null.
+	 */
+	DictLoadTask(File file, DictLoadListener listener) {
+		this(file, new LoadProgress(listener));
+	}
+
+	private DictLoadTask(final File file, final LoadProgress loadProgress) {
+		super(new Callable<Dict>() {
+			@Override
+			public Dict call() throws Exception {
+				return new Dict(file, loadProgress);
+			}
+		});
+		progress = loadProgress;
+	}
+
+	// Public methods
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		progress.cancel(); // Loader threads poll this between blocks
+		return super.cancel(mayInterruptIfRunning);
+	}
+
+	// Package-private Methods
+	/**
+	 * Starts loading on a background thread.
+	 * @return This task.
+	 */
+	DictLoadTask start() {
+		LOADERS.execute(this);
+		return this;
+	}
+}
@@ -0,0 +1,388 @@
+package engine;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * The Dict Registry is a process-wide cache of loaded Dicts, so that the
+ * same dictionary file is only parsed (and held in memory) once no matter
+ * how many times it is asked for. Dicts are immutable, so a single instance
+ * can safely be shared by every game and thread.
+ * <p>
+ * Files are identified by their canonical path, size and last modification
+ * time, so a file that changes on disk is loaded afresh the next time it
+ * is asked for. The registry keeps the most recently used Dicts, up to a
+ * fixed number, and evicts the least recently used one beyond that. The
+ * default Dict is never evicted. Loads that fail or are cancelled are not
+ * kept.
+ * <p>
+ * Every caller of getAsync() gets a Future of its own. Cancelling it only
+ * gives up that caller's interest in the load: the shared load goes on
+ * for the others, and is only cancelled once no caller is left waiting
+ * for it.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class DictRegistry {
+
+	// Constants
+	private static final int MAX_ENTRIES = 4; // Not counting the default
+
+	// Class Fields
+	private static Dict defaultDict;
+	// Entries in least to most recently used order. Each holds a load task,
+	// so concurrent requests for one file wait on the same load.
+	private static final Map<Key, Entry> entries =
+			new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+	private DictRegistry() {} // Not instantiable
+
+	// Public methods
+	/**
+	 * Gets the shared Dict of the default word text file.
+	 * @return The default Dict.
+	 * @see Dict#Dict()
+	 */
+	public static synchronized Dict getDefault() {
+		if (defaultDict == null)
+			defaultDict = new Dict();
+		return defaultDict;
+	}
+
+	/**
+	 * Gets the shared Dict of a text or compiled dictionary file, loading it
+	 * if it is not in the registry or has changed since it was loaded.
+	 * @param file The dictionary file.
+	 * @return The Dict.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read.
+	 * @see Dict#Dict(File)
+	 */
+	public static Dict get(File file) throws IOException {
+		Key key = new Key(file);
+		while (true) {
+			Entry entry;
+			boolean isNew = false;
+			synchronized (DictRegistry.class) {
+				entry = entries.get(key);
+				if (entry == null) {
+					entry = newEntry(key, file, null);
+					isNew = true;
+				}
+				entry.waiters++; // Keeps asynchronous callers from
+				                 // cancelling it
+			}
+			try {
+				if (isNew)
+					entry.run(); // Loads outside the lock
+				return getUninterruptibly(entry);
+			} catch (CancellationException e) {
+				// Cancelled by its last asynchronous caller just before this
+				// call joined it; it has left the registry, so load afresh
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				throw new IOException(cause);
+			} finally {
+				synchronized (DictRegistry.class) {
+					entry.waiters--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the shared Dict of a text or compiled dictionary file in the 
+	 * background, as Dict.loadAsync would, unless the registry already has
+	 * it or is already loading it. 
+	 * <p>
+	 * Cancelling the returned Future gives it up at once. The shared load
+	 * is only cancelled, and removed from the registry, if no other caller
+	 * is waiting for it.
+	 * @param file     The dictionary file.
+	 * @param listener Listener notified of the load's progress, or null. It 
+	 *                 is only notified if this call starts the load.
+	 * @return A Future of the Dict.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file's canonical path could not be found.
+	 * @see Dict#loadAsync(File, DictLoadListener)
+	 */
+	public static Future<Dict> getAsync(File file, DictLoadListener listener)
+			throws IOException {
+		Key key = new Key(file);
+		synchronized (DictRegistry.class) {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				entry = newEntry(key, file, listener);
+				entry.start();
+			}
+			return entry.newHandle();
+		}
+	}
+
+	/**
+	 * Loads a text or compiled dictionary file afresh, replacing any Dict
+	 * the registry has of it, even one of the same size and modification
+	 * time: a file rewritten within the file system's timestamp resolution
+	 * may look unchanged.
+	 * @param file The dictionary file.
+	 * @return The new Dict.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read.
+	 */
+	public static Dict reload(File file) throws IOException {
+		remove(file);
+		return get(file);
+	}
+
+	/**
+	 * Removes every version of a dictionary file from the registry. Dicts
+	 * still in use elsewhere are unaffected.
+	 * @param file The dictionary file.
+	 * @throws IOException if the file's canonical path could not be found.
+	 */
+	public static void remove(File file) throws IOException {
+		String path = file.getCanonicalPath();
+		synchronized (DictRegistry.class) {
+			Iterator<Key> it = entries.keySet().iterator();
+			while (it.hasNext()) {
+				if (it.next().path.equals(path))
+					it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes every Dict except the default one from the registry. Dicts
+	 * still in use elsewhere are unaffected.
+	 */
+	public static synchronized void clear() {
+		entries.clear();
+	}
+
+	// Private methods
+	/**
+	 * Creates a load task for a file and adds it to the registry, evicting
+	 * old entries if needed. Must be called while holding the lock.
+	 * @param key      The file's key.
+	 * @param file     The file.
+	 * @param listener The load's progress listener, or null.
+	 * @return The new task, not yet started.
+	 */
+	private static Entry newEntry(Key key, File file,
+			DictLoadListener listener) {
+		Entry entry = new Entry(key, file, listener);
+		entries.put(key, entry);
+		evict();
+		return entry;
+	}
+
+	/**
+	 * Evicts least recently used entries while there are too many.
+	 */
+	private static void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (entries.size() > MAX_ENTRIES) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Waits for a task to finish, ignoring interrupts (which are restored
+	 * afterwards) so that a cached load is never abandoned half-way.
+	 */
+	private static Dict getUninterruptibly(Future<Dict> task)
+			throws ExecutionException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	// Private utility classes
+	/**
+	 * An Entry is the shared load task of a dictionary file. It removes
+	 * itself from the registry if it fails or is cancelled, and completes
+	 * the Handles of the callers waiting for it when it finishes. Its
+	 * callers are counted while holding the registry's lock.
+	 */
+	private static class Entry extends DictLoadTask {
+		private final Key key;
+		private final List<Handle> handles; // Of asynchronous callers
+		private int waiters;                // Synchronous callers
+
+		Entry(Key key, File file, DictLoadListener listener) {
+			super(file, listener);
+			this.key = key;
+			handles = new ArrayList<Handle>();
+			waiters = 0;
+		}
+
+		/**
+		 * Creates the Future of a new asynchronous caller. Must be called
+		 * while holding the lock.
+		 * @return The caller's Handle.
+		 */
+		Handle newHandle() {
+			Handle handle = new Handle(this);
+			if (isDone())
+				complete(handle);
+			else
+				handles.add(handle);
+			return handle;
+		}
+
+		/**
+		 * Gives up a caller's interest in the load, cancelling it if no
+		 * other caller is waiting for it.
+		 * @param handle                The caller's cancelled Handle.
+		 * @param mayInterruptIfRunning Whether to interrupt the loader.
+		 */
+		void release(Handle handle, boolean mayInterruptIfRunning) {
+			synchronized (DictRegistry.class) {
+				handles.remove(handle);
+				if (!handles.isEmpty() || waiters > 0 || isDone())
+					return;
+				entries.remove(key, this);
+			}
+			cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		protected void done() {
+			List<Handle> waiting;
+			synchronized (DictRegistry.class) {
+				if (isCancelled() || getException() != null)
+					entries.remove(key, this);
+				waiting = new ArrayList<Handle>(handles);
+				handles.clear();
+			}
+			for (Handle handle : waiting) {
+				complete(handle);
+			}
+		}
+
+		/**
+		 * Completes a caller's Handle with the outcome of the finished load.
+		 */
+		private void complete(Handle handle) {
+			if (isCancelled()) {
+				handle.cancel(false);
+				return;
+			}
+			Throwable failure = getException();
+			if (failure != null)
+				handle.completeExceptionally(failure);
+			else
+				handle.complete(getNow());
+		}
+
+		/**
+		 * Gets the exception the finished load failed with.
+		 * @return The exception, or null if it succeeded or was cancelled.
+		 */
+		private Throwable getException() {
+			try {
+				get();
+				return null;
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (CancellationException e) {
+				return null;
+			} catch (InterruptedException e) { // Cannot wait, as it is done
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+
+		/**
+		 * Gets the Dict of the successfully finished load.
+		 */
+		private Dict getNow() {
+			try {
+				return get();
+			} catch (Exception e) { // Cannot happen once it succeeded
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * A Handle is one caller's Future of a shared load. Cancelling it
+	 * completes it at once, and releases the caller's interest in the load.
+	 */
+	private static class Handle extends CompletableFuture<Dict> {
+		private final Entry entry;
+
+		Handle(Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled)
+				entry.release(this, mayInterruptIfRunning);
+			return cancelled;
+		}
+	}
+
+	/**
+	 * A Key identifies a version of a dictionary file.
+	 */
+	private static class Key {
+		private final String path;
+		private final long size;
+		private final long modified;
+
+		Key(File file) throws IOException {
+			if (!file.isFile())
+				throw new FileNotFoundException(file.getPath());
+			path = file.getCanonicalPath();
+			size = file.length();
+			modified = file.lastModified();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return path.equals(other.path) && size == other.size &&
+					modified == other.modified;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = path.hashCode();
+			hash = 31 * hash + (int) (size ^ (size >>> 32));
+			hash = 31 * hash + (int) (modified ^ (modified >>> 32));
+			return hash;
+		}
+	}
+}
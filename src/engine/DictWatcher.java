@@ -0,0 +1,207 @@
+package engine;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Dict Watcher keeps a Dict up to date with the dictionary file it was
+ * loaded from. It watches the file with a WatchService and, whenever the
+ * file changes, rebuilds the Dict on a background thread and publishes it
+ * as the new current snapshot.
+ * <p>
+ * Dicts are immutable, so publishing is a single atomic reference swap:
+ * games already holding the old snapshot keep playing with it, while new
+ * games built from getDict() get the new one without waiting for it to
+ * load. If a reload fails (say, the file is caught half-written), the
+ * previous snapshot stays current until the next change.
+ * <p>
+ * A Dict loaded from a text file holds its own copy of the words, but one
+ * loaded from a compiled file reads them from a memory mapping of the file
+ * (along with any opening book and policy table). Old snapshots of those
+ * only survive a change if the file is replaced, as DictCompiler,
+ * BookCompiler and PolicyCompiler do by moving a complete new file into
+ * place. A tool that rewrites a compiled file in place changes the words
+ * under the old snapshot, and truncating it crashes the JVM.
+ * <p>
+ * Listeners registered for the "dict" property are notified of each new
+ * snapshot, from the watcher's thread.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class DictWatcher implements Closeable {
+
+	// Constants
+	/** Name of the property fired when a new snapshot is published. */
+	public static final String DICT_PROPERTY = "dict";
+
+	// Editors often write a file in several steps; changes are only acted
+	// on once the file has been quiet for this long.
+	private static final long SETTLE_MILLIS = 250;
+
+	// Instance Fields
+	private final File file;
+	private final AtomicReference<Dict> snapshot;
+	private final WatchService watchService;
+	private final PropertyChangeSupport listeners;
+
+	// Constructors
+	/**
+	 * Creates a new Dict Watcher for a dictionary file, loading it (through
+	 * the Dict Registry) and then watching it for changes.
+	 * @param dictFile The text or compiled dictionary file.
+	 * @throws IOException if the file could not be loaded or watched.
+	 */
+	public DictWatcher(File dictFile) throws IOException {
+		this(dictFile, DictRegistry.get(dictFile));
+	}
+
+	/**
+	 * Creates a new Dict Watcher for a dictionary file that has already
+	 * been loaded, and starts watching it for changes.
+	 * @param dictFile The text or compiled dictionary file.
+	 * @param dict     The Dict loaded from the file.
+	 * @throws IOException if the file could not be watched.
+	 */
+	public DictWatcher(File dictFile, Dict dict) throws IOException {
+		file = dictFile.getAbsoluteFile();
+		snapshot = new AtomicReference<Dict>(dict);
+		listeners = new PropertyChangeSupport(this);
+		watchService = FileSystems.getDefault().newWatchService();
+		try {
+			file.getParentFile().toPath().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			watchService.close();
+			throw e;
+		}
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "Dict watcher: " + file.getName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	// Public methods
+	/**
+	 * Gets the current snapshot of the watched dictionary.
+	 * @return The most recently loaded Dict.
+	 */
+	public Dict getDict() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Gets the watched dictionary file.
+	 * @return The file, as an absolute path.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Adds a listener notified with the old and new Dict whenever a new
+	 * snapshot is published. It is called from the watcher's thread.
+	 * @param l The PropertyChangeListener object.
+	 */
+	public void addPropertyChangeListener(PropertyChangeListener l) {
+		listeners.addPropertyChangeListener(DICT_PROPERTY, l);
+	}
+
+	/**
+	 * Removes a listener added with addPropertyChangeListener.
+	 * @param l The PropertyChangeListener object.
+	 */
+	public void removePropertyChangeListener(PropertyChangeListener l) {
+		listeners.removePropertyChangeListener(DICT_PROPERTY, l);
+	}
+
+	/**
+	 * Stops watching the file. The current snapshot stays available.
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close(); // Wakes up and ends the watcher thread
+	}
+
+	// Private methods
+	/**
+	 * Waits for changes to the file and reloads it, until closed.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+				if (!isFileEvent(watchService.take()))
+					continue;
+				// Wait for the file to settle
+				WatchKey key;
+				while ((key = watchService.poll(SETTLE_MILLIS,
+						TimeUnit.MILLISECONDS)) != null) {
+					isFileEvent(key);
+				}
+				reload();
+			}
+		} catch (ClosedWatchServiceException e) {
+			// Closed; stop watching
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Checks a watch key's pending events for changes to the watched file,
+	 * and resets the key.
+	 * @param key The watch key.
+	 * @return True if any event was about the watched file, else false.
+	 */
+	private boolean isFileEvent(WatchKey key) {
+		boolean found = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			Object context = event.context();
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+					(context instanceof Path &&
+					 context.toString().equals(file.getName())))
+				found = true;
+		}
+		key.reset();
+		return found;
+	}
+
+	/**
+	 * Rebuilds the Dict from the file and publishes it, if the file still
+	 * exists and can be loaded. The registry's Dict of the file is replaced
+	 * rather than reused, as the file has changed even if its size and
+	 * modification time have not.
+	 */
+	private void reload() {
+		if (!file.isFile())
+			return; // Deleted or being replaced; wait for the next change
+		Dict fresh;
+		try {
+			fresh = DictRegistry.reload(file);
+		} catch (Exception e) {
+			System.err.println("Error: Unable to reload " + file + ": " + e);
+			return;
+		}
+		Dict old = snapshot.getAndSet(fresh);
+		if (old != fresh)
+			listeners.firePropertyChange(DICT_PROPERTY, old, fresh);
+	}
+}
@@ -1,10 +1,18 @@
 package engine;
 
+import java.util.random.RandomGenerator;
+
 /**
  * A Game object simulates a hangman game. Each instance represents one
  * play-through. Each Game can be customized with a different Dict
  * (dictionary), Mode, word length, and lives. Its methods allow the user
  * to check or progress a Game's state.
+ * <p>
+ * A Game's state can be saved as a snapshot and restored later, to undo
+ * moves or to try some out and go back, and a Game can be branched into a
+ * new Game that plays on from the same state independently. Each of these
+ * takes constant time, as the Game's Word shares its possible words with
+ * its snapshots and branches rather than copying them (see Word).
  * 
  * @author Vance Zuo
  * Created: May 12, 2013
@@ -23,6 +31,7 @@ public class Game {
 	private Word word;	
 	private String usedLetters;
 	private char[] solved; // Represents the word in partially-solved state
+	private Object origin; // Shared by a Game and its branches
 	
 	// Constructors
 	/**
@@ -33,12 +42,63 @@ public class Game {
 	 * @param maxLives   The number of failed tries the user is allowed.
 	 */
 	public Game(Dict dictionary, Mode wordMode, int wordLength, int maxLives) {
+		this(dictionary, wordMode, wordLength, maxLives, 
+				ThreadRandom.current());
+	}
+	
+	/**
+	 * Creates a new Game object with given starting conditions, making any
+	 * random choices with a given random number generator. Games created
+	 * with generators in the same state play out identically.
+	 * @param dictionary Dict representing possible words to choose from.
+	 * @param wordMode   Mode representing how the hangman word will be chosen.
+	 * @param wordLength The number of characters in the word.
+	 * @param maxLives   The number of failed tries the user is allowed.
+	 * @param rng        The random number generator, e.g. a seeded
+	 *                   SplittableRandom for reproducible games.
+	 */
+	public Game(Dict dictionary, Mode wordMode, int wordLength, int maxLives,
+			RandomGenerator rng) {
+		this(dictionary, wordMode, wordLength, maxLives,
+				Mode.DEFAULT_DEADLINE, rng);
+	}
+
+	/**
+	 * Creates a new Game object with given starting conditions and time to
+	 * answer each guess in, making any random choices with a given random
+	 * number generator. Only the ANYTIME Mode makes use of the deadline.
+	 * @param dictionary Dict representing possible words to choose from.
+	 * @param wordMode   Mode representing how the hangman word will be chosen.
+	 * @param wordLength The number of characters in the word.
+	 * @param maxLives   The number of failed tries the user is allowed.
+	 * @param deadline   The time the word answers each guess in, in
+	 *                   milliseconds.
+	 * @param rng        The random number generator, e.g. a seeded
+	 *                   SplittableRandom for reproducible games.
+	 */
+	public Game(Dict dictionary, Mode wordMode, int wordLength, int maxLives,
+			long deadline, RandomGenerator rng) {
 		setDict(dictionary);	
 		setLength(wordLength);
 		setLives(maxLives);
-		setWord(wordMode);
+		setWord(wordMode, deadline, rng);
 		usedLetters = "";
 		solved = new char[length];
+		origin = new Object();
+	}
+
+	/**
+	 * Creates a branch of a Game, in the same state.
+	 * @param game The Game.
+	 */
+	private Game(Game game) {
+		dict = game.dict;
+		length = game.length;
+		lives = game.lives;
+		word = game.word.branch();
+		usedLetters = game.usedLetters;
+		solved = game.solved.clone();
+		origin = game.origin;
 	}
 	
 	// Public methods
@@ -129,10 +189,13 @@ public class Game {
 		if (isGameOver())
 			throw new GameOverException();
 		letter = Character.toLowerCase(letter);
-		boolean used = hasUsed(letter);
-		if (!used)
-			usedLetters += letter;
-		if (!word.hasLetter(letter) || used) { // Unsuccessful case
+		if (hasUsed(letter)) { // Unsuccessful case, unknown to the word
+			word.loseLife();
+			lives--;
+			return false;
+		}
+		usedLetters += letter;
+		if (!word.hasLetter(letter)) { // Unsuccessful case
 			lives--;
 			return false;
 		}
@@ -154,6 +217,41 @@ public class Game {
 		lives = 0;
 		return true;
 	}
+
+	/**
+	 * Saves the Game's state: the letters played, the lives left, and the
+	 * word's answers so far.
+	 * @return A snapshot of the state, for restore().
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	/**
+	 * Returns the Game to a saved state, undoing the moves made since. A
+	 * snapshot can be restored any number of times, by the Game it was
+	 * taken of or any of its branches.
+	 * @param snapshot A snapshot of this Game or of a Game it branched from
+	 *                 or that branched from it.
+	 */
+	public void restore(Snapshot snapshot) {
+		if (snapshot.origin != origin)
+			throw new IllegalArgumentException("Snapshot is of another game.");
+		lives = snapshot.lives;
+		usedLetters = snapshot.usedLetters;
+		solved = snapshot.solved.clone();
+		word.restore(snapshot.word);
+	}
+
+	/**
+	 * Creates a branch of the Game: a new Game in the same state, which is
+	 * played independently of it from then on, and can be played on another
+	 * thread.
+	 * @return The branch.
+	 */
+	public Game branch() {
+		return new Game(this);
+	}
 	
 	// Private methods
 	/**
@@ -189,11 +287,33 @@ public class Game {
 	
 	/**
 	 * Sets the hangman game's word choice mode.
-	 * @param mode The Mode
+	 * @param mode     The Mode
+	 * @param deadline The time to answer each guess in, in milliseconds
+	 * @param rng      The random number generator for the Mode's choices
 	 */
-	private void setWord(Mode mode) {
-		word = Mode.getWord(mode, dict, length);
+	private void setWord(Mode mode, long deadline, RandomGenerator rng) {
+		word = Mode.getWord(mode, dict, length, lives, deadline, rng);
 	}	
+
+	// Public utility classes
+	/**
+	 * A Snapshot is a saved state of a Game (see Game.snapshot()).
+	 */
+	public static class Snapshot {
+		private final Object origin;
+		private final int lives;
+		private final String usedLetters;
+		private final char[] solved;
+		private final Word.Snapshot word;
+
+		private Snapshot(Game game) {
+			origin = game.origin;
+			lives = game.lives;
+			usedLetters = game.usedLetters;
+			solved = game.solved.clone();
+			word = game.word.snapshot();
+		}
+	}
 	
 //	/**
 //	 * The main method. Used for testing purposes.
@@ -0,0 +1,99 @@
+package engine;
+
+/**
+ * An Id Stack holds the short possible word lists of an Adversary Word as
+ * ranges of an id array: each guess pushes the ids of the words it keeps
+ * onto the stack, and the Adversary Word's possible words are the range it
+ * pushed last.
+ * <p>
+ * A range can be shared, when a snapshot of the Adversary Word is taken;
+ * ids below the end of the last range shared are never written again, so
+ * every snapshot stays valid for as long as something refers to it, and
+ * saving or restoring an Adversary Word's state, or branching it, only
+ * takes a range. Ids above it are only seen by the Adversary Word, so a
+ * guess filters the words of an unshared range in place, and when nothing
+ * in the array is shared, a guess that needs more room than is left starts
+ * over at the bottom. Only when shared ranges fill the array is a new one
+ * started, rather than the old one copied; the old one is freed once no
+ * snapshot refers to it. An Id Stack is not thread-safe, so branches each
+ * push onto their own.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class IdStack {
+
+	// Instance Fields
+	private final int chunkSize; // Smallest array to start
+	private int[] ids;
+	private int top;             // First free index of ids
+	private int shared;          // Ids below it are never written again
+
+	// Constructors
+	/**
+	 * Creates an empty stack.
+	 * @param chunkSize The smallest number of ids an array is started with.
+	 */
+	IdStack(int chunkSize) {
+		this.chunkSize = Math.max(chunkSize, 1);
+		ids = new int[this.chunkSize];
+		top = 0;
+		shared = 0;
+	}
+
+	// Package-private Methods
+	/**
+	 * Makes room for the ids kept from a range, popping the range itself if
+	 * it is the last one pushed and is not shared, else starting over at the
+	 * bottom or starting a new array if needed. Ids are then written to the
+	 * array returned, from getTop() on, and pushed with push(). As ids are
+	 * kept in order, the range is only read ahead of where they are written.
+	 * @param from  The array of the range the ids are kept from.
+	 * @param start The index the range starts at.
+	 * @param count The number of ids in the range, the most that are kept.
+	 * @return The array to write the ids to.
+	 */
+	int[] reserve(int[] from, int start, int count) {
+		if (from == ids && start >= shared && start + count == top) {
+			top = start;
+		} else if (count > ids.length - top) {
+			// Unshared ids below the top are stale, as the range is not here
+			if (shared == 0 && count <= ids.length) {
+				top = 0;
+			} else {
+				ids = new int[Math.max(count, chunkSize)];
+				top = 0;
+				shared = 0;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Gets the index ids are pushed at.
+	 * @return The index, in the array returned by reserve().
+	 */
+	int getTop() {
+		return top;
+	}
+
+	/**
+	 * Pushes ids written above the top.
+	 * @param count The number of ids, at most as many as were reserved.
+	 */
+	void push(int count) {
+		top += count;
+	}
+
+	/**
+	 * Marks a range as shared, so that its ids are never written again.
+	 * Ranges of other arrays are shared already.
+	 * @param from The array of the range.
+	 * @param end  The index just past the range.
+	 */
+	void share(int[] from, int end) {
+		if (from == ids && end > shared)
+			shared = end;
+	}
+}
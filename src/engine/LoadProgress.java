@@ -0,0 +1,76 @@
+package engine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Load Progress object tracks how far a Dict load has got, reports it to
+ * a Dict Load Listener, and carries the request to cancel the load to the
+ * threads doing the loading.
+ * 
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class LoadProgress {
+
+	/** Progress that is neither reported nor ever cancelled. */
+	static final LoadProgress NONE = new LoadProgress(null);
+
+	// Instance Fields
+	private final DictLoadListener listener; // May be null
+	private final AtomicLong bytesRead = new AtomicLong();
+	private final AtomicLong wordsAccepted = new AtomicLong();
+	private volatile long totalBytes = -1;
+	private volatile boolean cancelled = false;
+
+	// Constructors
+	/**
+	 * Creates a new Load Progress object.
+	 * @param progressListener The listener to report progress to, or null.
+	 */
+	LoadProgress(DictLoadListener progressListener) {
+		listener = progressListener;
+	}
+
+	// Package-private Methods
+	/**
+	 * Sets the total number of bytes to be read, if known.
+	 * @param bytes The total, or -1 if unknown.
+	 */
+	void setTotalBytes(long bytes) {
+		totalBytes = bytes;
+	}
+
+	/**
+	 * Records that more of the input has been read, and reports it.
+	 * @param bytes The number of bytes just read.
+	 * @param words The number of words just accepted.
+	 * @throws CancellationException if the load has been cancelled.
+	 */
+	void add(long bytes, long words) {
+		if (this == NONE)
+			return;
+		checkCancelled();
+		long totalRead = bytesRead.addAndGet(bytes);
+		long totalWords = wordsAccepted.addAndGet(words);
+		if (listener != null)
+			listener.progressMade(totalRead, totalBytes, totalWords);
+	}
+
+	/**
+	 * Requests that the load stop as soon as possible.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Stops the calling thread's part of the load if it has been cancelled.
+	 * @throws CancellationException if the load has been cancelled.
+	 */
+	void checkCancelled() {
+		if (cancelled)
+			throw new CancellationException("Dict load cancelled");
+	}
+}
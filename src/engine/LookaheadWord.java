@@ -0,0 +1,489 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Lookahead Word object is a Word that, like an Adversary Word, keeps a
+ * list of possible words and answers each guess with the "reality" (reveal
+ * pattern) of the guessed letter that suits it best. Rather than simply
+ * keeping the largest reality, it looks a few guesses ahead.
+ * <p>
+ * The player is modelled as a guesser that always guesses the unused
+ * letter found in the most possible words. For each reality of a guess,
+ * the Lookahead Word plays out the model guesser's next guesses, answering
+ * each of them in turn with its own best reality, and counts how many of
+ * them it could make wrong. It keeps the reality that makes the most wrong
+ * guesses, and of those the one an Adversary Word would keep.
+ * <p>
+ * As the model guesser is deterministic, the realities of a guess partition
+ * the possible words, so each level of lookahead visits every possible word
+ * once: a search of depth k costs about k times the work of a greedy guess.
+ * The depth is chosen so that this stays within a fixed amount of work per
+ * guess (see WORK_LIMIT), so large possible word lists are answered
+ * greedily and small ones searched deep; misses beyond the lives left are
+ * never counted. Sibling realities are searched in parallel on the common
+ * ForkJoinPool, and a branch, the guess itself included, stops searching
+ * its siblings once it has found a reality that costs the guesser every
+ * life or every guess it has left.
+ * <p>
+ * Searches of a game share a Transposition Table, so game states reached by
+ * several orders of guesses are searched once. When a state's stored result
+ * is too shallow to reuse, its best answer is still searched first, as it
+ * is the likeliest to cut its siblings off.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class LookaheadWord extends Word {
+
+	// Constants
+	/** Deadline of searches that have none. */
+	static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private static final int MAX_DEPTH = 6;           // Guesses ahead
+	private static final int WORK_LIMIT = 1 << 21;    // Word visits a guess
+	private static final int PARALLEL_SIZE = 1 << 12; // Words to fork for
+	private static final int TABLE_SIZE = 1 << 16;    // Searches remembered
+
+	// Instance Fields
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private int[] possibleWords; // Word ids into bucket
+	private int usedLetters;     // Mask of letters, bit 0 for 'a'
+	private int livesLeft;       // Lives, less those the player has lost
+	private char[] partialWord;  // Answers must be consistent with it
+	private long state;          // Transposition key of the game state
+	private TranspositionTable table; // Shared by every search of the game
+	private Word backup;
+
+	// Constructors
+	/**
+	 * Creates a new Lookahead Word object using a given Dict and word length.
+	 * @param dict       The Dict of possible words to choose from.
+	 * @param wordLength The desired word length.
+	 * @param lives      The number of wrong guesses the player is allowed,
+	 *                   which bounds how far ahead it is worth looking.
+	 * @param rng        The random number generator for the backup word
+	 *                   chooser, if one is needed.
+	 */
+	public LookaheadWord(Dict dict, int wordLength, int lives,
+			RandomGenerator rng) {
+		super(dict, wordLength);
+		bucket = dict.getBucket(wordLength);
+		// As for an Adversary Word, a backup word is used for words too
+		// long for their patterns to fit a long
+		if (wordLength > WordSignatures.MAX_PATTERN_LENGTH) {
+			backup = new RandomWord(dict, wordLength, rng);
+			return;
+		}
+		signatures = bucket.getSignatures();
+		possibleWords = bucket.getIds();
+		usedLetters = 0;
+		livesLeft = lives;
+		partialWord = new char[wordLength];
+		state = TranspositionTable.initialKey(wordLength);
+		table = new TranspositionTable(TABLE_SIZE);
+		backup = null;
+	}
+
+	// Public Methods
+	@Override
+	public boolean hasLetter(char letter) {
+		if (backup != null)
+			return backup.hasLetter(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.getPatternOf(partialWord, letter) != 0;
+	}
+
+	@Override
+	public int[] getLetterPositions(char letter) {
+		if (backup != null)
+			return backup.getLetterPositions(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.toPositions(
+				AdversaryWord.getPatternOf(partialWord, letter));
+	}
+
+	@Override
+	public String toString() {
+		if (backup != null)
+			return backup.toString();
+		// As an Adversary Word does, show the first possible word
+		return bucket.getWord(possibleWords[0]);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		if (backup != null)
+			return backup.snapshot();
+		return new State(this);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		if (backup != null) {
+			backup.restore(snapshot);
+			return;
+		}
+		State state = (State) snapshot;
+		possibleWords = state.possibleWords;
+		usedLetters = state.usedLetters;
+		livesLeft = state.livesLeft;
+		partialWord = state.partialWord.clone();
+		this.state = state.state;
+	}
+
+	// Package-private Methods
+	@Override
+	void loseLife() {
+		if (backup == null && livesLeft > 0)
+			livesLeft--;
+	}
+
+	/**
+	 * Splits word ids into the realities of a guessed letter.
+	 * @param signatures The signatures of the words.
+	 * @param ids        The word ids.
+	 * @param letter     The letter's index in the alphabet.
+	 * @param realities  An empty Pattern Counts object, which is given the
+	 *                   count of each reality.
+	 * @return The ids of each reality, in the order of realities, each in
+	 *         the order of ids.
+	 */
+	static int[][] partition(WordSignatures signatures, int[] ids,
+			int letter, PatternCounts realities) {
+		long[] patterns = new long[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			patterns[i] = signatures.getPattern(ids[i], letter);
+			realities.add(patterns[i]);
+		}
+		int[][] groups = new int[realities.size()][];
+		int[] filled = new int[groups.length];
+		for (int i = 0; i < groups.length; i++) {
+			groups[i] = new int[realities.getCount(i)];
+		}
+		for (int i = 0; i < ids.length; i++) {
+			int group = realities.indexOf(patterns[i]);
+			groups[group][filled[group]++] = ids[i];
+		}
+		return groups;
+	}
+
+	/**
+	 * Searches every reality of a guess, in parallel if there are many
+	 * words, and picks the one that makes the model guesser guess wrong
+	 * the most, of those the one an Adversary Word would keep. With no
+	 * guesses to look ahead, that is the one an Adversary Word would keep.
+	 * <p>
+	 * Realities are searched in the order an Adversary Word prefers them,
+	 * so the first to make every wrong guess possible wins all its ties,
+	 * and the realities after it are not searched at all.
+	 * @param signatures The signatures of the words.
+	 * @param table      The table of searches already done.
+	 * @param groups     The ids of each reality (see partition()).
+	 * @param realities  The counts of each reality.
+	 * @param letter     The guessed letter's index in the alphabet.
+	 * @param used       The mask of letters guessed, including it.
+	 * @param state      The transposition key of the state it is guessed in.
+	 * @param lives      The model guesser's lives left.
+	 * @param depth      The number of guesses to look ahead.
+	 * @param deadline   The System.nanoTime() by which to give up, or
+	 *                   NO_DEADLINE.
+	 * @return The index of the reality.
+	 * @throws CancellationException if the deadline passes first.
+	 */
+	static int searchRealities(WordSignatures signatures,
+			TranspositionTable table, int[][] groups, PatternCounts realities,
+			int letter, int used, long state, int lives, int depth,
+			long deadline) {
+		if (depth <= 0) // Nothing to weigh a miss against
+			return realities.indexOf(realities.getBestPattern());
+		int[] order = preferenceOrder(realities);
+		int words = 0;
+		List<Search> searches = new ArrayList<Search>(order.length);
+		for (int i : order) {
+			boolean miss = realities.getPattern(i) == 0;
+			searches.add(new Search(signatures, table, groups[i], used,
+					state ^ TranspositionTable.guessKey(letter,
+							realities.getPattern(i)),
+					lives - (miss ? 1 : 0), depth, deadline));
+			words += groups[i].length;
+		}
+		// As in a Search, one level up: the guess itself may be a miss on
+		// top of the depth guesses ahead, and with no lives left a miss
+		// still counts once
+		int bound = Math.min(depth + 1, Math.max(lives, 1));
+		Search first = searches.get(0);
+		if (words >= PARALLEL_SIZE)
+			ForkJoinPool.commonPool().invoke(first);
+		int best = order[0];
+		int bestScore = Search.score(realities.getPattern(best),
+				first.isDone() ? first.join() : first.compute());
+		if (bestScore < bound) {
+			if (words >= PARALLEL_SIZE)
+				ForkJoinPool.commonPool().invoke(new SearchAll(
+						searches.subList(1, searches.size())));
+			for (int k = 1; k < order.length; k++) {
+				Search search = searches.get(k);
+				int score = Search.score(realities.getPattern(order[k]),
+						search.isDone() ? search.join() : search.compute());
+				// Ties go to the realities searched first
+				if (score > bestScore) {
+					best = order[k];
+					bestScore = score;
+					if (bestScore >= bound)
+						break;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Chooses how many guesses ahead to search a guess over a number of
+	 * possible words: as many as fit the work limit, at most MAX_DEPTH.
+	 * @param words The number of possible words, at least 1.
+	 * @return The depth, 0 to answer greedily.
+	 */
+	static int chooseDepth(int words) {
+		return Math.min(MAX_DEPTH, WORK_LIMIT / words);
+	}
+
+	// Private methods
+	/**
+	 * Checks if a letter has been guessed/queried for yet.
+	 * @param letter The letter as a char.
+	 * @return True if the letter has been processed previously (queried),
+	 *         else false.
+	 */
+	private boolean hasUsed(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		return index >= 0 && (usedLetters & (1 << index)) != 0;
+	}
+
+	/**
+	 * Adds a letter to the used letters, keeping the reality of possible
+	 * words that looks worst for the player.
+	 * @param letter The letter as a char.
+	 */
+	private void processLetter(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		if (index < 0)
+			return; // No word contains it; every word stays possible
+		int used = usedLetters | (1 << index);
+		PatternCounts realities = new PatternCounts();
+		int[][] groups = partition(signatures, possibleWords, index,
+				realities);
+		int best = searchRealities(signatures, table, groups, realities,
+				index, used, state, livesLeft,
+				chooseDepth(possibleWords.length), NO_DEADLINE);
+
+		long pattern = realities.getPattern(best);
+		possibleWords = groups[best];
+		usedLetters = used;
+		state ^= TranspositionTable.guessKey(index, pattern);
+		if (pattern == 0)
+			livesLeft--;
+		for (long mask = pattern; mask != 0; mask &= mask - 1) {
+			partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+		}
+	}
+
+	/**
+	 * Chooses the model guesser's next letter: the unused letter contained
+	 * in the most words, the earliest in the alphabet for ties.
+	 * @param signatures The signatures of the words.
+	 * @param ids        The ids of the possible words.
+	 * @param used       The mask of letters already guessed.
+	 * @return The letter's index in the alphabet, or -1 if no word has an
+	 *         unused letter.
+	 */
+	private static int chooseGuess(WordSignatures signatures, int[] ids,
+			int used) {
+		int[] counts = new int[WordSignatures.ALPHABET];
+		for (int id : ids) {
+			int mask = signatures.getLetterMask(id) & ~used;
+			for (; mask != 0; mask &= mask - 1) {
+				counts[Integer.numberOfTrailingZeros(mask)]++;
+			}
+		}
+		int best = -1;
+		for (int letter = 0; letter < counts.length; letter++) {
+			if (counts[letter] > 0 && (best == -1 ||
+					counts[letter] > counts[best]))
+				best = letter;
+		}
+		return best;
+	}
+
+	/**
+	 * Sorts the realities of a guess from the one an Adversary Word would
+	 * keep to the one it would keep last.
+	 * @param realities The counts of each reality.
+	 * @return The indices of the realities, in that order.
+	 */
+	private static int[] preferenceOrder(PatternCounts realities) {
+		int[] order = new int[realities.size()];
+		// Insertion sort; a guess has few realities
+		for (int i = 0; i < order.length; i++) {
+			int j = i;
+			for (; j > 0 && PatternCounts.isBetter(realities.getCount(i),
+					realities.getPattern(i), realities.getCount(order[j - 1]),
+					realities.getPattern(order[j - 1])); j--) {
+				order[j] = order[j - 1];
+			}
+			order[j] = i;
+		}
+		return order;
+	}
+
+	// Private utility classes
+	/**
+	 * A Search finds how many wrong guesses the Lookahead Word can force on
+	 * the model guesser, within a number of guesses, from one reality.
+	 */
+	private static class Search extends RecursiveTask<Integer> {
+		private final WordSignatures signatures;
+		private final TranspositionTable table;
+		private final int[] ids;
+		private final int used;
+		private final long state;
+		private final int lives;
+		private final int depth;
+		private final long deadline;
+
+		/**
+		 * @param signatures The signatures of the words.
+		 * @param table      The table of searches already done.
+		 * @param ids        The ids of the reality's words.
+		 * @param used       The mask of letters already guessed.
+		 * @param state      The transposition key of the reality.
+		 * @param lives      The model guesser's lives left.
+		 * @param depth      The number of guesses to look ahead.
+		 * @param deadline   The System.nanoTime() by which to give up, or
+		 *                   NO_DEADLINE.
+		 */
+		Search(WordSignatures signatures, TranspositionTable table,
+				int[] ids, int used, long state, int lives, int depth,
+				long deadline) {
+			this.signatures = signatures;
+			this.table = table;
+			this.ids = ids;
+			this.used = used;
+			this.state = state;
+			this.lives = lives;
+			this.depth = depth;
+			this.deadline = deadline;
+		}
+
+		@Override
+		protected Integer compute() {
+			// A single word is always guessed without a miss
+			if (depth <= 0 || lives <= 0 || ids.length <= 1)
+				return 0;
+			TranspositionTable.Entry entry = table.get(state);
+			if (entry != null && entry.answers(depth, lives))
+				return entry.getScore();
+			// Give up without storing anything; a search cut short would
+			// store a wrong score
+			if (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0)
+				throw new CancellationException("Search deadline passed");
+			int letter = chooseGuess(signatures, ids, used);
+			if (letter < 0)
+				return 0; // Solved
+			PatternCounts realities = new PatternCounts();
+			int[][] groups = partition(signatures, ids, letter, realities);
+			int bound = Math.min(depth, lives); // No more misses possible
+			List<Search> children = new ArrayList<Search>();
+			for (int i = 0; i < groups.length; i++) {
+				long pattern = realities.getPattern(i);
+				children.add(new Search(signatures, table, groups[i],
+						used | (1 << letter),
+						state ^ TranspositionTable.guessKey(letter, pattern),
+						lives - (pattern == 0 ? 1 : 0), depth - 1, deadline));
+			}
+			// The best answer found before goes first, else the miss
+			// reality, as it is most often the best
+			int first = (entry != null) ? realities.indexOf(entry.getPattern())
+					: -1;
+			if (first < 0)
+				first = realities.indexOf(0);
+			if (first < 0)
+				first = 0;
+			long firstPattern = realities.getPattern(first);
+			int best = score(firstPattern, children.remove(first).compute());
+			long bestPattern = firstPattern;
+			if (best < bound) {
+				if (ids.length >= PARALLEL_SIZE)
+					invokeAll(children);
+				for (int i = 0, child = 0; i < groups.length; i++) {
+					if (i == first)
+						continue;
+					Search search = children.get(child++);
+					int score = score(realities.getPattern(i),
+							search.isDone() ? search.join() : search.compute());
+					if (score > best) {
+						best = score;
+						bestPattern = realities.getPattern(i);
+						if (best >= bound)
+							break;
+					}
+				}
+			}
+			table.put(state, depth, lives, best, bestPattern);
+			return best;
+		}
+
+		/**
+		 * Scores a reality: its search's score, plus one if it is a miss.
+		 */
+		private static int score(long pattern, int searchScore) {
+			return (pattern == 0 ? 1 : 0) + searchScore;
+		}
+	}
+
+	/**
+	 * A Search All task runs several Searches in parallel.
+	 */
+	private static class SearchAll extends RecursiveTask<Void> {
+		private final List<Search> searches;
+
+		SearchAll(List<Search> searches) {
+			this.searches = searches;
+		}
+
+		@Override
+		protected Void compute() {
+			invokeAll(searches);
+			return null;
+		}
+	}
+
+	/**
+	 * A State is a snapshot of a Lookahead Word. Its possible words are an
+	 * array of the Lookahead Word's, which are never written.
+	 */
+	private static class State implements Snapshot {
+		private final int[] possibleWords;
+		private final int usedLetters;
+		private final int livesLeft;
+		private final char[] partialWord;
+		private final long state;
+
+		State(LookaheadWord word) {
+			possibleWords = word.possibleWords;
+			usedLetters = word.usedLetters;
+			livesLeft = word.livesLeft;
+			partialWord = word.partialWord.clone();
+			state = word.state;
+		}
+	}
+}
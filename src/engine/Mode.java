@@ -2,6 +2,7 @@ package engine;
 
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /**
  * Enumerates the different word choice modes in a Game. 
@@ -15,8 +16,18 @@ public enum Mode {
 	SCRABBLE ("Scrabble", "From a small random sample, selects the " +
 			"'best' Scrabble word."),
 	ADVERSARY ("Adversary", "Always selects a 'most difficult' word for " +
-			"you to guess... ;)");
+			"you to guess... ;)"),
+	LOOKAHEAD ("Lookahead", "Like Adversary, but thinks a few guesses " +
+			"ahead... ;)"),
+	ANYTIME ("Anytime", "Like Lookahead, but thinks as far ahead as it " +
+			"can in a moment... ;)"),
+	SOLVED ("Solved", "Plays a perfect adversary, if its dictionary has " +
+			"been solved... ;)");
 	
+	// Constants
+	/** Default time the ANYTIME Mode answers a guess in, in milliseconds. */
+	public static final long DEFAULT_DEADLINE = 20;
+
 	// Instance Fields 
 	// These provide some brief information about each mode
 	private final String name;
@@ -44,7 +55,8 @@ public enum Mode {
 
 	/**
 	 * Creates and returns a Word object using a given Mode, Dict (dictionary), 
-	 * and word length. 
+	 * and word length. Any random choices are made with the calling thread's
+	 * own random number generator.
 	 * @param mode   The Mode used to determine the type of Word chosen.
 	 * @param dict   The Dict containing set of words to choose from.
 	 * @param length The length of the word to be chosen.
@@ -52,15 +64,78 @@ public enum Mode {
 	 * @see Word
 	 */
 	public static Word getWord(Mode mode, Dict dict, int length) {
+		return getWord(mode, dict, length, ThreadRandom.current());
+	}
+
+	/**
+	 * Creates and returns a Word object using a given Mode, Dict (dictionary), 
+	 * word length and random number generator. The same Mode, Dict, length
+	 * and generator state always give the same Word.
+	 * @param mode   The Mode used to determine the type of Word chosen.
+	 * @param dict   The Dict containing set of words to choose from.
+	 * @param length The length of the word to be chosen.
+	 * @param rng    The random number generator to make random choices with.
+	 * @return A new Word object with given constructor parameters
+	 * @see Word
+	 */
+	public static Word getWord(Mode mode, Dict dict, int length,
+			RandomGenerator rng) {
+		return getWord(mode, dict, length, Integer.MAX_VALUE, rng);
+	}
+
+	/**
+	 * Creates and returns a Word object using a given Mode, Dict (dictionary), 
+	 * word length, number of lives and random number generator. Only the
+	 * LOOKAHEAD, ANYTIME and SOLVED Modes make use of the lives. The ANYTIME
+	 * Mode answers each guess within DEFAULT_DEADLINE.
+	 * @param mode   The Mode used to determine the type of Word chosen.
+	 * @param dict   The Dict containing set of words to choose from.
+	 * @param length The length of the word to be chosen.
+	 * @param lives  The number of failed tries the player is allowed.
+	 * @param rng    The random number generator to make random choices with.
+	 * @return A new Word object with given constructor parameters
+	 * @see Word
+	 */
+	public static Word getWord(Mode mode, Dict dict, int length, int lives,
+			RandomGenerator rng) {
+		return getWord(mode, dict, length, lives, DEFAULT_DEADLINE, rng);
+	}
+
+	/**
+	 * Creates and returns a Word object using a given Mode, Dict (dictionary), 
+	 * word length, number of lives, deadline per guess and random number
+	 * generator. Only the ANYTIME Mode makes use of the deadline.
+	 * @param mode     The Mode used to determine the type of Word chosen.
+	 * @param dict     The Dict containing set of words to choose from.
+	 * @param length   The length of the word to be chosen.
+	 * @param lives    The number of failed tries the player is allowed.
+	 * @param deadline The time to answer each guess in, in milliseconds.
+	 * @param rng      The random number generator to make random choices with.
+	 * @return A new Word object with given constructor parameters
+	 * @see Word
+	 */
+	public static Word getWord(Mode mode, Dict dict, int length, int lives,
+			long deadline, RandomGenerator rng) {
 		if (mode == null)
 			throw new NullPointerException("Game mode must not be null.");
+		if (rng == null)
+			throw new NullPointerException("Random generator must not be null.");
 		switch (mode) {
 		case RANDOM: 
-			return new RandomWord(dict, length); 
-		case ADVERSARY: 
-			return new AdversaryWord(dict, length);
+			return new RandomWord(dict, length, rng); 
+		case ADVERSARY: // The bitset variant plays the same, faster on
+		                // large word lists
+			if (BitsetAdversaryWord.suits(dict.getBucket(length)))
+				return new BitsetAdversaryWord(dict, length, rng);
+			return new AdversaryWord(dict, length, rng);
+		case LOOKAHEAD:
+			return new LookaheadWord(dict, length, lives, rng);
+		case ANYTIME:
+			return new AnytimeWord(dict, length, lives, deadline, rng);
+		case SOLVED:
+			return new SolvedWord(dict, length, lives, rng);
 		case SCRABBLE: 
-			return new ScrabbleWord(dict, length);
+			return new ScrabbleWord(dict, length, rng);
 		}
 		return null; // Should not be reachable
 	}
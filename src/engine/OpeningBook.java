@@ -0,0 +1,390 @@
+package engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An Opening Book holds an Adversary Word's answers to every sequence of
+ * its first few guesses, for the words of one length of a Dict.
+ * <p>
+ * The first guesses of a game split the largest possible word lists, so
+ * they are the costliest to answer, yet the answers only depend on the
+ * words and the guesses. A book is built offline (see BookCompiler) and
+ * saved next to the dictionary file, and a Dict opened from that file
+ * memory-maps it. An Adversary Word then answers from the book until the
+ * game reaches a state the book does not hold, and only then finds its
+ * possible words.
+ * <p>
+ * Game states are keyed as in a Transposition Table, so guess orders that
+ * reach the same state share an entry. For each state, the book holds the
+ * reveal pattern the Adversary Word answers each letter with. A book
+ * section keeps its state keys sorted, followed by their 26 answers each,
+ * so a lookup is one binary search over the mapped file.
+ * <p>
+ * File layout (all numbers big-endian):
+ * <pre>
+ *  0  magic            8 bytes, 0x89 'H' 'B' 'O' 'O' 'K' '\r' '\n'
+ *  8  version          int
+ * 12  depth            int, the number of guesses the book covers
+ * 16  section count    int, equal to the longest word length covered
+ * 20  section table    per word length 1..section count:
+ *                        word count (int), state count (int),
+ *                        word fingerprint (long), file offset (long)
+ * ..  sections         state keys (long) in increasing order, then the
+ *                        answer (long) to each letter a-z of each state
+ * </pre>
+ * A section records the word count and an order-independent fingerprint
+ * of the words it was built for; a Dict ignores a section that does not
+ * match its words, such as one left over from an older word list.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class OpeningBook {
+
+	// Constants
+	/** Conventional file extension of opening books. */
+	static final String EXTENSION = "book";
+	static final int VERSION = 1;
+
+	private static final byte[] MAGIC = { (byte) 0x89, 'H', 'B', 'O', 'O', 'K',
+		'\r', '\n' };
+	private static final int HEADER_SIZE = 20;
+	private static final int ENTRY_SIZE = 24; // Section table entry size
+	private static final int ALPHABET = WordSignatures.ALPHABET;
+
+	// Instance Fields
+	private final int words;
+	private final long fingerprint;
+	private final LongBuffer keys;
+	private final LongBuffer answers; // ALPHABET per state
+	private volatile int verdict;     // 1 if the words match, -1 if not,
+	                                  // 0 if not yet checked
+
+	// Constructors
+	/**
+	 * Creates a book section over its state keys and answers.
+	 * @param words       The number of words it was built for.
+	 * @param fingerprint The fingerprint of those words.
+	 * @param keys        The sorted state keys.
+	 * @param answers     The answers of each state, by letter.
+	 */
+	private OpeningBook(int words, long fingerprint, LongBuffer keys,
+			LongBuffer answers) {
+		this.words = words;
+		this.fingerprint = fingerprint;
+		this.keys = keys;
+		this.answers = answers;
+		verdict = 0;
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the opening book file that goes with a dictionary file: the
+	 * dictionary file with its extension replaced by the book extension.
+	 * @param dictFile The dictionary file, text or compiled.
+	 * @return The book file.
+	 */
+	static File fileFor(File dictFile) {
+		String name = dictFile.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0)
+			name = name.substring(0, dot);
+		return new File(dictFile.getAbsoluteFile().getParentFile(),
+				name + "." + EXTENSION);
+	}
+
+	/**
+	 * Opens the opening book of a dictionary file, if it has one.
+	 * @param dictFile The dictionary file.
+	 * @return The book sections, index = word length - 1 and null for
+	 *         lengths the book does not cover, or null if there is no book.
+	 * @throws IOException if the book could not be read or is corrupt.
+	 */
+	static OpeningBook[] readFor(File dictFile) throws IOException {
+		File file = fileFor(dictFile);
+		return file.isFile() ? read(file) : null;
+	}
+
+	/**
+	 * Opens an opening book file, memory-mapping its sections.
+	 * @param file The book file.
+	 * @return The book sections, index = word length - 1 and null for
+	 *         lengths the book does not cover.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read or is not a valid
+	 *                     opening book.
+	 */
+	static OpeningBook[] read(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			long fileSize = channel.size();
+			ByteBuffer header = DictFormat.readFully(channel, 0, HEADER_SIZE,
+					fileSize);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC))
+				throw new IOException("Not an opening book: " + file);
+			int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported opening book version " +
+						version + " in " + file);
+			header.getInt(); // Depth
+			int count = header.getInt();
+			if (count < 0)
+				throw new IOException("Corrupt opening book header in " +
+						file);
+
+			ByteBuffer table = DictFormat.readFully(channel, HEADER_SIZE,
+					(long) count * ENTRY_SIZE, fileSize);
+			OpeningBook[] books = new OpeningBook[count];
+			for (int i = 0; i < count; i++) {
+				int words = table.getInt();
+				int states = table.getInt();
+				long fingerprint = table.getLong();
+				long offset = table.getLong();
+				long bytes = 8L * states * (1 + ALPHABET);
+				if (states < 0 || offset < 0 || bytes > Integer.MAX_VALUE ||
+						offset + bytes > fileSize)
+					throw new IOException("Corrupt section " + (i + 1) +
+							" in " + file);
+				if (states == 0)
+					continue;
+				LongBuffer section = DictFormat.map(channel, offset, bytes)
+						.asLongBuffer();
+				section.limit(states);
+				LongBuffer keys = section.slice();
+				section.limit(section.capacity()).position(states);
+				books[i] = new OpeningBook(words, fingerprint, keys,
+						section.slice());
+			}
+			return books; // Mappings stay valid after the channel closes
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Builds the opening book of a Dict and writes it out. Every length up
+	 * to the longest whose patterns fit a long is covered.
+	 * @param dict  The Dict.
+	 * @param depth The number of guesses to cover, at least 1.
+	 * @param file  The file to write to. It is replaced if it exists; Dicts
+	 *              already reading it keep the old book.
+	 * @throws IOException if the file could not be written.
+	 */
+	static void write(Dict dict, int depth, File file) throws IOException {
+		if (depth < 1)
+			throw new IllegalArgumentException("Depth " + depth +
+					" is less than 1");
+		int count = Math.min(dict.getMaxLength(),
+				WordSignatures.MAX_PATTERN_LENGTH);
+		long[][][] sections = new long[count][][];
+		for (int i = 0; i < count; i++) {
+			int length = i + 1;
+			sections[i] = dict.hasLength(length)
+					? build(dict.getBucket(length), depth)
+					: new long[][] { new long[0], new long[0] };
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE +
+				count * ENTRY_SIZE);
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(depth);
+		header.putInt(count);
+		long offset = header.capacity();
+		for (int i = 0; i < count; i++) {
+			int length = i + 1;
+			WordBucket bucket = dict.hasLength(length)
+					? dict.getBucket(length) : null;
+			int states = sections[i][0].length;
+			header.putInt((bucket != null) ? bucket.size() : 0);
+			header.putInt(states);
+			header.putLong((bucket != null) ? getFingerprint(bucket) : 0);
+			header.putLong(offset);
+			offset += 8L * states * (1 + ALPHABET);
+		}
+		header.flip();
+
+		File temp = DictFormat.createTemp(file);
+		try {
+			FileOutputStream out = new FileOutputStream(temp);
+			try {
+				FileChannel channel = out.getChannel();
+				while (header.hasRemaining()) {
+					channel.write(header);
+				}
+				for (long[][] section : sections) {
+					ByteBuffer data = ByteBuffer.allocate(8 *
+							(section[0].length + section[1].length));
+					data.asLongBuffer().put(section[0]).put(section[1]);
+					while (data.hasRemaining()) {
+						channel.write(data);
+					}
+				}
+				channel.force(true);
+			} finally {
+				out.close();
+			}
+			DictFormat.replace(temp, file);
+		} finally {
+			temp.delete(); // Only still there if writing failed
+		}
+	}
+
+	/**
+	 * Checks if the section was built for the words of a bucket, comparing
+	 * word counts and fingerprints. The fingerprint is only computed once.
+	 * @param bucket The bucket of the section's word length.
+	 * @return True if the section's answers hold for the bucket.
+	 */
+	boolean matches(WordBucket bucket) {
+		if (verdict == 0) // Racing threads compute the same verdict
+			verdict = (bucket.size() == words &&
+					getFingerprint(bucket) == fingerprint) ? 1 : -1;
+		return verdict > 0;
+	}
+
+	/**
+	 * Finds a game state in the book.
+	 * @param key The state's key (see TranspositionTable).
+	 * @return The state's index in the book, or -1 if the book does not
+	 *         hold it.
+	 */
+	int indexOf(long key) {
+		int low = 0;
+		int high = keys.limit() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long found = keys.get(middle);
+			if (found < key)
+				low = middle + 1;
+			else if (found > key)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the answer to a guess in a game state of the book.
+	 * @param index  The state's index in the book.
+	 * @param letter The guessed letter's index in the alphabet, not yet
+	 *               guessed in the state.
+	 * @return The reveal pattern an Adversary Word answers the guess with.
+	 */
+	long getAnswer(int index, int letter) {
+		return answers.get(index * ALPHABET + letter);
+	}
+
+	// Private methods
+	/**
+	 * Builds the section of a word length: the answers to every sequence
+	 * of guesses up to a depth, as an Adversary Word plays them.
+	 * @param bucket The bucket of the length's words.
+	 * @param depth  The number of guesses to cover.
+	 * @return The sorted state keys, and the answers of each state.
+	 */
+	private static long[][] build(WordBucket bucket, int depth) {
+		WordSignatures signatures = bucket.getSignatures();
+		int[] ids = new int[bucket.size()];
+		for (int id = 0; id < ids.length; id++) {
+			ids[id] = id;
+		}
+		Map<Long, long[]> states = new HashMap<Long, long[]>();
+		explore(signatures, ids, 0,
+				TranspositionTable.initialKey(bucket.getWordLength()), depth,
+				new PatternCounts(), states);
+		long[] keys = new long[states.size()];
+		int i = 0;
+		for (long key : states.keySet()) {
+			keys[i++] = key;
+		}
+		Arrays.sort(keys);
+		long[] answers = new long[keys.length * ALPHABET];
+		for (i = 0; i < keys.length; i++) {
+			System.arraycopy(states.get(keys[i]), 0, answers, i * ALPHABET,
+					ALPHABET);
+		}
+		return new long[][] { keys, answers };
+	}
+
+	/**
+	 * Adds a game state and those it leads to within a number of guesses
+	 * to a book section. States with a single possible word are left out,
+	 * as an Adversary Word answers them at once anyway.
+	 * @param signatures The signatures of the words.
+	 * @param ids        The ids of the state's possible words.
+	 * @param used       The mask of letters already guessed.
+	 * @param key        The state's key.
+	 * @param depth      The number of guesses still to cover.
+	 * @param realities  A Pattern Counts object to reuse.
+	 * @param states     The answers of each state added so far, by key.
+	 */
+	private static void explore(WordSignatures signatures, int[] ids,
+			int used, long key, int depth, PatternCounts realities,
+			Map<Long, long[]> states) {
+		// A state's depth follows from its used letters, so a state found
+		// again has been explored just as far
+		if (depth == 0 || ids.length <= 1 || states.containsKey(key))
+			return;
+		long[] answers = new long[ALPHABET]; // Used letters are left 0
+		states.put(key, answers);
+		for (int letter = 0; letter < ALPHABET; letter++) {
+			if ((used & (1 << letter)) != 0)
+				continue;
+			realities.clear();
+			for (int id : ids) {
+				realities.add(signatures.getPattern(id, letter));
+			}
+			long pattern = realities.getBestPattern();
+			answers[letter] = pattern;
+			int[] kept = new int[realities.getCount(
+					realities.indexOf(pattern))];
+			int count = 0;
+			for (int id : ids) {
+				if (signatures.getPattern(id, letter) == pattern)
+					kept[count++] = id;
+			}
+			explore(signatures, kept, used | (1 << letter),
+					key ^ TranspositionTable.guessKey(letter, pattern),
+					depth - 1, realities, states);
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of the words of a bucket that does not depend
+	 * on their order, so that a compacted Dict matches its book too.
+	 * @param bucket The bucket.
+	 * @return The sum of a 64-bit hash of each word.
+	 */
+	private static long getFingerprint(WordBucket bucket) {
+		byte[] word = new byte[bucket.getWordLength()];
+		long sum = 0;
+		for (int id = 0; id < bucket.size(); id++) {
+			bucket.copyWord(id, word);
+			long hash = word.length;
+			for (byte letter : word) {
+				hash = 31 * hash + letter;
+			}
+			// Spread the bits (MurmurHash3's finalizer) before summing
+			hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+			hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+			sum += hash ^ (hash >>> 33);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,183 @@
+package engine;
+
+/**
+ * A Pattern Counts object counts how many words fall into each reveal
+ * pattern of a guessed letter: the bitmask of the positions at which a word
+ * has the letter (0 if it does not have it at all).
+ * <p>
+ * Patterns are kept in a primitive open-addressing hash table (linear
+ * probing over a power of two sized array of long keys and int counts), so
+ * counting boxes nothing. The table is meant to be cleared and reused for
+ * every guess of a game: clearing only resets the slots in use, and the
+ * table allocates only when it must grow past the most patterns it has
+ * ever held.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class PatternCounts {
+
+	// Constants
+	private static final int INITIAL_CAPACITY = 64; // Power of two
+
+	// Instance Fields
+	private long[] patterns;
+	private int[] counts;  // 0 for an empty slot
+	private int[] order;   // Slots in use, in insertion order
+	private int[] indices; // Per slot in use, its index in order
+	private int size;
+
+	// Constructors
+	/**
+	 * Creates a new, empty Pattern Counts object.
+	 */
+	PatternCounts() {
+		patterns = new long[INITIAL_CAPACITY];
+		counts = new int[INITIAL_CAPACITY];
+		order = new int[INITIAL_CAPACITY / 2];
+		indices = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	// Package-private Methods
+	/**
+	 * Removes every pattern.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			counts[order[i]] = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Counts one more word with a pattern.
+	 * @param pattern The pattern.
+	 */
+	void add(long pattern) {
+		int slot = find(pattern);
+		if (counts[slot] == 0) {
+			if (2 * (size + 1) > patterns.length) {
+				grow();
+				slot = find(pattern);
+			}
+			patterns[slot] = pattern;
+			indices[slot] = size;
+			order[size++] = slot;
+		}
+		counts[slot]++;
+	}
+
+	/**
+	 * Gets the number of different patterns counted.
+	 * @return The pattern count.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the index of a pattern counted.
+	 * @param pattern The pattern.
+	 * @return Its index, as for getPattern(int), or -1 if no word has
+	 *         been counted with it.
+	 */
+	int indexOf(long pattern) {
+		int slot = find(pattern);
+		return (counts[slot] == 0) ? -1 : indices[slot];
+	}
+
+	/**
+	 * Gets a pattern counted, in the order patterns were first added.
+	 * @param i The index of the pattern, from 0 to size() - 1.
+	 * @return The pattern.
+	 */
+	long getPattern(int i) {
+		return patterns[order[i]];
+	}
+
+	/**
+	 * Gets the number of words counted with a pattern.
+	 * @param i The index of the pattern, from 0 to size() - 1.
+	 * @return The word count.
+	 */
+	int getCount(int i) {
+		return counts[order[i]];
+	}
+
+	/**
+	 * Finds the pattern an Adversary Word keeps: the best of those counted,
+	 * by isBetter().
+	 * @return The best pattern; 0 if none has been counted.
+	 */
+	long getBestPattern() {
+		if (size == 0)
+			return 0;
+		int bestCount = getCount(0);
+		long bestPattern = getPattern(0);
+		for (int i = 1; i < size; i++) {
+			if (isBetter(getCount(i), getPattern(i), bestCount, bestPattern)) {
+				bestCount = getCount(i);
+				bestPattern = getPattern(i);
+			}
+		}
+		return bestPattern;
+	}
+
+	/**
+	 * Checks if one reality is better for an adversary than another: if it
+	 * keeps more words, or as many words but reveals fewer positions, or
+	 * reveals as many positions but earlier ones. Not revealing the letter
+	 * at all (pattern 0) thus wins every tie.
+	 * @param count       The word count of the reality.
+	 * @param pattern     The pattern of the reality.
+	 * @param bestCount   The word count of the best reality so far.
+	 * @param bestPattern The pattern of the best reality so far.
+	 * @return True if the reality is better than the best so far.
+	 */
+	static boolean isBetter(int count, long pattern, int bestCount,
+			long bestPattern) {
+		if (count != bestCount)
+			return count > bestCount;
+		int revealed = Long.bitCount(pattern);
+		int bestRevealed = Long.bitCount(bestPattern);
+		if (revealed != bestRevealed)
+			return revealed < bestRevealed;
+		// The lowest differing bit, i.e. the earliest position, decides
+		long lowest = Long.lowestOneBit(pattern ^ bestPattern);
+		return (pattern & lowest) != 0;
+	}
+
+	// Private methods
+	/**
+	 * Finds the slot of a pattern, or the empty slot where it would go.
+	 */
+	private int find(long pattern) {
+		int mask = patterns.length - 1;
+		int slot = Long.hashCode(pattern * 0x9E3779B97F4A7C15L) & mask;
+		while (counts[slot] != 0 && patterns[slot] != pattern)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Doubles the table, reinserting the patterns in use.
+	 */
+	private void grow() {
+		long[] oldPatterns = patterns;
+		int[] oldCounts = counts;
+		int[] oldOrder = order;
+		patterns = new long[2 * oldPatterns.length];
+		counts = new int[patterns.length];
+		order = new int[patterns.length / 2];
+		indices = new int[patterns.length];
+		for (int i = 0; i < size; i++) {
+			int slot = find(oldPatterns[oldOrder[i]]);
+			patterns[slot] = oldPatterns[oldOrder[i]];
+			counts[slot] = oldCounts[oldOrder[i]];
+			indices[slot] = i;
+			order[i] = slot;
+		}
+	}
+}
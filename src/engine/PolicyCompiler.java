@@ -0,0 +1,96 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Policy Compiler is a small command-line tool that solves the
+ * adversary of a dictionary file exactly (see AdversarySolver), for every
+ * word length with few enough words, and saves the solved policies as a
+ * policy table next to the dictionary file. The SOLVED Mode then plays
+ * them.
+ * <p>
+ * Usage: <code>java engine.PolicyCompiler words.dict [lives [max words]]</code>
+ * <p>
+ * The table is written under the dictionary file's name with the extension
+ * replaced by ".policy". It serves games with up to the given number of
+ * lives, 7 by default as in the game's settings. Word lengths with more
+ * than the given number of words, 500 by default, are not solved, as
+ * solving takes time exponential in the worst case.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+public class PolicyCompiler {
+
+	// Constants
+	private static final int DEFAULT_LIVES = 7;
+	private static final int DEFAULT_MAX_WORDS = 500;
+
+	private PolicyCompiler() {} // Not instantiable
+
+	/**
+	 * Solves the adversary of a dictionary file.
+	 * @param args The dictionary file path, text or compiled, optionally
+	 *             followed by the lives and then the most words to solve.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 3) {
+			System.err.println("Usage: java engine.PolicyCompiler " +
+					"<dictionary file> [lives [max words]]");
+			System.exit(2);
+		}
+		File input = new File(args[0]);
+		File output = PolicyTable.fileFor(input);
+		int lives = DEFAULT_LIVES;
+		int maxWords = DEFAULT_MAX_WORDS;
+		try {
+			if (args.length > 1)
+				lives = Integer.parseInt(args[1]);
+			if (args.length > 2)
+				maxWords = Integer.parseInt(args[2]);
+			if (lives < 1 || maxWords < 1)
+				throw new NumberFormatException();
+		} catch (NumberFormatException e) {
+			System.err.println("Error: lives and max words must be " +
+					"positive integers");
+			System.exit(2);
+		}
+		try {
+			long start = System.nanoTime();
+			Dict dict = new Dict(input);
+			int count = Math.min(dict.getMaxLength(),
+					WordSignatures.MAX_PATTERN_LENGTH);
+			List<Map<Long, long[]>> policies =
+					new ArrayList<Map<Long, long[]>>();
+			for (int length = 1; length <= count; length++) {
+				Map<Long, long[]> policy = null;
+				if (dict.hasLength(length) &&
+						dict.getBucket(length).size() <= maxWords) {
+					AdversarySolver solver = new AdversarySolver(
+							dict.getBucket(length), lives);
+					int misses = solver.solve();
+					policy = solver.getPolicy();
+					String value = (misses >= lives) ? "player loses"
+							: (misses == 1) ? "1 wrong guess"
+							: misses + " wrong guesses";
+					System.out.println("Length " + length + ": " + value +
+							", " + policy.size() + " word lists.");
+				}
+				policies.add(policy);
+			}
+			PolicyTable.write(dict, lives, policies, output);
+			long millis = (System.nanoTime() - start) / 1000000;
+			System.out.println("Solved " + input + " for " + lives +
+					" lives to " + output + " (" + output.length() +
+					" bytes) in " + millis + " ms.");
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
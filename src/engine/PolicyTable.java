@@ -0,0 +1,338 @@
+package engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Policy Table holds a solved adversary policy (see AdversarySolver) for
+ * the words of one length of a Dict: the adversary's answer to each guess
+ * in each list of possible words its policy can lead to.
+ * <p>
+ * Policies are solved offline (see PolicyCompiler) and saved next to the
+ * dictionary file, and a Dict opened from that file memory-maps them, as
+ * it does its opening book. Word lists are keyed by a 64-bit hash of their
+ * ids in increasing order (see keyOf()); a section keeps its keys sorted,
+ * followed by their 26 answers each, so a lookup is one binary search over
+ * the mapped file.
+ * <p>
+ * File layout (all numbers big-endian):
+ * <pre>
+ *  0  magic            8 bytes, 0x89 'H' 'P' 'O' 'L' 'Y' '\r' '\n'
+ *  8  version          int
+ * 12  lives            int, the number of lives solved for
+ * 16  section count    int, equal to the longest word length solved
+ * 20  section table    per word length 1..section count:
+ *                        word count (int), word list count (int),
+ *                        word fingerprint (long), file offset (long)
+ * ..  sections         word list keys (long) in increasing order, then
+ *                        the answer (long) to each letter a-z of each list
+ * </pre>
+ * Keys depend on word ids, so a section records the word count and a
+ * fingerprint of the words in id order; a Dict ignores a section that does
+ * not match its words.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class PolicyTable {
+
+	// Constants
+	/** Conventional file extension of policy tables. */
+	static final String EXTENSION = "policy";
+	static final int VERSION = 1;
+
+	private static final byte[] MAGIC = { (byte) 0x89, 'H', 'P', 'O', 'L', 'Y',
+		'\r', '\n' };
+	private static final int HEADER_SIZE = 20;
+	private static final int ENTRY_SIZE = 24; // Section table entry size
+	private static final int ALPHABET = WordSignatures.ALPHABET;
+
+	// Instance Fields
+	private final int lives;
+	private final int words;
+	private final long fingerprint;
+	private final LongBuffer keys;
+	private final LongBuffer answers; // ALPHABET per word list
+	private volatile int verdict;     // 1 if the words match, -1 if not,
+	                                  // 0 if not yet checked
+
+	// Constructors
+	/**
+	 * Creates a table section over its keys and answers.
+	 * @param lives       The number of lives solved for.
+	 * @param words       The number of words it was solved for.
+	 * @param fingerprint The fingerprint of those words.
+	 * @param keys        The sorted word list keys.
+	 * @param answers     The answers of each word list, by letter.
+	 */
+	private PolicyTable(int lives, int words, long fingerprint,
+			LongBuffer keys, LongBuffer answers) {
+		this.lives = lives;
+		this.words = words;
+		this.fingerprint = fingerprint;
+		this.keys = keys;
+		this.answers = answers;
+		verdict = 0;
+	}
+
+	// Package-private Methods
+	/**
+	 * Computes the key of a list of word ids.
+	 * @param ids   The ids, in increasing order.
+	 * @param count The number of ids, from the start of the array.
+	 * @return A 64-bit hash of the ids.
+	 */
+	static long keyOf(int[] ids, int count) {
+		long hash = count;
+		for (int i = 0; i < count; i++) {
+			hash = (hash ^ ids[i]) * 0x9E3779B97F4A7C15L;
+			hash ^= hash >>> 29;
+		}
+		// MurmurHash3's finalizer, so that similar lists differ widely
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	/**
+	 * Gets the policy table file that goes with a dictionary file: the
+	 * dictionary file with its extension replaced by the table extension.
+	 * @param dictFile The dictionary file, text or compiled.
+	 * @return The table file.
+	 */
+	static File fileFor(File dictFile) {
+		String name = dictFile.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0)
+			name = name.substring(0, dot);
+		return new File(dictFile.getAbsoluteFile().getParentFile(),
+				name + "." + EXTENSION);
+	}
+
+	/**
+	 * Opens the policy table of a dictionary file, if it has one.
+	 * @param dictFile The dictionary file.
+	 * @return The table sections, index = word length - 1 and null for
+	 *         lengths not solved, or null if there is no table.
+	 * @throws IOException if the table could not be read or is corrupt.
+	 */
+	static PolicyTable[] readFor(File dictFile) throws IOException {
+		File file = fileFor(dictFile);
+		return file.isFile() ? read(file) : null;
+	}
+
+	/**
+	 * Opens a policy table file, memory-mapping its sections.
+	 * @param file The table file.
+	 * @return The table sections, index = word length - 1 and null for
+	 *         lengths not solved.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read or is not a valid
+	 *                     policy table.
+	 */
+	static PolicyTable[] read(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			long fileSize = channel.size();
+			ByteBuffer header = DictFormat.readFully(channel, 0, HEADER_SIZE,
+					fileSize);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC))
+				throw new IOException("Not a policy table: " + file);
+			int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported policy table version " +
+						version + " in " + file);
+			int lives = header.getInt();
+			int count = header.getInt();
+			if (lives < 1 || count < 0)
+				throw new IOException("Corrupt policy table header in " +
+						file);
+
+			ByteBuffer table = DictFormat.readFully(channel, HEADER_SIZE,
+					(long) count * ENTRY_SIZE, fileSize);
+			PolicyTable[] tables = new PolicyTable[count];
+			for (int i = 0; i < count; i++) {
+				int words = table.getInt();
+				int lists = table.getInt();
+				long fingerprint = table.getLong();
+				long offset = table.getLong();
+				long bytes = 8L * lists * (1 + ALPHABET);
+				if (lists < 0 || offset < 0 || bytes > Integer.MAX_VALUE ||
+						offset + bytes > fileSize)
+					throw new IOException("Corrupt section " + (i + 1) +
+							" in " + file);
+				if (lists == 0)
+					continue;
+				LongBuffer section = DictFormat.map(channel, offset, bytes)
+						.asLongBuffer();
+				section.limit(lists);
+				LongBuffer keys = section.slice();
+				section.limit(section.capacity()).position(lists);
+				tables[i] = new PolicyTable(lives, words, fingerprint, keys,
+						section.slice());
+			}
+			return tables; // Mappings stay valid after the channel closes
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes solved policies out as a policy table file.
+	 * @param dict     The Dict the policies were solved for.
+	 * @param lives    The number of lives they were solved for.
+	 * @param policies The policy of each word length, as given by
+	 *                 AdversarySolver.getPolicy(), index = word length - 1;
+	 *                 null for lengths not solved.
+	 * @param file     The file to write to. It is replaced if it exists;
+	 *                 Dicts already reading it keep the old table.
+	 * @throws IOException if the file could not be written.
+	 */
+	static void write(Dict dict, int lives, List<Map<Long, long[]>> policies,
+			File file) throws IOException {
+		int count = policies.size();
+		long[][] sortedKeys = new long[count][];
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE +
+				count * ENTRY_SIZE);
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(lives);
+		header.putInt(count);
+		long offset = header.capacity();
+		for (int i = 0; i < count; i++) {
+			sortedKeys[i] = new long[0];
+			if (policies.get(i) != null) {
+				sortedKeys[i] = new long[policies.get(i).size()];
+				int j = 0;
+				for (long key : policies.get(i).keySet()) {
+					sortedKeys[i][j++] = key;
+				}
+				Arrays.sort(sortedKeys[i]);
+			}
+			int length = i + 1;
+			WordBucket bucket = (policies.get(i) != null)
+					? dict.getBucket(length) : null;
+			header.putInt((bucket != null) ? bucket.size() : 0);
+			header.putInt(sortedKeys[i].length);
+			header.putLong((bucket != null) ? getFingerprint(bucket) : 0);
+			header.putLong(offset);
+			offset += 8L * sortedKeys[i].length * (1 + ALPHABET);
+		}
+		header.flip();
+
+		File temp = DictFormat.createTemp(file);
+		try {
+			FileOutputStream out = new FileOutputStream(temp);
+			try {
+				FileChannel channel = out.getChannel();
+				while (header.hasRemaining()) {
+					channel.write(header);
+				}
+				for (int i = 0; i < count; i++) {
+					long[] keys = sortedKeys[i];
+					ByteBuffer data = ByteBuffer.allocate(8 * keys.length *
+							(1 + ALPHABET));
+					LongBuffer longs = data.asLongBuffer();
+					longs.put(keys);
+					for (long key : keys) {
+						longs.put(policies.get(i).get(key));
+					}
+					while (data.hasRemaining()) {
+						channel.write(data);
+					}
+				}
+				channel.force(true);
+			} finally {
+				out.close();
+			}
+			DictFormat.replace(temp, file);
+		} finally {
+			temp.delete(); // Only still there if writing failed
+		}
+	}
+
+	/**
+	 * Gets the number of lives the policy was solved for. It serves games
+	 * with as many lives or fewer.
+	 * @return The lives.
+	 */
+	int getLives() {
+		return lives;
+	}
+
+	/**
+	 * Checks if the section was solved for the words of a bucket, comparing
+	 * word counts and fingerprints. The fingerprint is only computed once.
+	 * @param bucket The bucket of the section's word length.
+	 * @return True if the section's answers hold for the bucket.
+	 */
+	boolean matches(WordBucket bucket) {
+		if (verdict == 0) // Racing threads compute the same verdict
+			verdict = (bucket.size() == words &&
+					getFingerprint(bucket) == fingerprint) ? 1 : -1;
+		return verdict > 0;
+	}
+
+	/**
+	 * Finds a list of possible words in the table.
+	 * @param key The list's key (see keyOf()).
+	 * @return The list's index in the table, or -1 if the table does not
+	 *         hold it.
+	 */
+	int indexOf(long key) {
+		int low = 0;
+		int high = keys.limit() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long found = keys.get(middle);
+			if (found < key)
+				low = middle + 1;
+			else if (found > key)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the adversary's answer to a guess for a list of possible words.
+	 * @param index  The list's index in the table.
+	 * @param letter The guessed letter's index in the alphabet.
+	 * @return The reveal pattern of the answer.
+	 */
+	long getAnswer(int index, int letter) {
+		return answers.get(index * ALPHABET + letter);
+	}
+
+	// Private methods
+	/**
+	 * Computes a fingerprint of the words of a bucket, in id order.
+	 * @param bucket The bucket.
+	 * @return A 64-bit hash of the words' letters.
+	 */
+	private static long getFingerprint(WordBucket bucket) {
+		byte[] word = new byte[bucket.getWordLength()];
+		long hash = bucket.size();
+		for (int id = 0; id < bucket.size(); id++) {
+			bucket.copyWord(id, word);
+			for (byte letter : word) {
+				hash = 31 * hash + letter;
+			}
+		}
+		return hash;
+	}
+}
@@ -1,10 +1,13 @@
 package engine;
 
-import java.util.ArrayList;
+import java.util.random.RandomGenerator;
 
 /**
  * A Random Word object is a Word, meaning that it represents a hangman word. 
  * This word is randomly selected from its Dict.
+ * <p>
+ * The word is kept as an id into its Dict's packed storage, so letter
+ * queries are answered from the word's precomputed letter signature.
  * 
  * @author Vance Zuo
  * Created: May 12, 2013
@@ -13,7 +16,9 @@ import java.util.ArrayList;
 class RandomWord extends Word {
 	
 	// Instance Fields
-	private String word;
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private int id;
 	
 	// Constructors
 	/**
@@ -21,39 +26,59 @@ class RandomWord extends Word {
 	 * The RandomWord represents one word from the Dict.
 	 * @param dict       The Dict of possible words to choose from.
 	 * @param wordLength The desired word length.
+	 * @param rng        The random number generator to choose with.
 	 */
-	public RandomWord(Dict dict, int wordLength) {
+	public RandomWord(Dict dict, int wordLength, RandomGenerator rng) {
 		super(dict, wordLength);
-		word = dict.getRandom(wordLength);
+		bucket = dict.getBucket(wordLength);
+		signatures = bucket.getSignatures();
+		id = dict.getRandomId(wordLength, rng);
 	}
 	
 	// Public Methods
 	@Override
 	public boolean hasLetter(char letter) {
-		return word.indexOf(letter) != -1;
+		return signatures.hasLetter(id, WordSignatures.indexOf(letter));
 	}
 
 	@Override
 	public int[] getLetterPositions(char letter) {
 		letter = Character.toLowerCase(letter);
-		int first = word.indexOf(letter);
+		int length = bucket.getWordLength();
+		if (length <= WordSignatures.MAX_PATTERN_LENGTH)
+			return AdversaryWord.toPositions(signatures.getPattern(id,
+					WordSignatures.indexOf(letter)));
+		int first = signatures.getFirstPosition(id, 
+				WordSignatures.indexOf(letter));
 		if (first == -1) // Letter not in word
 			return null;
-		// ArrayList used initially as the number of occurances is not known
-		ArrayList<Integer> list = new ArrayList<Integer>();
-		for (int i = first; i >= 0; i = word.indexOf(letter, i + 1)) {
-		    list.add(i);
+		// Count the occurrences first, as their number is not known
+		int count = 1;
+		for (int i = first + 1; i < length; i++) {
+			if (bucket.getLetter(id, i) == letter)
+				count++;
 		}
-		// Convert ArrayList to array
-		int[] array = new int[list.size()];
-		for (int i = 0; i < array.length; i++) {
-			array[i] = list.get(i).intValue();
+		int[] array = new int[count];
+		array[0] = first;
+		for (int i = first + 1, n = 1; n < count; i++) {
+			if (bucket.getLetter(id, i) == letter)
+				array[n++] = i;
 		}
 		return array;
 	}
 	
 	@Override
 	public String toString() {
-		return word;
+		return bucket.getWord(id);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		return UNCHANGING; // The word is chosen once and for all
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		// Nothing to undo
 	}
 }
@@ -1,5 +1,7 @@
 package engine;
 
+import java.util.random.RandomGenerator;
+
 /**
  * A Scrabble Word object is a Word, meaning that it represents a hangman word. 
  * This word is chosen randomly, but weighted towards words with high
@@ -27,15 +29,16 @@ public class ScrabbleWord extends Word {
 	 * The ScrabbleWord represents one word from the Dict.
 	 * @param dict       The Dict of possible words to choose from.
 	 * @param wordLength The desired word length.
+	 * @param rng        The random number generator to sample with.
 	 */
-	public ScrabbleWord(Dict dict, int wordLength) {
+	public ScrabbleWord(Dict dict, int wordLength, RandomGenerator rng) {
 		super(dict, wordLength);
-		chosen = new RandomWord(dict, wordLength);
+		chosen = new RandomWord(dict, wordLength, rng);
 		// Technically there is a chance the same word(s) will be randomly
 		// chosen multiple times, but for large enough lists this should 
 		// not be a real worry.
 		for (int i = 1; i < SAMPLE_SIZE; i++) {
-			Word candidate = new RandomWord(dict, wordLength);
+			Word candidate = new RandomWord(dict, wordLength, rng);
 			if (getValue(candidate.toString()) > getValue(chosen.toString()))
 				chosen = candidate;
 		}
@@ -55,6 +58,16 @@ public class ScrabbleWord extends Word {
 	public String toString() {
 		return chosen.toString();
 	}
+
+	@Override
+	public Snapshot snapshot() {
+		return chosen.snapshot();
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		chosen.restore(snapshot);
+	}
 	
 	/**
 	 * Calculates the Scrabble(tm) value of a word, without special effects
@@ -0,0 +1,210 @@
+package engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A Solved Word object is a Word that, like an Adversary Word, keeps a list
+ * of possible words and answers each guess with a reality of the guessed
+ * letter, but plays the exact adversary policy solved for its Dict (see
+ * AdversarySolver): against it, no player can make fewer wrong guesses
+ * than the solved value of the game, whatever letters they guess.
+ * <p>
+ * Policies are read from the Dict's policy table, keyed by the possible
+ * words, so each guess costs one pass to find the key of the possible
+ * words and two to keep those of the answer in a new array; the old one is
+ * never written, so snapshots share it. Policies leave out small lists of
+ * possible words and lists far from the start of the game, which the
+ * Solved Word solves itself when it gets to one, with a solver its Dict
+ * shares between games so that each list is solved once. Solving takes
+ * time exponential in the worst case, so lists of more than
+ * MAX_SOLVE_WORDS words are answered greedily, as an Adversary Word would.
+ * A policy serves games with as many lives as it was solved for, or fewer.
+ * For word lengths without one, or games with more lives, the Solved Word
+ * plays as an Adversary Word.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class SolvedWord extends Word {
+
+	// Constants
+	private static final int MAX_SOLVE_WORDS = 64; // Words solved in a guess
+
+	// Instance Fields
+	private WordBucket bucket;
+	private WordSignatures signatures;
+	private PolicyTable policy;
+	private AdversarySolver solver; // Solves lists the policy leaves out,
+	                                // shared with the Dict's other games
+	private int[] possibleWords; // Word ids into bucket, in order
+	private int usedLetters;     // Mask of letters, bit 0 for 'a'
+	private char[] partialWord;  // Answers must be consistent with it
+	private Word backup;
+
+	// Constructors
+	/**
+	 * Creates a new Solved Word object using a given Dict and word length.
+	 * @param dict       The Dict of possible words to choose from.
+	 * @param wordLength The desired word length.
+	 * @param lives      The number of wrong guesses the player is allowed.
+	 * @param rng        The random number generator for the backup word
+	 *                   chooser, if one is needed.
+	 */
+	public SolvedWord(Dict dict, int wordLength, int lives,
+			RandomGenerator rng) {
+		super(dict, wordLength);
+		bucket = dict.getBucket(wordLength);
+		policy = dict.getPolicy(wordLength);
+		if (policy == null || policy.getLives() < lives) {
+			backup = new AdversaryWord(dict, wordLength, rng);
+			return;
+		}
+		solver = dict.getSolver(wordLength);
+		signatures = bucket.getSignatures();
+		possibleWords = bucket.getIds();
+		usedLetters = 0;
+		partialWord = new char[wordLength];
+		backup = null;
+	}
+
+	// Public Methods
+	@Override
+	public boolean hasLetter(char letter) {
+		if (backup != null)
+			return backup.hasLetter(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.getPatternOf(partialWord, letter) != 0;
+	}
+
+	@Override
+	public int[] getLetterPositions(char letter) {
+		if (backup != null)
+			return backup.getLetterPositions(letter);
+		if (!hasUsed(letter))
+			processLetter(letter); // Updates usedLetters and partialWord
+		return AdversaryWord.toPositions(
+				AdversaryWord.getPatternOf(partialWord, letter));
+	}
+
+	@Override
+	public String toString() {
+		if (backup != null)
+			return backup.toString();
+		// As an Adversary Word does, show the first possible word
+		return bucket.getWord(possibleWords[0]);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		if (backup != null)
+			return backup.snapshot();
+		return new State(this);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		if (backup != null) {
+			backup.restore(snapshot);
+			return;
+		}
+		State state = (State) snapshot;
+		possibleWords = state.possibleWords;
+		usedLetters = state.usedLetters;
+		partialWord = state.partialWord.clone();
+	}
+
+	@Override
+	public Word branch() {
+		SolvedWord branch = (SolvedWord) super.branch();
+		if (backup != null)
+			branch.backup = backup.branch();
+		return branch;
+	}
+
+	// Private methods
+	/**
+	 * Checks if a letter has been guessed/queried for yet.
+	 * @param letter The letter as a char.
+	 * @return True if the letter has been processed previously (queried),
+	 *         else false.
+	 */
+	private boolean hasUsed(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		return index >= 0 && (usedLetters & (1 << index)) != 0;
+	}
+
+	/**
+	 * Adds a letter to the used letters, answering it as the policy does.
+	 * @param letter The letter as a char.
+	 */
+	private void processLetter(char letter) {
+		int index = WordSignatures.indexOf(letter);
+		if (index < 0)
+			return; // No word contains it; every word stays possible
+		usedLetters |= 1 << index;
+		long answer;
+		if (possibleWords.length == 1) {
+			answer = signatures.getPattern(possibleWords[0], index);
+		} else {
+			int entry = (possibleWords.length >=
+					AdversarySolver.MIN_POLICY_WORDS)
+					? policy.indexOf(PolicyTable.keyOf(possibleWords,
+							possibleWords.length)) : -1;
+			if (entry >= 0)
+				answer = policy.getAnswer(entry, index);
+			else if (possibleWords.length > MAX_SOLVE_WORDS)
+				answer = getGreedyAnswer(index);
+			else
+				answer = solver.getAnswer(possibleWords, index);
+		}
+
+		int count = 0;
+		for (int id : possibleWords) {
+			if (signatures.getPattern(id, index) == answer)
+				count++;
+		}
+		int[] kept = new int[count];
+		count = 0;
+		for (int id : possibleWords) {
+			if (signatures.getPattern(id, index) == answer)
+				kept[count++] = id;
+		}
+		possibleWords = kept;
+		for (long mask = answer; mask != 0; mask &= mask - 1) {
+			partialWord[Long.numberOfTrailingZeros(mask)] = letter;
+		}
+	}
+
+	/**
+	 * Finds the answer an Adversary Word would give to a guess: the largest
+	 * reality, revealing the least for ties.
+	 * @param index The guessed letter's index in the alphabet.
+	 * @return The reveal pattern of the answer.
+	 */
+	private long getGreedyAnswer(int index) {
+		PatternCounts realities = new PatternCounts();
+		for (int id : possibleWords) {
+			realities.add(signatures.getPattern(id, index));
+		}
+		return realities.getBestPattern();
+	}
+
+	// Private utility classes
+	/**
+	 * A State is a snapshot of a Solved Word. Its possible words are an
+	 * array of the Solved Word's, which are never written.
+	 */
+	private static class State implements Snapshot {
+		private final int[] possibleWords;
+		private final int usedLetters;
+		private final char[] partialWord;
+
+		State(SolvedWord word) {
+			possibleWords = word.possibleWords;
+			usedLetters = word.usedLetters;
+			partialWord = word.partialWord.clone();
+		}
+	}
+}
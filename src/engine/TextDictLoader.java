@@ -0,0 +1,590 @@
+package engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The Text Dict Loader builds the word buckets of a Dict from a text file of
+ * whitespace-separated words.
+ * <p>
+ * Text is tokenized and validated byte by byte, without creating a String
+ * for any token, and words are appended straight into Word Bucket Builders.
+ * Files are memory-mapped and split into chunks on whitespace boundaries;
+ * the chunks are tokenized in parallel on the common ForkJoinPool and their
+ * buckets are concatenated in file order at the end. Gzip and zip files are
+ * decompressed as a stream instead, block by block, straight into the same
+ * builders; no temporary file or whole-file buffer is ever made, and every
+ * file in a zip archive is read in turn. The resulting Dict is
+ * exactly the one the old Scanner based parser produced for UTF-8 text,
+ * word order and duplicates included: tokens are split on any character
+ * for which Character.isWhitespace holds, are lowercased, and are kept only
+ * if they consist of ASCII letters alone.
+ * <p>
+ * The same files may also be frequency lists of "word&lt;TAB&gt;count"
+ * lines: a token of ASCII digits that follows a word after one or more tabs
+ * (and nothing else) is taken as that word's weight rather than ignored.
+ * A count of 0 is taken as 1, so that every word can still be drawn. Files
+ * with no counts give unweighted buckets, exactly as before.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class TextDictLoader {
+
+	// Constants
+	private static final int CHUNK_SIZE = 4 << 20; // Bytes per parallel chunk
+	private static final int BLOCK_SIZE = 64 << 10; // Bytes read at a time
+	private static final int KELVIN_SIGN = 0x212A; // Lowercases to 'k'
+	private static final int GZIP_MAGIC = 0x1F8B;       // First two bytes
+	private static final int ZIP_MAGIC = 0x504B0304;    // First four bytes
+
+	private TextDictLoader() {} // Not instantiable
+
+	// Package-private Methods
+	/**
+	 * Loads the words of a text file, tokenizing it in parallel, or of a 
+	 * gzip or zip compressed text file, decompressing it as a stream.
+	 * @param file     The text file.
+	 * @param progress The progress to report to.
+	 * @return The word buckets, index = word length - 1.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if the file could not be read.
+	 * @throws CancellationException if the load was cancelled.
+	 */
+	static WordBucket[] load(File file, LoadProgress progress)
+			throws IOException {
+		int magic = readMagic(file);
+		if ((magic >>> 16) == GZIP_MAGIC || magic == ZIP_MAGIC)
+			return loadCompressed(file, magic == ZIP_MAGIC, progress);
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			progress.setTotalBytes(channel.size());
+			long[] bounds = split(channel, channel.size());
+			ChunkTask task = new ChunkTask(channel, bounds, 0,
+					bounds.length - 1, progress);
+			Buckets words = ForkJoinPool.commonPool().invoke(task);
+			return words.build();
+		} catch (UncheckedIOException e) {
+			// Tasks wrap I/O errors, as compute() cannot throw them, and
+			// joining a task may wrap its exception again
+			for (Throwable cause = e; cause != null;
+					cause = cause.getCause()) {
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+			}
+			throw e;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Loads the words of a text stream, reading it block by block. The
+	 * stream is closed afterwards.
+	 * @param in       The text stream.
+	 * @param progress The progress to report to.
+	 * @return The word buckets, index = word length - 1.
+	 * @throws IOException if the stream could not be read.
+	 * @throws CancellationException if the load was cancelled.
+	 */
+	static WordBucket[] load(InputStream in, LoadProgress progress)
+			throws IOException {
+		CountingInputStream source = new CountingInputStream(in);
+		try {
+			Tokenizer tokenizer = new Tokenizer();
+			tokenize(tokenizer, source, source, progress);
+			return finish(tokenizer, progress);
+		} finally {
+			source.close();
+		}
+	}
+
+	// Private methods
+	/**
+	 * Loads the words of a gzip or zip compressed text file.
+	 * @param file     The compressed file.
+	 * @param zip      True if the file is a zip archive, false if gzip.
+	 * @param progress The progress to report to, counting compressed bytes.
+	 * @return The word buckets, index = word length - 1.
+	 * @throws IOException if the file could not be read or decompressed.
+	 */
+	private static WordBucket[] loadCompressed(File file, boolean zip,
+			LoadProgress progress) throws IOException {
+		CountingInputStream source = new CountingInputStream(
+				new FileInputStream(file));
+		try {
+			progress.setTotalBytes(file.length());
+			Tokenizer tokenizer = new Tokenizer();
+			if (zip) {
+				ZipInputStream in = new ZipInputStream(source);
+				ZipEntry entry;
+				while ((entry = in.getNextEntry()) != null) {
+					if (entry.isDirectory())
+						continue;
+					tokenize(tokenizer, in, source, progress);
+					tokenizer.endInput(); // No token spans two files
+				}
+			} else {
+				tokenize(tokenizer, new GZIPInputStream(source, BLOCK_SIZE),
+						source, progress);
+			}
+			return finish(tokenizer, progress);
+		} finally {
+			source.close();
+		}
+	}
+
+	/**
+	 * Feeds all of a stream to a tokenizer, block by block.
+	 * @param tokenizer The tokenizer.
+	 * @param in        The (possibly decompressed) text stream.
+	 * @param source    The stream of raw file bytes underneath, whose count
+	 *                  is reported as progress.
+	 * @param progress  The progress to report to.
+	 * @throws IOException if the stream could not be read.
+	 */
+	private static void tokenize(Tokenizer tokenizer, InputStream in,
+			CountingInputStream source, LoadProgress progress)
+			throws IOException {
+		byte[] block = new byte[BLOCK_SIZE];
+		int read;
+		while ((read = in.read(block)) >= 0) {
+			tokenizer.feed(block, read);
+			progress.add(source.takeCount(), tokenizer.takeWordCount());
+		}
+	}
+
+	/**
+	 * Finishes tokenizing and builds the word buckets.
+	 * @param tokenizer The tokenizer.
+	 * @param progress  The progress to report to.
+	 * @return The word buckets, index = word length - 1.
+	 */
+	private static WordBucket[] finish(Tokenizer tokenizer,
+			LoadProgress progress) {
+		Buckets words = tokenizer.finish();
+		progress.add(0, tokenizer.takeWordCount());
+		return words.build();
+	}
+
+	/**
+	 * Reads the first four bytes of a file, to tell its format.
+	 * @param file The file.
+	 * @return The bytes as a big-endian int, padded with zeros if the
+	 *         file is shorter.
+	 * @throws IOException if the file could not be read.
+	 */
+	private static int readMagic(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			int magic = 0;
+			for (int i = 0; i < 4; i++) {
+				int b = in.read();
+				magic = (magic << 8) | Math.max(b, 0);
+			}
+			return magic;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Splits a file into roughly chunk-sized regions, moving each boundary
+	 * forward to the next ASCII whitespace byte so no token is cut in two.
+	 * Tabs are skipped, so that no word is cut off from its count.
+	 * ASCII bytes never occur inside UTF-8 multibyte sequences, so this is
+	 * also safe for non-ASCII text.
+	 * @param channel The file's channel.
+	 * @param size    The file's size.
+	 * @return The chunk boundaries, starting with 0 and ending with size.
+	 * @throws IOException if the file could not be read.
+	 */
+	private static long[] split(FileChannel channel, long size)
+			throws IOException {
+		List<Long> bounds = new ArrayList<Long>();
+		bounds.add(0L);
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		long next = CHUNK_SIZE;
+		while (next < size) {
+			long boundary = size;
+			search:
+			for (long pos = next; pos < size; pos += block.limit()) {
+				block.clear();
+				channel.read(block, pos);
+				block.flip();
+				for (int i = 0; i < block.limit(); i++) {
+					int b = block.get(i) & 0xFF;
+					if (isAsciiWhitespace(b) && b != '\t') {
+						boundary = pos + i;
+						break search;
+					}
+				}
+			}
+			if (boundary >= size)
+				break;
+			bounds.add(boundary);
+			next = boundary + CHUNK_SIZE;
+		}
+		bounds.add(size);
+		long[] array = new long[bounds.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = bounds.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Checks if a byte is an ASCII character that Character.isWhitespace
+	 * accepts: tab, line feed, vertical tab, form feed, carriage return,
+	 * the four information separators, or space.
+	 * @param b The byte, as an unsigned value.
+	 * @return True if the byte is ASCII whitespace, else false.
+	 */
+	private static boolean isAsciiWhitespace(int b) {
+		return (b >= 9 && b <= 13) || (b >= 28 && b <= 32);
+	}
+
+	// Private utility classes
+	/**
+	 * A Chunk Task tokenizes a run of consecutive chunks of a file, splitting
+	 * itself in two until only a single chunk is left.
+	 */
+	private static class ChunkTask extends RecursiveTask<Buckets> {
+		private final FileChannel channel;
+		private final long[] bounds;
+		private final int first; // Index of first chunk
+		private final int last;  // Index one past the last chunk
+		private final LoadProgress progress;
+
+		ChunkTask(FileChannel channel, long[] bounds, int first, int last,
+				LoadProgress progress) {
+			this.channel = channel;
+			this.bounds = bounds;
+			this.first = first;
+			this.last = last;
+			this.progress = progress;
+		}
+
+		@Override
+		protected Buckets compute() {
+			if (last - first > 1) {
+				int middle = (first + last) >>> 1;
+				ChunkTask left = new ChunkTask(channel, bounds, first, middle,
+						progress);
+				ChunkTask right = new ChunkTask(channel, bounds, middle, last,
+						progress);
+				right.fork();
+				Buckets words = left.compute();
+				words.append(right.join()); // Keeps file order
+				return words;
+			}
+			try {
+				return tokenize(bounds[first], bounds[last]);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Tokenizes one region of the file, mapping it in pieces of at most
+		 * one chunk so that very long regions still fit a mapping.
+		 */
+		private Buckets tokenize(long start, long end) throws IOException {
+			Tokenizer tokenizer = new Tokenizer();
+			byte[] block = new byte[BLOCK_SIZE];
+			for (long pos = start; pos < end; pos += CHUNK_SIZE) {
+				long size = Math.min(CHUNK_SIZE, end - pos);
+				ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+						pos, size);
+				while (region.hasRemaining()) {
+					int read = Math.min(block.length, region.remaining());
+					region.get(block, 0, read);
+					tokenizer.feed(block, read);
+					progress.add(read, tokenizer.takeWordCount());
+				}
+			}
+			Buckets words = tokenizer.finish();
+			progress.add(0, tokenizer.takeWordCount());
+			return words;
+		}
+	}
+
+	/**
+	 * A Tokenizer turns UTF-8 bytes into words, which it adds to its own
+	 * Buckets, along with the counts of words in a frequency list. Bytes may
+	 * be fed in any number of blocks; a token or multibyte character may
+	 * span blocks.
+	 */
+	private static class Tokenizer {
+		private final Buckets words = new Buckets();
+		private byte[] token = new byte[32];
+		private int tokenLength = 0;
+		private boolean inToken = false;
+		private boolean valid = true; // Whether token has only letters so far
+		private int codePoint = 0;    // Multibyte character being decoded
+		private int pending = 0;      // Continuation bytes still expected
+		private int minCodePoint = 0; // Smallest non-overlong value
+		private int wordCount = 0;    // Words accepted since last taken
+		private boolean countReady;   // Only tabs since the last word
+		private boolean inCount;      // Whether token is a word's count
+		private int count;            // Value of the count token so far
+
+		/**
+		 * Tokenizes a block of bytes.
+		 * @param block The bytes.
+		 * @param count The number of bytes at the start of block to use.
+		 */
+		void feed(byte[] block, int count) {
+			for (int i = 0; i < count; i++) {
+				int b = block[i] & 0xFF;
+				if (pending > 0) {
+					if ((b & 0xC0) == 0x80) {
+						codePoint = (codePoint << 6) | (b & 0x3F);
+						if (--pending == 0)
+							acceptCodePoint();
+						continue;
+					}
+					pending = 0; // Malformed; b starts something new
+					markInvalid();
+				}
+				if (b < 0x80) {
+					if (b >= 'a' && b <= 'z') {
+						addLetter(b);
+					} else if (b >= 'A' && b <= 'Z') {
+						addLetter(b + ('a' - 'A'));
+					} else if (b >= '0' && b <= '9') {
+						addDigit(b - '0');
+					} else if (isAsciiWhitespace(b)) {
+						endToken();
+						if (b != '\t')
+							countReady = false;
+					} else {
+						markInvalid();
+					}
+				} else if (b >= 0xC2 && b <= 0xDF) {
+					startCodePoint(b & 0x1F, 1, 0x80);
+				} else if (b >= 0xE0 && b <= 0xEF) {
+					startCodePoint(b & 0x0F, 2, 0x800);
+				} else if (b >= 0xF0 && b <= 0xF4) {
+					startCodePoint(b & 0x07, 3, 0x10000);
+				} else {
+					markInvalid();
+				}
+			}
+		}
+
+		/**
+		 * Gets the number of words accepted since the last call, and resets
+		 * it to zero.
+		 * @return The word count.
+		 */
+		int takeWordCount() {
+			int count = wordCount;
+			wordCount = 0;
+			return count;
+		}
+
+		/**
+		 * Ends the current input, flushing any last token, so that further
+		 * bytes fed start a new token.
+		 */
+		void endInput() {
+			if (pending > 0) {
+				pending = 0;
+				markInvalid();
+			}
+			endToken();
+			countReady = false;
+		}
+
+		/**
+		 * Ends tokenizing, flushing any last token.
+		 * @return The words found.
+		 */
+		Buckets finish() {
+			endInput();
+			return words;
+		}
+
+		private void startCodePoint(int bits, int continuations, int min) {
+			codePoint = bits;
+			pending = continuations;
+			minCodePoint = min;
+		}
+
+		private void acceptCodePoint() {
+			if (codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT
+					|| (codePoint >= Character.MIN_SURROGATE &&
+						codePoint <= Character.MAX_SURROGATE)) {
+				markInvalid(); // Decodes to a replacement character
+			} else if (Character.isWhitespace(codePoint)) {
+				endToken();
+				countReady = false;
+			} else if (codePoint == KELVIN_SIGN) {
+				addLetter('k');
+			} else {
+				markInvalid();
+			}
+		}
+
+		private void addLetter(int letter) {
+			if (inCount)
+				markInvalid();
+			inToken = true;
+			if (!valid)
+				return;
+			if (tokenLength == token.length)
+				token = Arrays.copyOf(token, 2 * token.length);
+			token[tokenLength++] = (byte) letter;
+		}
+
+		private void addDigit(int digit) {
+			if (!inToken && countReady) {
+				inCount = true;
+				count = 0;
+			} else if (!inCount) {
+				markInvalid();
+				return;
+			}
+			inToken = true;
+			count = (count > (Integer.MAX_VALUE - digit) / 10)
+					? Integer.MAX_VALUE : 10 * count + digit;
+		}
+
+		private void markInvalid() {
+			inToken = true;
+			valid = false;
+			inCount = false;
+		}
+
+		private void endToken() {
+			if (inToken) {
+				countReady = false;
+				if (inCount) {
+					words.setLastWeight(Math.max(count, 1));
+				} else if (valid) {
+					words.add(token, tokenLength);
+					wordCount++;
+					countReady = true;
+				}
+			}
+			inToken = false;
+			inCount = false;
+			valid = true;
+			tokenLength = 0;
+		}
+	}
+
+	/**
+	 * A Counting Input Stream counts the bytes read through it.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+		private long count = 0; // Bytes read since last taken
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		/**
+		 * Gets the number of bytes read since the last call, and resets
+		 * it to zero.
+		 * @return The byte count.
+		 */
+		long takeCount() {
+			long taken = count;
+			count = 0;
+			return taken;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0)
+				count += read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	/**
+	 * A Buckets object is a growable set of Word Bucket Builders, one per
+	 * word length.
+	 */
+	private static class Buckets {
+		// NOTE: index = word length - 1
+		private final List<WordBucket.Builder> builders =
+				new ArrayList<WordBucket.Builder>();
+		private WordBucket.Builder last; // Builder of the word added last
+
+		void add(byte[] word, int length) {
+			last = getBuilder(length);
+			last.add(word);
+		}
+
+		/**
+		 * Sets the weight of the word added last.
+		 * @param weight The weight, at least 1.
+		 */
+		void setLastWeight(int weight) {
+			last.setLastWeight(weight);
+		}
+
+		/**
+		 * Appends all words of another Buckets object after this one's.
+		 * @param other The other Buckets object.
+		 */
+		void append(Buckets other) {
+			for (WordBucket.Builder builder : other.builders) {
+				if (builder.size() > 0)
+					getBuilder(builder.getWordLength()).append(builder);
+			}
+		}
+
+		WordBucket[] build() {
+			WordBucket[] buckets = new WordBucket[builders.size()];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = builders.get(i).build();
+			}
+			return buckets;
+		}
+
+		private WordBucket.Builder getBuilder(int length) {
+			while (length > builders.size()) {
+				builders.add(new WordBucket.Builder(builders.size() + 1));
+			}
+			return builders.get(length - 1);
+		}
+	}
+}
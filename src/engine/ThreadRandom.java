@@ -0,0 +1,41 @@
+package engine;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The Thread Random class gives each thread its own random number generator,
+ * for use wherever a caller does not supply one. 
+ * <p>
+ * Each thread's generator is a SplittableRandom split off a shared root, 
+ * so threads never contend on a common seed (as they would on a shared
+ * java.util.Random) and their streams are statistically independent.
+ * 
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class ThreadRandom {
+
+	private static final SplittableRandom ROOT = new SplittableRandom();
+	private static final ThreadLocal<SplittableRandom> RANDOMS =
+			new ThreadLocal<SplittableRandom>() {
+				@Override
+				protected SplittableRandom initialValue() {
+					synchronized (ROOT) { // split() is not thread-safe
+						return ROOT.split();
+					}
+				}
+			};
+
+	private ThreadRandom() {} // Not instantiable
+
+	/**
+	 * Gets the calling thread's random number generator. It must not be
+	 * handed to other threads.
+	 * @return The generator.
+	 */
+	static RandomGenerator current() {
+		return RANDOMS.get();
+	}
+}
@@ -0,0 +1,193 @@
+package engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Transposition Table remembers the results of adversary searches by game
+ * state, so that a state reached by different orders of guesses (say, 'e'
+ * then 'a' and 'a' then 'e', both missing) is searched only once.
+ * <p>
+ * The possible words of a game are exactly the words of its length that
+ * agree with the revealed letters and contain no other guessed letter, so a
+ * state is fully described by the word length, the mask of guessed letters
+ * and the revealed letters. It is keyed by a 64-bit Zobrist hash of these:
+ * the XOR of a fixed random number per length, per guessed letter and per
+ * (position, letter) revealed, which is updated guess by guess in constant
+ * time (see guessKey()). Two states with the same key are taken to be the
+ * same, as chess programs do; the chance of two of the states of a game
+ * colliding is negligible.
+ * <p>
+ * The table has a fixed number of slots, paired into buckets. The first
+ * slot of a bucket keeps the deepest search stored in it, and the second
+ * whatever was stored last, so deep results (the costly ones) survive while
+ * shallow ones keep the table fresh. Entries are immutable and the slots
+ * atomic references, so any number of threads may share a table without
+ * locking: a race only ever loses a result, never corrupts one.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class TranspositionTable {
+
+	// Constants
+	private static final long SEED = 0x5DEECE66DL; // Keys are fixed for good
+	private static final long[] LENGTH_KEYS;
+	private static final long[] LETTER_KEYS;
+	private static final long[] REVEALED_KEYS; // Per position, per letter
+
+	static {
+		SplittableRandom random = new SplittableRandom(SEED);
+		LENGTH_KEYS = new long[WordSignatures.MAX_PATTERN_LENGTH + 1];
+		LETTER_KEYS = new long[WordSignatures.ALPHABET];
+		REVEALED_KEYS = new long[WordSignatures.MAX_PATTERN_LENGTH *
+		                         WordSignatures.ALPHABET];
+		for (int i = 0; i < LENGTH_KEYS.length; i++) {
+			LENGTH_KEYS[i] = random.nextLong();
+		}
+		for (int i = 0; i < LETTER_KEYS.length; i++) {
+			LETTER_KEYS[i] = random.nextLong();
+		}
+		for (int i = 0; i < REVEALED_KEYS.length; i++) {
+			REVEALED_KEYS[i] = random.nextLong();
+		}
+	}
+
+	// Instance Fields
+	private final AtomicReferenceArray<Entry> slots;
+
+	// Constructors
+	/**
+	 * Creates a new, empty Transposition Table.
+	 * @param capacity The number of entries it can hold, at least 2. It is
+	 *                 rounded down to a power of two.
+	 */
+	TranspositionTable(int capacity) {
+		if (capacity < 2)
+			throw new IllegalArgumentException("Capacity " + capacity +
+					" is too small");
+		slots = new AtomicReferenceArray<Entry>(
+				Integer.highestOneBit(capacity));
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the key of the state of a game before any guess.
+	 * @param length The word length, at most MAX_PATTERN_LENGTH.
+	 * @return The key.
+	 */
+	static long initialKey(int length) {
+		return LENGTH_KEYS[length];
+	}
+
+	/**
+	 * Gets what a guess changes in the key of a game state: the key after
+	 * the guess is the key before it XOR this.
+	 * @param letter  The guessed letter's index in the alphabet.
+	 * @param pattern The reveal pattern the guess was answered with.
+	 * @return The change in key.
+	 */
+	static long guessKey(int letter, long pattern) {
+		long key = LETTER_KEYS[letter];
+		for (long mask = pattern; mask != 0; mask &= mask - 1) {
+			int pos = Long.numberOfTrailingZeros(mask);
+			key ^= REVEALED_KEYS[pos * WordSignatures.ALPHABET + letter];
+		}
+		return key;
+	}
+
+	/**
+	 * Looks up the result stored for a state.
+	 * @param key The key of the state.
+	 * @return The entry of the deepest search stored for it, or null if
+	 *         there is none.
+	 */
+	Entry get(long key) {
+		int slot = slotOf(key);
+		Entry deep = slots.get(slot);
+		Entry recent = slots.get(slot + 1);
+		if (deep != null && deep.key == key)
+			return (recent != null && recent.key == key &&
+					recent.depth > deep.depth) ? recent : deep;
+		return (recent != null && recent.key == key) ? recent : null;
+	}
+
+	/**
+	 * Stores the result of a search of a state, in place of the shallowest
+	 * or oldest result of its bucket.
+	 * @param key     The key of the state.
+	 * @param depth   The number of guesses searched ahead.
+	 * @param lives   The guesser's lives left.
+	 * @param score   The number of wrong guesses the adversary can force.
+	 * @param pattern The reveal pattern of the adversary's best answer to
+	 *                the model guesser's next guess.
+	 */
+	void put(long key, int depth, int lives, int score, long pattern) {
+		Entry entry = new Entry(key, depth, lives, score, pattern);
+		int slot = slotOf(key);
+		Entry deep = slots.get(slot);
+		if (deep == null || depth >= deep.depth)
+			slots.set(slot, entry);
+		else
+			slots.set(slot + 1, entry);
+	}
+
+	// Private methods
+	/**
+	 * Finds the first slot of a key's bucket. Keys are random already, so
+	 * their high bits are used as is.
+	 */
+	private int slotOf(long key) {
+		return (int) (key >>> 32) & (slots.length() - 2);
+	}
+
+	// Package-private utility classes
+	/**
+	 * An Entry is the stored result of a search of one game state.
+	 */
+	static class Entry {
+		private final long key;
+		private final int depth;
+		private final int lives;
+		private final int score;
+		private final long pattern;
+
+		private Entry(long key, int depth, int lives, int score,
+				long pattern) {
+			this.key = key;
+			this.depth = depth;
+			this.lives = lives;
+			this.score = score;
+			this.pattern = pattern;
+		}
+
+		/**
+		 * Checks if the entry is the result of a search as deep and with as
+		 * many lives as a given one, so that it can stand in for it.
+		 * @param depth The number of guesses to search ahead.
+		 * @param lives The guesser's lives left.
+		 * @return True if the entry's score is that search's score.
+		 */
+		boolean answers(int depth, int lives) {
+			// Within depth guesses, any lives beyond depth are never used up
+			return this.depth == depth &&
+					Math.min(this.lives, depth) == Math.min(lives, depth);
+		}
+
+		/**
+		 * @return The number of wrong guesses the adversary can force.
+		 */
+		int getScore() {
+			return score;
+		}
+
+		/**
+		 * @return The reveal pattern of the adversary's best answer, worth
+		 *         searching first in any search of the state.
+		 */
+		long getPattern() {
+			return pattern;
+		}
+	}
+}
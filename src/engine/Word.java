@@ -8,12 +8,23 @@ package engine;
  * Note a Word does not have to represent a single "word" at any
  * moment in time, but its return values to queries should always be
  * consistent with previous return values. 
+ * <p>
+ * A Word's state can be saved as a snapshot and restored later, to undo
+ * guesses, and a Word can be branched into a new Word that goes on from the
+ * same state independently. Both take constant time: Words share whatever
+ * of their state is never written, such as their lists of possible words,
+ * instead of copying it. Only the word revealed so far, of a few letters,
+ * is copied.
  * 
  * @author Vance Zuo
  * Created: May 12, 2013
  *
  */
-abstract class Word {
+abstract class Word implements Cloneable {
+
+	// Constants
+	/** The snapshot of Words whose state never changes. */
+	static final Snapshot UNCHANGING = new Snapshot() {};
 	
 	// Constructors
 	/**
@@ -42,4 +53,51 @@ abstract class Word {
 	
 	@Override
 	public abstract String toString();
+
+	/**
+	 * Saves the Word's state: the guesses it has answered and how.
+	 * @return A snapshot of the state, for restore().
+	 */
+	public abstract Snapshot snapshot();
+
+	/**
+	 * Returns the Word to a saved state, undoing the guesses it answered
+	 * since. A snapshot can be restored any number of times, by the Word it
+	 * was taken of or any of its branches.
+	 * @param snapshot A snapshot from snapshot().
+	 */
+	public abstract void restore(Snapshot snapshot);
+
+	/**
+	 * Creates a branch of the Word: a new Word in the same state, which
+	 * answers guesses independently of it from then on, and can be used on
+	 * another thread. Subclasses that keep working buffers give the branch
+	 * its own.
+	 * @return The branch.
+	 */
+	public Word branch() {
+		Snapshot snapshot = snapshot();
+		Word branch;
+		try {
+			branch = (Word) clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e); // Word is Cloneable
+		}
+		branch.restore(snapshot); // Gives it its own copy of the state
+		return branch;
+	}
+
+	// Package-private Methods
+	/**
+	 * Tells the Word the player lost a life to a guess it did not answer
+	 * wrong, such as a letter guessed again. Words that look ahead no
+	 * further than the lives left keep count; others ignore it.
+	 */
+	void loseLife() {}
+
+	// Package-private utility classes
+	/**
+	 * A Snapshot is a saved state of a Word, of the class that took it.
+	 */
+	interface Snapshot {}
 }
@@ -0,0 +1,548 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Word Bucket holds all the words of a Dict that share one word length.
+ * <p>
+ * Rather than keeping each word as its own String, the bucket packs the
+ * letters of every word back to back in a single byte buffer, one byte per
+ * letter. The buffer is either a plain heap array or a memory-mapped region
+ * of a compiled dictionary file (see DictFormat). Since all words in a bucket
+ * have the same length, no offsets need to be stored: the word with id
+ * <i>i</i> simply starts at index <i>i * length</i>. A word is only turned
+ * into a String when it is asked for.
+ * <p>
+ * On a 64-bit JVM with compressed oops a 5 letter word stored as a String in
+ * an ArrayList costs roughly 56 bytes (a 24 byte String, a 24 byte backing
+ * array and a 4-8 byte list slot). In a Word Bucket it costs 5 bytes, so
+ * memory use drops by an order of magnitude for typical word lists.
+ * <p>
+ * For very large word lists a bucket can instead keep its words in a Word
+ * Graph, which also shares common prefixes and suffixes, at the cost of
+ * slower access to single letters (see toGraph()). Word ids then follow
+ * alphabetical order instead of the order the words were added in.
+ * <p>
+ * A bucket may also hold a frequency (weight) for each word, read from a
+ * "word&lt;TAB&gt;count" list. Random words are then drawn in proportion to
+ * their weights through an Alias Table, in constant time.
+ * <p>
+ * Finally, a bucket can be a view over the buckets of several Dicts, less
+ * some excluded words (see WordLayers), which holds no letters of its own.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordBucket {
+
+	// Class Fields
+	private static final AtomicInteger serials = new AtomicInteger();
+
+	// Instance Fields
+	private final int serial = serials.getAndIncrement(); // See getSerial()
+	private final ByteBuffer letters; // Packed letters, length * size of them
+	private final WordGraph graph;    // Or the words' graph, if letters null
+	private final WordLayers layers;  // Or the words' layers, if both null
+	private final int length;
+	private final int size;
+	private final IntBuffer weights;  // Per word frequency, null if uniform
+	private final List<String> view;
+	private volatile AliasTable sampler;        // Computed on first use
+	private volatile WordSignatures signatures; // Computed on first use
+	private volatile WordIndex index;           // Computed on first use
+	private volatile int[] ids;                 // Computed on first use
+
+	// Constructors
+	/**
+	 * Creates a new Word Bucket over a buffer of packed letters.
+	 * @param packed      The letters of every word, back to back, starting
+	 *                    at index 0. Only the first wordLength * count bytes
+	 *                    are used.
+	 * @param wordLength  The length of every word in the bucket.
+	 * @param count       The number of words in the bucket.
+	 * @param wordWeights The weight of every word by id, starting at index
+	 *                    0, or null if all words are equally likely.
+	 */
+	WordBucket(ByteBuffer packed, int wordLength, int count,
+			IntBuffer wordWeights) {
+		letters = packed;
+		graph = null;
+		layers = null;
+		length = wordLength;
+		size = count;
+		weights = wordWeights;
+		view = new WordListView();
+	}
+
+	/**
+	 * Creates a new Word Bucket over a Word Graph.
+	 * @param wordGraph   The graph of the bucket's words.
+	 * @param wordLength  The length of every word in the graph.
+	 * @param wordWeights The weight of every word by graph id, or null.
+	 */
+	WordBucket(WordGraph wordGraph, int wordLength, IntBuffer wordWeights) {
+		letters = null;
+		graph = wordGraph;
+		layers = null;
+		length = wordLength;
+		size = graph.size();
+		weights = wordWeights;
+		view = new WordListView();
+	}
+
+	/**
+	 * Creates a new Word Bucket over Word Layers. Its weights are those
+	 * the words have in their own layers.
+	 * @param wordLayers The layers of the bucket's words.
+	 * @param wordLength The length of every word in the layers.
+	 */
+	WordBucket(WordLayers wordLayers, int wordLength) {
+		letters = null;
+		graph = null;
+		layers = wordLayers;
+		length = wordLength;
+		size = layers.size();
+		weights = null;
+		view = new WordListView();
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the number of words in the bucket.
+	 * @return The word count.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the length shared by every word in the bucket.
+	 * @return The word length.
+	 */
+	int getWordLength() {
+		return length;
+	}
+
+	/**
+	 * Gets a letter of a word in the bucket.
+	 * @param id  The id of the word, from 0 to size() - 1.
+	 * @param pos The index of the letter in the word.
+	 * @return The lowercase letter at the given position.
+	 */
+	char getLetter(int id, int pos) {
+		if (graph != null)
+			return graph.getLetter(id, pos);
+		if (layers != null)
+			return layers.getLetter(id, pos);
+		return (char) letters.get(id * length + pos);
+	}
+
+	/**
+	 * Copies the letters of a word in the bucket into an array. This is
+	 * the fastest way to read a whole word, whatever the bucket's storage.
+	 * @param id   The id of the word, from 0 to size() - 1.
+	 * @param word The array to copy into, at least the word length long.
+	 */
+	void copyWord(int id, byte[] word) {
+		if (graph != null) {
+			graph.copyWord(id, word);
+			return;
+		}
+		if (layers != null) {
+			layers.copyWord(id, word);
+			return;
+		}
+		int offset = id * length;
+		for (int i = 0; i < length; i++) {
+			word[i] = letters.get(offset + i);
+		}
+	}
+
+	/**
+	 * Materializes a word of the bucket as a String.
+	 * @param id The id of the word, from 0 to size() - 1.
+	 * @return The word.
+	 */
+	String getWord(int id) {
+		if (id < 0 || id >= size)
+			throw new IndexOutOfBoundsException("No word with id " + id);
+		byte[] word = new byte[length];
+		copyWord(id, word);
+		return new String(word, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Checks if the bucket keeps its words in a Word Graph.
+	 * @return True if it does, false if it keeps them packed.
+	 */
+	boolean isGraph() {
+		return graph != null;
+	}
+
+	/**
+	 * Creates a bucket of the same words kept in a minimized Word Graph.
+	 * @return The new Word Bucket, or this one if it is already a graph.
+	 */
+	WordBucket toGraph() {
+		if (isGraph())
+			return this;
+		int[] order = WordGraph.sort(this);
+		IntBuffer sorted = null;
+		if (isWeighted()) { // Graph ids follow alphabetical order
+			int[] array = new int[size];
+			for (int i = 0; i < size; i++) {
+				array[i] = getWeight(order[i]);
+			}
+			sorted = IntBuffer.wrap(array);
+		}
+		return new WordBucket(new WordGraph(this, order), length, sorted);
+	}
+
+	/**
+	 * Checks if the bucket holds a weight for each word.
+	 * @return True if it does, false if all words are equally likely.
+	 */
+	boolean isWeighted() {
+		return (layers != null) ? layers.isWeighted() : weights != null;
+	}
+
+	/**
+	 * Gets the weight of a word in the bucket.
+	 * @param id The id of the word, from 0 to size() - 1.
+	 * @return The word's weight, or 1 if the bucket is not weighted.
+	 */
+	int getWeight(int id) {
+		if (layers != null)
+			return layers.getWeight(id);
+		return (weights == null) ? 1 : weights.get(id);
+	}
+
+	/**
+	 * Gets the sum of the weights of every word in the bucket.
+	 * @return The total weight, which is size() if the bucket is not
+	 *         weighted.
+	 */
+	long getTotalWeight() {
+		if (layers != null)
+			return layers.getTotalWeight();
+		if (weights == null)
+			return size;
+		long total = 0;
+		for (int id = 0; id < size; id++) {
+			total += weights.get(id);
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the id of a random word in the bucket, each word being as likely
+	 * as its weight. The Alias Table used for a weighted bucket is built
+	 * the first time it is needed.
+	 * @param rng The random number generator to draw from.
+	 * @return The id of the word.
+	 */
+	int getRandomId(RandomGenerator rng) {
+		if (layers != null)
+			return layers.getRandomId(rng);
+		if (weights == null)
+			return rng.nextInt(size);
+		AliasTable result = sampler;
+		if (result == null) {
+			synchronized (this) {
+				result = sampler;
+				if (result == null)
+					sampler = result = new AliasTable(weights, size);
+			}
+		}
+		return result.sample(rng);
+	}
+
+	/**
+	 * Estimates the memory taken by the bucket's words and weights, not
+	 * counting any signatures, index or alias table computed from them.
+	 * A view over layers counts only its own bookkeeping.
+	 * @return The size in bytes.
+	 */
+	long getMemoryUsage() {
+		if (layers != null)
+			return layers.getMemoryUsage();
+		long bytes = isGraph() ? graph.getMemoryUsage() : (long) size * length;
+		return (weights == null) ? bytes : bytes + 4L * size;
+	}
+
+	/**
+	 * Finds the words consistent with a partially revealed hangman word.
+	 * A packed bucket answers from its Word Index; a graph walks its paths
+	 * instead, so that no index as large as the packed words is built, and
+	 * a view over layers asks each of its layers in turn.
+	 * @param pattern  The pattern, as for WordIndex.match.
+	 * @param excluded A 26-bit mask of letters the words must not contain.
+	 * @return A new bitset of the matching word ids.
+	 * @see WordIndex#match(int[], int)
+	 */
+	long[] match(int[] pattern, int excluded) {
+		if (isGraph())
+			return graph.match(pattern, excluded);
+		if (layers != null)
+			return layers.match(pattern, excluded);
+		return getIndex().match(pattern, excluded);
+	}
+
+	/**
+	 * Gets a number that identifies the bucket among all buckets created by
+	 * the process, without keeping a reference to it.
+	 * @return The bucket's serial number.
+	 */
+	int getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Gets the letter signatures of the bucket's words. They are computed
+	 * the first time they are asked for, so that opening a compiled
+	 * dictionary stays cheap, and shared from then on.
+	 * @return The Word Signatures.
+	 */
+	WordSignatures getSignatures() {
+		WordSignatures result = signatures;
+		if (result == null) {
+			synchronized (this) {
+				result = signatures;
+				if (result == null)
+					signatures = result = new WordSignatures(this);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the positional inverted index of the bucket's words. Like the
+	 * signatures, it is computed the first time it is asked for.
+	 * @return The Word Index.
+	 */
+	WordIndex getIndex() {
+		WordIndex result = index;
+		if (result == null) {
+			synchronized (this) {
+				result = index;
+				if (result == null)
+					index = result = new WordIndex(this);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the ids of every word of the bucket, in order: the possible
+	 * words games start from. Like the signatures, they are computed the
+	 * first time they are asked for, and shared from then on, so the array
+	 * must never be written.
+	 * @return The ids, from 0 to size() - 1.
+	 */
+	int[] getIds() {
+		int[] result = ids;
+		if (result == null) {
+			synchronized (this) {
+				result = ids;
+				if (result == null) {
+					result = new int[size];
+					for (int id = 0; id < size; id++) {
+						result[id] = id;
+					}
+					ids = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the bucket's packed letters to a channel.
+	 * @param out The channel to write to.
+	 * @throws IOException if the channel could not be written to.
+	 */
+	void writeTo(WritableByteChannel out) throws IOException {
+		ByteBuffer data;
+		if (letters != null) {
+			data = letters.duplicate();
+			data.clear().limit(size * length);
+		} else {
+			byte[] packed = new byte[size * length];
+			byte[] word = new byte[length];
+			for (int id = 0; id < size; id++) {
+				copyWord(id, word);
+				System.arraycopy(word, 0, packed, id * length, length);
+			}
+			data = ByteBuffer.wrap(packed);
+		}
+		while (data.hasRemaining()) {
+			out.write(data);
+		}
+	}
+
+	/**
+	 * Writes the bucket's word weights to a channel, as big-endian ints. A
+	 * bucket that is not weighted writes a weight of 1 for every word.
+	 * @param out The channel to write to.
+	 * @throws IOException if the channel could not be written to.
+	 */
+	void writeWeightsTo(WritableByteChannel out) throws IOException {
+		ByteBuffer data = ByteBuffer.allocate(4 * size);
+		for (int id = 0; id < size; id++) {
+			data.putInt(getWeight(id));
+		}
+		data.flip();
+		while (data.hasRemaining()) {
+			out.write(data);
+		}
+	}
+
+	/**
+	 * Gets a read-only List view of the bucket's words. Words are
+	 * materialized as Strings only when the list is read.
+	 * @return The list view.
+	 */
+	List<String> asList() {
+		return view;
+	}
+
+	// Private utility classes
+	/**
+	 * The Word List View presents the bucket as an unmodifiable list of
+	 * Strings, without copying any of the packed letters.
+	 */
+	private class WordListView extends AbstractList<String>
+			implements RandomAccess {
+		@Override
+		public String get(int index) {
+			return getWord(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * A Word Bucket Builder accumulates words of one length, growing its
+	 * packed letter array as needed, and then creates a Word Bucket. Word
+	 * weights are only stored once some word is given one.
+	 */
+	static class Builder {
+		private static final int INITIAL_CAPACITY = 64; // In words
+
+		private byte[] letters;
+		private int[] weights; // Null while every word has weight 1
+		private final int length;
+		private int size;
+
+		/**
+		 * Creates a new, empty Word Bucket Builder.
+		 * @param wordLength The length of the words to be added.
+		 */
+		Builder(int wordLength) {
+			length = wordLength;
+			letters = new byte[INITIAL_CAPACITY * wordLength];
+			size = 0;
+		}
+
+		/**
+		 * Adds a word to the bucket being built.
+		 * @param word An array starting with the word's letters, which must
+		 *             all be lowercase. Only the first word length bytes
+		 *             are used.
+		 */
+		void add(byte[] word) {
+			ensureCapacity(size + 1);
+			System.arraycopy(word, 0, letters, size * length, length);
+			if (weights != null)
+				weights[size] = 1;
+			size++;
+		}
+
+		/**
+		 * Adds all the words of another builder of the same word length,
+		 * keeping their order.
+		 * @param other The other builder.
+		 */
+		void append(Builder other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.letters, 0, letters, size * length,
+					other.size * length);
+			if (other.weights != null) {
+				ensureWeights();
+				System.arraycopy(other.weights, 0, weights, size, other.size);
+			} else if (weights != null) {
+				Arrays.fill(weights, size, size + other.size, 1);
+			}
+			size += other.size;
+		}
+
+		/**
+		 * Sets the weight of the word added last.
+		 * @param weight The weight, at least 1.
+		 */
+		void setLastWeight(int weight) {
+			if (weight == 1 && weights == null)
+				return;
+			ensureWeights();
+			weights[size - 1] = weight;
+		}
+
+		/**
+		 * Gets the length of the words being added.
+		 * @return The word length.
+		 */
+		int getWordLength() {
+			return length;
+		}
+
+		/**
+		 * Gets the number of words added so far.
+		 * @return The word count.
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Creates a Word Bucket of the words added so far. The packed array
+		 * is trimmed so that no spare capacity is kept.
+		 * @return The new Word Bucket.
+		 */
+		WordBucket build() {
+			return new WordBucket(
+					ByteBuffer.wrap(Arrays.copyOf(letters, size * length)),
+					length, size, (weights == null) ? null
+							: IntBuffer.wrap(Arrays.copyOf(weights, size)));
+		}
+
+		private void ensureCapacity(int words) {
+			if (words * length <= letters.length)
+				return;
+			int capacity = Math.max(words, 2 * (letters.length / length));
+			letters = Arrays.copyOf(letters, capacity * length);
+			if (weights != null)
+				weights = Arrays.copyOf(weights, capacity);
+		}
+
+		private void ensureWeights() {
+			if (weights != null)
+				return;
+			weights = new int[letters.length / length];
+			Arrays.fill(weights, 1);
+		}
+	}
+}
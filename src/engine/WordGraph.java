@@ -0,0 +1,393 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Word Graph stores words of one length as a minimized acyclic word graph
+ * (a DAWG): a trie in which every set of identical subtrees is merged into
+ * one, so that shared suffixes are stored once just as shared prefixes are.
+ * For large word lists this takes a fraction of the memory of the packed
+ * letters of a Word Bucket.
+ * <p>
+ * Every node records how many words lie below it, so words can still be
+ * addressed by id: the id of a word is its rank in alphabetical order, and
+ * is found (or resolved) by walking down the graph, skipping the counts of
+ * the edges to the left. Repeated words are kept, as they are in a packed
+ * bucket, by giving the final node of a word its number of repeats.
+ * <p>
+ * The graph is frozen into flat arrays: for each node the index of its first
+ * outgoing edge and its word count, and for each edge its letter and target.
+ * Node 0 is the root.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordGraph {
+
+	// Instance Fields
+	private final int length;
+	private final int[] firstEdges; // Per node, plus one past the last node
+	private final int[] counts;     // Per node, words below it
+	private final byte[] letters;   // Per edge
+	private final int[] targets;    // Per edge
+
+	// Constructors
+	/**
+	 * Builds the minimized graph of a Word Bucket's words.
+	 * @param bucket The bucket.
+	 * @param ids    The bucket's word ids in alphabetical order of their
+	 *               words, as sort() returns them. Word i of the graph is
+	 *               the word with id ids[i] in the bucket.
+	 */
+	WordGraph(WordBucket bucket, int[] ids) {
+		length = bucket.getWordLength();
+		Builder builder = new Builder(length);
+		byte[] previous = new byte[length];
+		byte[] word = new byte[length];
+		for (int i = 0; i < ids.length; i++) {
+			bucket.copyWord(ids[i], word);
+			builder.add(word, (i == 0) ? 0 : commonPrefix(previous, word));
+			byte[] swap = previous;
+			previous = word;
+			word = swap;
+		}
+		Node root = builder.finish();
+		// Freeze the graph into arrays, numbering nodes breadth first
+		List<Node> nodes = new ArrayList<Node>();
+		Map<Node, Integer> numbers = new HashMap<Node, Integer>();
+		nodes.add(root);
+		numbers.put(root, 0);
+		int edges = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			edges += node.size;
+			for (int e = 0; e < node.size; e++) {
+				Node child = node.children[e];
+				if (!numbers.containsKey(child)) {
+					numbers.put(child, nodes.size());
+					nodes.add(child);
+				}
+			}
+		}
+		firstEdges = new int[nodes.size() + 1];
+		counts = new int[nodes.size()];
+		letters = new byte[edges];
+		targets = new int[edges];
+		int edge = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			firstEdges[i] = edge;
+			counts[i] = node.count;
+			for (int e = 0; e < node.size; e++) {
+				letters[edge] = node.letters[e];
+				targets[edge] = numbers.get(node.children[e]);
+				edge++;
+			}
+		}
+		firstEdges[nodes.size()] = edge;
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the number of words in the graph, counting repeats.
+	 * @return The word count.
+	 */
+	int size() {
+		return counts[0];
+	}
+
+	/**
+	 * Gets the number of nodes in the graph.
+	 * @return The node count.
+	 */
+	int getNodeCount() {
+		return counts.length;
+	}
+
+	/**
+	 * Gets the number of edges in the graph.
+	 * @return The edge count.
+	 */
+	int getEdgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * Estimates the memory taken by the graph's arrays.
+	 * @return The size in bytes, ignoring object headers.
+	 */
+	long getMemoryUsage() {
+		return 4L * firstEdges.length + 4L * counts.length + letters.length +
+				4L * targets.length;
+	}
+
+	/**
+	 * Copies the letters of a word into an array.
+	 * @param id   The id of the word, from 0 to size() - 1.
+	 * @param word The array to copy into, at least the word length long.
+	 */
+	void copyWord(int id, byte[] word) {
+		int node = 0;
+		for (int pos = 0; pos < length; pos++) {
+			int edge = firstEdges[node];
+			int count;
+			while (id >= (count = counts[targets[edge]])) {
+				id -= count;
+				edge++;
+			}
+			word[pos] = letters[edge];
+			node = targets[edge];
+		}
+	}
+
+	/**
+	 * Gets a letter of a word, walking only as deep as the letter.
+	 * @param id  The id of the word, from 0 to size() - 1.
+	 * @param pos The index of the letter in the word.
+	 * @return The lowercase letter at the given position.
+	 */
+	char getLetter(int id, int pos) {
+		int node = 0;
+		int edge = 0;
+		for (int depth = 0; depth <= pos; depth++) {
+			edge = firstEdges[node];
+			int count;
+			while (id >= (count = counts[targets[edge]])) {
+				id -= count;
+				edge++;
+			}
+			node = targets[edge];
+		}
+		return (char) letters[edge];
+	}
+
+	/**
+	 * Finds the words consistent with a partially revealed hangman word, as
+	 * WordIndex.match does, by walking only the paths of the graph that
+	 * agree with the pattern.
+	 * @param pattern  The pattern, one entry per position: a letter's index
+	 *                 in the alphabet, or -1 for an unknown position.
+	 * @param excluded A 26-bit mask of letters the words must not contain.
+	 * @return A new bitset of the matching word ids.
+	 */
+	long[] match(int[] pattern, int excluded) {
+		int revealed = 0;
+		for (int pos = 0; pos < length; pos++) {
+			if (pattern[pos] >= 0)
+				revealed |= 1 << pattern[pos];
+		}
+		long[] result = new long[WordIndex.getBitsetLength(size())];
+		if ((revealed & excluded) == 0) // Else no word can match
+			match(0, 0, 0, pattern, revealed | excluded, result);
+		return result;
+	}
+
+	/**
+	 * Sorts a bucket's word ids alphabetically by their words, with a least
+	 * significant digit radix sort over the letters. The sort is stable, so
+	 * repeats of a word keep their order.
+	 * @param bucket The bucket.
+	 * @return The ids in alphabetical order of their words.
+	 */
+	static int[] sort(WordBucket bucket) {
+		int size = bucket.size();
+		int[] ids = new int[size];
+		int[] sorted = new int[size];
+		for (int id = 0; id < size; id++) {
+			ids[id] = id;
+		}
+		int[] starts = new int[WordSignatures.ALPHABET + 1];
+		for (int pos = bucket.getWordLength() - 1; pos >= 0; pos--) {
+			Arrays.fill(starts, 0);
+			for (int id = 0; id < size; id++) {
+				starts[bucket.getLetter(id, pos) - 'a' + 1]++;
+			}
+			for (int i = 1; i < starts.length; i++) {
+				starts[i] += starts[i - 1];
+			}
+			for (int i = 0; i < size; i++) {
+				int id = ids[i];
+				sorted[starts[bucket.getLetter(id, pos) - 'a']++] = id;
+			}
+			int[] swap = ids;
+			ids = sorted;
+			sorted = swap;
+		}
+		return ids;
+	}
+
+	// Private methods
+	/**
+	 * Adds the words below a node that match a pattern to a bitset.
+	 * @param node     The node.
+	 * @param depth    The node's depth, i.e. the position of its edges.
+	 * @param base     The id of the first word below the node.
+	 * @param pattern  The pattern, as for match(int[], int).
+	 * @param rejected A mask of letters not allowed at unknown positions.
+	 * @param result   The bitset to add to.
+	 */
+	private void match(int node, int depth, int base, int[] pattern,
+			int rejected, long[] result) {
+		if (depth == length) {
+			for (int id = base; id < base + counts[node]; id++) {
+				result[id >>> 6] |= 1L << id;
+			}
+			return;
+		}
+		for (int edge = firstEdges[node]; edge < firstEdges[node + 1];
+				edge++) {
+			int target = targets[edge];
+			int letter = letters[edge] - 'a';
+			boolean matches = (pattern[depth] >= 0)
+					? letter == pattern[depth]
+					: (rejected & (1 << letter)) == 0;
+			if (matches)
+				match(target, depth + 1, base, pattern, rejected, result);
+			base += counts[target];
+		}
+	}
+
+	/**
+	 * Gets the length of the common prefix of two words.
+	 */
+	private static int commonPrefix(byte[] a, byte[] b) {
+		int i = 0;
+		while (i < a.length && a[i] == b[i])
+			i++;
+		return i;
+	}
+
+	// Private utility classes
+	/**
+	 * A Node is a node of the graph while it is being built. Once a node
+	 * can no longer change, it is compared with the nodes kept so far by
+	 * its count and its edges, which point to nodes that are already
+	 * unique, and replaced by an equal one if there is one.
+	 */
+	private static class Node {
+		private byte[] letters = new byte[2];
+		private Node[] children = new Node[2];
+		private int size;
+		private int count;
+
+		void add(byte letter, Node child) {
+			if (size == letters.length) {
+				letters = Arrays.copyOf(letters, 2 * size);
+				children = Arrays.copyOf(children, 2 * size);
+			}
+			letters[size] = letter;
+			children[size] = child;
+			size++;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Node))
+				return false;
+			Node other = (Node) o;
+			if (count != other.count || size != other.size)
+				return false;
+			for (int i = 0; i < size; i++) {
+				if (letters[i] != other.letters[i] ||
+						children[i] != other.children[i])
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = count;
+			for (int i = 0; i < size; i++) {
+				hash = 31 * hash + letters[i];
+				hash = 31 * hash + System.identityHashCode(children[i]);
+			}
+			return hash;
+		}
+	}
+
+	/**
+	 * A Builder builds a minimized graph from words added in alphabetical
+	 * order (Daciuk et al.'s incremental algorithm for sorted input). Only
+	 * the path of the last word added is still open to change; the rest of
+	 * the graph is already minimized.
+	 */
+	private static class Builder {
+		private final int length;
+		private final Node[] path; // Nodes of the last word, root first
+		private final Map<Node, Node> register = new HashMap<Node, Node>();
+		private boolean empty = true;
+
+		Builder(int wordLength) {
+			length = wordLength;
+			path = new Node[wordLength + 1];
+			path[0] = new Node();
+		}
+
+		/**
+		 * Adds a word, which must not come before the last word added.
+		 * @param word   The word's letters.
+		 * @param shared The length of its common prefix with the last word.
+		 */
+		void add(byte[] word, int shared) {
+			if (!empty && shared == length) {
+				path[length].count++; // A repeat of the last word
+				return;
+			}
+			if (!empty)
+				minimize(shared);
+			for (int pos = shared; pos < length; pos++) {
+				Node child = new Node();
+				path[pos].add(word[pos], child);
+				path[pos + 1] = child;
+			}
+			path[length].count = 1;
+			empty = false;
+		}
+
+		/**
+		 * Minimizes the rest of the graph after the last word.
+		 * @return The root.
+		 */
+		Node finish() {
+			if (!empty)
+				minimize(0);
+			return path[0];
+		}
+
+		/**
+		 * Replaces the nodes of the last word's path below a given depth by
+		 * equal registered nodes, or registers them, deepest first, and
+		 * sets their counts.
+		 * @param depth The depth of the deepest node that stays open.
+		 */
+		private void minimize(int depth) {
+			for (int d = length; d > depth; d--) {
+				Node node = path[d];
+				if (d < length) {
+					node.count = 0;
+					for (int i = 0; i < node.size; i++) {
+						node.count += node.children[i].count;
+					}
+				}
+				Node unique = register.get(node);
+				if (unique == null)
+					register.put(node, unique = node);
+				Node parent = path[d - 1];
+				parent.children[parent.size - 1] = unique;
+			}
+			if (depth == 0) {
+				Node root = path[0];
+				root.count = 0;
+				for (int i = 0; i < root.size; i++) {
+					root.count += root.children[i].count;
+				}
+			}
+		}
+	}
+}
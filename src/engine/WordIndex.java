@@ -0,0 +1,157 @@
+package engine;
+
+/**
+ * A Word Index is a positional inverted index over the words of a Word
+ * Bucket. For every (position, letter) pair it keeps a bitset of the ids of
+ * the words with that letter at that position, and for every letter a bitset
+ * of the words containing it anywhere.
+ * <p>
+ * Bitsets are plain long arrays, bit <i>i</i> of word <i>i / 64</i>
+ * standing for word id <i>i</i>, so queries reduce to AND / ANDNOT loops
+ * over a few longs per 64 words. The index costs 26 * (length + 1) bits per
+ * word, e.g. 20 bytes per word for 5 letter words.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordIndex {
+
+	// Constants
+	private static final int ALPHABET = WordSignatures.ALPHABET;
+
+	// Instance Fields
+	private final int length;
+	private final int size;
+	private final long[][] positionSets; // index = position * 26 + letter
+	private final long[][] letterSets;   // index = letter
+	private final long[] allWords;
+
+	// Constructors
+	/**
+	 * Builds the index of a Word Bucket.
+	 * @param bucket The bucket.
+	 */
+	WordIndex(WordBucket bucket) {
+		length = bucket.getWordLength();
+		size = bucket.size();
+		int longs = getBitsetLength(size);
+		positionSets = new long[length * ALPHABET][longs];
+		letterSets = new long[ALPHABET][longs];
+		WordSignatures signatures = bucket.getSignatures();
+		byte[] word = new byte[length];
+		for (int id = 0; id < size; id++) {
+			bucket.copyWord(id, word);
+			int slot = id >>> 6;
+			long bit = 1L << id;
+			for (int pos = 0; pos < length; pos++) {
+				int letter = word[pos] - 'a';
+				positionSets[pos * ALPHABET + letter][slot] |= bit;
+			}
+			int mask = signatures.getLetterMask(id);
+			while (mask != 0) {
+				letterSets[Integer.numberOfTrailingZeros(mask)][slot] |= bit;
+				mask &= mask - 1;
+			}
+		}
+		allWords = new long[longs];
+		for (int id = 0; id < size; id++) {
+			allWords[id >>> 6] |= 1L << id;
+		}
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the number of longs in a bitset over a given number of words.
+	 * @param words The number of words.
+	 * @return The bitset length.
+	 */
+	static int getBitsetLength(int words) {
+		return (words + 63) >>> 6;
+	}
+
+	/**
+	 * Gets the set of words with a given letter at a given position. The
+	 * returned array is shared and must not be modified.
+	 * @param pos    The position in the word.
+	 * @param letter The letter's index in the alphabet.
+	 * @return The bitset of word ids.
+	 */
+	long[] getPositionSet(int pos, int letter) {
+		return positionSets[pos * ALPHABET + letter];
+	}
+
+	/**
+	 * Gets the set of words containing a given letter anywhere. The returned
+	 * array is shared and must not be modified.
+	 * @param letter The letter's index in the alphabet.
+	 * @return The bitset of word ids.
+	 */
+	long[] getLetterSet(int letter) {
+		return letterSets[letter];
+	}
+
+	/**
+	 * Gets a new bitset containing every word of the bucket.
+	 * @return The bitset of word ids, which the caller may modify.
+	 */
+	long[] getAllWords() {
+		return allWords.clone();
+	}
+
+	/**
+	 * Finds the words consistent with a partially revealed hangman word.
+	 * As in a game of hangman, a revealed letter is taken to occur
+	 * <i>only</i> at the positions it is shown in, so the words returned have
+	 * each revealed letter exactly where the pattern has it, no revealed
+	 * letter anywhere else, and none of the excluded letters.
+	 * @param pattern  The pattern, one entry per position: a letter's index
+	 *                 in the alphabet, or -1 for an unknown position.
+	 * @param excluded A 26-bit mask of letters the words must not contain.
+	 * @return A new bitset of the matching word ids.
+	 */
+	long[] match(int[] pattern, int excluded) {
+		long[] result = getAllWords();
+		int revealed = 0;
+		for (int pos = 0; pos < length; pos++) {
+			if (pattern[pos] >= 0) {
+				and(result, getPositionSet(pos, pattern[pos]));
+				revealed |= 1 << pattern[pos];
+			}
+		}
+		for (int pos = 0; pos < length; pos++) {
+			if (pattern[pos] >= 0)
+				continue;
+			for (int mask = revealed; mask != 0; mask &= mask - 1) {
+				int letter = Integer.numberOfTrailingZeros(mask);
+				andNot(result, getPositionSet(pos, letter));
+			}
+		}
+		for (int mask = excluded; mask != 0; mask &= mask - 1) {
+			andNot(result, getLetterSet(Integer.numberOfTrailingZeros(mask)));
+		}
+		return result;
+	}
+
+	/**
+	 * Intersects a bitset with another, in place.
+	 * @param target The bitset to modify.
+	 * @param other  The bitset to intersect with.
+	 */
+	static void and(long[] target, long[] other) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] &= other[i];
+		}
+	}
+
+	/**
+	 * Removes the members of a bitset from another, in place.
+	 * @param target The bitset to modify.
+	 * @param other  The bitset whose members are removed.
+	 */
+	static void andNot(long[] target, long[] other) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] &= ~other[i];
+		}
+	}
+}
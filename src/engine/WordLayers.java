@@ -0,0 +1,262 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Word Layers object presents the words of one length from several Word
+ * Buckets (the layers) as if they were a single bucket, minus a set of
+ * excluded words, without copying any letters.
+ * <p>
+ * Word ids run through the layers in order: the first layer's words come
+ * first, then the second's, and so on, each layer keeping its own order,
+ * so the words are exactly those of the concatenated word lists. Excluded
+ * words are simply skipped. The only data the view keeps is, per layer, the
+ * id its words start at and the sorted ids of its excluded words, so that
+ * an id is resolved to a layer word with two binary searches.
+ * <p>
+ * Random words are drawn by choosing a layer in proportion to the weight
+ * of its words that are not excluded, and then a word from that layer as
+ * the layer itself would, drawing again if it is excluded. As excluded
+ * words are few, this takes expected constant time and allocates nothing.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordLayers {
+
+	// Instance Fields
+	private final WordBucket[] layers;
+	private final int[][] excluded;         // Per layer, sorted word ids
+	private final int[] starts;             // Per layer, plus the total
+	private final long[] cumulativeWeights; // Of layers <= index
+	private final boolean weighted;
+
+	// Constructors
+	/**
+	 * Creates a view of the words of several buckets of one word length.
+	 * @param buckets The layers, in order.
+	 * @param blocked The words to leave out, as buffers of their lowercase
+	 *                letters. It may be empty.
+	 */
+	WordLayers(WordBucket[] buckets, Set<ByteBuffer> blocked) {
+		layers = buckets;
+		excluded = new int[layers.length][];
+		starts = new int[layers.length + 1];
+		cumulativeWeights = new long[layers.length];
+		boolean anyWeighted = false;
+		long totalWeight = 0;
+		for (int i = 0; i < layers.length; i++) {
+			WordBucket layer = layers[i];
+			excluded[i] = findExcluded(layer, blocked);
+			starts[i + 1] = starts[i] + layer.size() - excluded[i].length;
+			long weight = layer.getTotalWeight();
+			for (int id : excluded[i]) {
+				weight -= layer.getWeight(id);
+			}
+			totalWeight += weight;
+			cumulativeWeights[i] = totalWeight;
+			anyWeighted |= layer.isWeighted();
+		}
+		weighted = anyWeighted;
+	}
+
+	// Package-private Methods
+	/**
+	 * Gets the number of words in the view.
+	 * @return The word count.
+	 */
+	int size() {
+		return starts[layers.length];
+	}
+
+	/**
+	 * Estimates the memory taken by the view itself, not by its layers.
+	 * @return The size in bytes, ignoring object headers.
+	 */
+	long getMemoryUsage() {
+		long bytes = 4L * starts.length + 8L * cumulativeWeights.length;
+		for (int[] ids : excluded) {
+			bytes += 4L * ids.length;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Gets a letter of a word.
+	 * @param id  The id of the word, from 0 to size() - 1.
+	 * @param pos The index of the letter in the word.
+	 * @return The lowercase letter at the given position.
+	 */
+	char getLetter(int id, int pos) {
+		int layer = layerOf(id);
+		return layers[layer].getLetter(toLayerId(layer, id), pos);
+	}
+
+	/**
+	 * Copies the letters of a word into an array.
+	 * @param id   The id of the word, from 0 to size() - 1.
+	 * @param word The array to copy into, at least the word length long.
+	 */
+	void copyWord(int id, byte[] word) {
+		int layer = layerOf(id);
+		layers[layer].copyWord(toLayerId(layer, id), word);
+	}
+
+	/**
+	 * Checks if any of the layers holds word weights.
+	 * @return True if one does, false if all words are equally likely.
+	 */
+	boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * Gets the weight of a word.
+	 * @param id The id of the word, from 0 to size() - 1.
+	 * @return The word's weight in its layer.
+	 */
+	int getWeight(int id) {
+		int layer = layerOf(id);
+		return layers[layer].getWeight(toLayerId(layer, id));
+	}
+
+	/**
+	 * Gets the sum of the weights of every word in the view.
+	 * @return The total weight.
+	 */
+	long getTotalWeight() {
+		return cumulativeWeights[layers.length - 1];
+	}
+
+	/**
+	 * Gets the id of a random word in the view, each word being as likely
+	 * as its weight.
+	 * @param rng The random number generator to draw from.
+	 * @return The id of the word.
+	 */
+	int getRandomId(RandomGenerator rng) {
+		if (!weighted)
+			return rng.nextInt(size());
+		long weight = rng.nextLong(getTotalWeight());
+		int layer = 0;
+		while (cumulativeWeights[layer] <= weight) // Few layers; scan them
+			layer++;
+		int id;
+		do {
+			id = layers[layer].getRandomId(rng);
+		} while (Arrays.binarySearch(excluded[layer], id) >= 0);
+		return toViewId(layer, id);
+	}
+
+	/**
+	 * Finds the words consistent with a partially revealed hangman word,
+	 * matching each layer in turn.
+	 * @param pattern  The pattern, as for WordIndex.match.
+	 * @param rejected A 26-bit mask of letters the words must not contain.
+	 * @return A new bitset of the matching word ids.
+	 */
+	long[] match(int[] pattern, int rejected) {
+		long[] result = new long[WordIndex.getBitsetLength(size())];
+		for (int layer = 0; layer < layers.length; layer++) {
+			long[] bits = layers[layer].match(pattern, rejected);
+			for (int slot = 0; slot < bits.length; slot++) {
+				for (long word = bits[slot]; word != 0; word &= word - 1) {
+					int id = (slot << 6) + Long.numberOfTrailingZeros(word);
+					if (Arrays.binarySearch(excluded[layer], id) >= 0)
+						continue;
+					int viewId = toViewId(layer, id);
+					result[viewId >>> 6] |= 1L << viewId;
+				}
+			}
+		}
+		return result;
+	}
+
+	// Private methods
+	/**
+	 * Finds the layer a word of the view belongs to.
+	 * @param id The id of the word in the view.
+	 * @return The index of its layer.
+	 */
+	private int layerOf(int id) {
+		if (id < 0 || id >= size())
+			throw new IndexOutOfBoundsException("No word with id " + id);
+		// Find the last layer starting at or before the id, which skips
+		// any empty layers starting at the same id
+		int low = 0;
+		int high = layers.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (starts[middle] <= id)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		return low;
+	}
+
+	/**
+	 * Turns the id of a word in the view into its id in its layer.
+	 * @param layer The index of the word's layer.
+	 * @param id    The id of the word in the view.
+	 * @return The id of the word in the layer.
+	 */
+	private int toLayerId(int layer, int id) {
+		int offset = id - starts[layer];
+		// Count the excluded ids before the word: those whose id, less the
+		// number of excluded ids before them, is at most the offset
+		int[] ids = excluded[layer];
+		int low = 0;
+		int high = ids.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (ids[middle] - middle <= offset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return offset + low;
+	}
+
+	/**
+	 * Turns the id of a word that is not excluded in a layer into its id
+	 * in the view.
+	 * @param layer The index of the word's layer.
+	 * @param id    The id of the word in the layer.
+	 * @return The id of the word in the view.
+	 */
+	private int toViewId(int layer, int id) {
+		int before = -Arrays.binarySearch(excluded[layer], id) - 1;
+		return starts[layer] + id - before;
+	}
+
+	/**
+	 * Finds the ids of a bucket's blocked words, reading each word once
+	 * without creating any String.
+	 * @param bucket  The bucket.
+	 * @param blocked The blocked words, as buffers of their letters.
+	 * @return The ids of the blocked words, in increasing order.
+	 */
+	private static int[] findExcluded(WordBucket bucket,
+			Set<ByteBuffer> blocked) {
+		if (blocked.isEmpty())
+			return new int[0];
+		int[] ids = new int[16];
+		int count = 0;
+		byte[] word = new byte[bucket.getWordLength()];
+		ByteBuffer key = ByteBuffer.wrap(word);
+		for (int id = 0; id < bucket.size(); id++) {
+			bucket.copyWord(id, word);
+			if (blocked.contains(key)) {
+				if (count == ids.length)
+					ids = Arrays.copyOf(ids, 2 * count);
+				ids[count++] = id;
+			}
+		}
+		return Arrays.copyOf(ids, count);
+	}
+}
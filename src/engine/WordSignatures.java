@@ -0,0 +1,184 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * A Word Signatures object holds a precomputed letter signature for every
+ * word in a Word Bucket, so that letter queries on a word become array
+ * lookups instead of scans over its letters.
+ * <p>
+ * Each word's signature is a 26-bit mask of the letters it contains (bit 0
+ * for 'a', bit 25 for 'z') and the reveal pattern of each of those letters:
+ * the mask of the positions the letter is at. Masks are kept in an array
+ * indexed by word id, 4 bytes per word. The patterns of a word are kept
+ * one after another, in alphabetical order, in an array of ints (or of
+ * longs for words longer than 32 letters), from an offset kept per word:
+ * the pattern of a letter is found with a bit count of the mask and one
+ * array read, and takes 4 bytes per distinct letter of each word.
+ * <p>
+ * Words longer than MAX_PATTERN_LENGTH have no patterns; a table of the
+ * first position of each letter, 26 bytes per word, is kept for them
+ * instead.
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordSignatures {
+
+	// Constants
+	/** Number of letters in the alphabet. */
+	static final int ALPHABET = 26;
+	/** Length of the longest words whose reveal patterns fit a long. */
+	static final int MAX_PATTERN_LENGTH = 64;
+
+	private static final int ABSENT = 0xFF; // Position table entry for absent
+	private static final int MAX_TABLE_LENGTH = ABSENT - 1;
+
+	// Instance Fields
+	private final WordBucket bucket;
+	private final int[] masks;
+	private final int[] patternStarts;   // Offset of each word's patterns,
+	                                     // one more than there are words
+	private final int[] shortPatterns;   // Patterns of words of up to 32
+	private final long[] longPatterns;   // letters, or else of up to 64
+	private final byte[] firstPositions; // ALPHABET entries per word, only
+	                                     // for words too long for patterns
+
+	// Constructors
+	/**
+	 * Computes the signatures of every word in a Word Bucket.
+	 * @param wordBucket The bucket.
+	 */
+	WordSignatures(WordBucket wordBucket) {
+		bucket = wordBucket;
+		int size = bucket.size();
+		int length = bucket.getWordLength();
+		masks = new int[size];
+		// Positions of words longer than a byte can hold are found by
+		// scanning instead; no real word list has any.
+		firstPositions = (length > MAX_PATTERN_LENGTH &&
+				length <= MAX_TABLE_LENGTH) ? new byte[size * ALPHABET] : null;
+		if (firstPositions != null)
+			Arrays.fill(firstPositions, (byte) ABSENT);
+		byte[] word = new byte[length];
+		long total = 0;
+		for (int id = 0; id < size; id++) {
+			bucket.copyWord(id, word);
+			int mask = 0;
+			for (int pos = length - 1; pos >= 0; pos--) { // Last write wins
+				int letter = word[pos] - 'a';
+				mask |= 1 << letter;
+				if (firstPositions != null)
+					firstPositions[id * ALPHABET + letter] = (byte) pos;
+			}
+			masks[id] = mask;
+			total += Integer.bitCount(mask);
+		}
+		if (length > MAX_PATTERN_LENGTH) {
+			patternStarts = null;
+			shortPatterns = null;
+			longPatterns = null;
+			return;
+		}
+		if (total > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Too many letters for patterns");
+
+		// A second pass, now that the patterns can be placed
+		patternStarts = new int[size + 1];
+		shortPatterns = (length <= 32) ? new int[(int) total] : null;
+		longPatterns = (length <= 32) ? null : new long[(int) total];
+		long[] patterns = new long[ALPHABET];
+		int next = 0;
+		for (int id = 0; id < size; id++) {
+			patternStarts[id] = next;
+			bucket.copyWord(id, word);
+			Arrays.fill(patterns, 0);
+			for (int pos = 0; pos < length; pos++) {
+				patterns[word[pos] - 'a'] |= 1L << pos;
+			}
+			for (int mask = masks[id]; mask != 0; mask &= mask - 1) {
+				long pattern = patterns[Integer.numberOfTrailingZeros(mask)];
+				if (shortPatterns != null)
+					shortPatterns[next++] = (int) pattern;
+				else
+					longPatterns[next++] = pattern;
+			}
+		}
+		patternStarts[size] = next;
+	}
+
+	// Package-private Methods
+	/**
+	 * Converts a letter to its index in the alphabet.
+	 * @param letter The letter as a char.
+	 * @return 0 for 'a' up to 25 for 'z', or -1 if the char is not a
+	 *         lowercase ASCII letter.
+	 */
+	static int indexOf(char letter) {
+		return (letter >= 'a' && letter <= 'z') ? letter - 'a' : -1;
+	}
+
+	/**
+	 * Gets the mask of letters a word contains.
+	 * @param id The word's id.
+	 * @return A 26-bit mask with bit i set if the word contains the i-th
+	 *         letter of the alphabet.
+	 */
+	int getLetterMask(int id) {
+		return masks[id];
+	}
+
+	/**
+	 * Checks if a word contains a letter.
+	 * @param id     The word's id.
+	 * @param letter The letter's index in the alphabet (see indexOf).
+	 * @return True if the word contains the letter, else false.
+	 */
+	boolean hasLetter(int id, int letter) {
+		return letter >= 0 && (masks[id] & (1 << letter)) != 0;
+	}
+
+	/**
+	 * Gets the first position of a letter in a word.
+	 * @param id     The word's id.
+	 * @param letter The letter's index in the alphabet (see indexOf).
+	 * @return The index of the letter's first occurrence in the word, or
+	 *         -1 if the word does not contain it.
+	 */
+	int getFirstPosition(int id, int letter) {
+		if (!hasLetter(id, letter))
+			return -1;
+		if (patternStarts != null)
+			return Long.numberOfTrailingZeros(getPattern(id, letter));
+		if (firstPositions != null)
+			return firstPositions[id * ALPHABET + letter] & 0xFF;
+		char ch = (char) ('a' + letter);
+		int pos = 0;
+		while (bucket.getLetter(id, pos) != ch)
+			pos++;
+		return pos;
+	}
+
+	/**
+	 * Gets the reveal pattern of a letter in a word: the positions at which
+	 * the word has the letter, as a hangman game would show them.
+	 * @param id     The word's id.
+	 * @param letter The letter's index in the alphabet (see indexOf).
+	 * @return A bitmask with bit i set if the letter is at position i, or 0
+	 *         if the word does not contain the letter.
+	 * @throws IllegalStateException if words are longer than
+	 *                               MAX_PATTERN_LENGTH.
+	 */
+	long getPattern(int id, int letter) {
+		if (patternStarts == null)
+			throw new IllegalStateException("Words too long for patterns");
+		int mask = masks[id];
+		if (letter < 0 || (mask & (1 << letter)) == 0)
+			return 0;
+		int index = patternStarts[id] +
+				Integer.bitCount(mask & ((1 << letter) - 1));
+		return (shortPatterns != null)
+				? shortPatterns[index] & 0xFFFFFFFFL : longPatterns[index];
+	}
+}
@@ -0,0 +1,177 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests that the Adversary Cache finds the decisions put in it by bucket,
+ * state and letter, counts its hits, misses and evictions, stays within
+ * its bound, and keeps popular decisions only while they stay popular.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.AdversaryCacheTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AdversaryCacheTest {
+
+	// Constants
+	private static final long MAX_WEIGHT = 1 << 22; // As in AdversaryCache
+	private static final int ENTRY_WEIGHT = 16;     // As in AdversaryCache
+	private static final int IDS = 4096;            // Per decision put
+
+	private AdversaryCacheTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		WordBucket bucket = new Dict(write("alpha gamma delta")).getBucket(5);
+		WordBucket other = new Dict(write("alpha gamma delta")).getBucket(5);
+		testLookups(bucket, other);
+		testEviction(bucket);
+		testDecay(bucket);
+		System.out.println("AdversaryCacheTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks hits and misses, that the first decision put for a key stays,
+	 * and that clear() empties the cache but keeps the counters.
+	 */
+	private static void testLookups(WordBucket bucket, WordBucket other) {
+		AdversaryCache.clear();
+		AdversaryCache.Decision decision = new AdversaryCache.Decision();
+		long hits = AdversaryCache.getHitCount();
+		long misses = AdversaryCache.getMissCount();
+		check(!AdversaryCache.get(bucket, 1, 4, decision), "empty cache hit");
+		checkCounts(hits, misses + 1);
+
+		int[] ids = {0, 2};
+		AdversaryCache.put(bucket, 1, 4, 0b10, ids);
+		check(AdversaryCache.size() == 1, "cache of one decision holds " +
+				AdversaryCache.size());
+		check(AdversaryCache.get(bucket, 1, 4, decision), "decision missed");
+		check(decision.getPattern() == 0b10 && decision.getIds() == ids,
+				"another decision found");
+		checkCounts(hits + 1, misses + 1);
+		check(!AdversaryCache.get(bucket, 2, 4, decision) &&
+				!AdversaryCache.get(bucket, 1, 5, decision) &&
+				!AdversaryCache.get(other, 1, 4, decision), "decision found " +
+				"for another state, letter or bucket");
+		checkCounts(hits + 1, misses + 4);
+
+		AdversaryCache.put(bucket, 1, 4, 0b1, new int[] {1});
+		check(AdversaryCache.get(bucket, 1, 4, decision) &&
+				decision.getPattern() == 0b10 && decision.getIds() == ids,
+				"first decision replaced");
+		check(AdversaryCache.size() == 1, "decision put twice");
+		checkCounts(hits + 2, misses + 4);
+
+		AdversaryCache.clear();
+		check(AdversaryCache.size() == 0 &&
+				!AdversaryCache.get(bucket, 1, 4, decision), "cleared cache " +
+				"not empty");
+		checkCounts(hits + 2, misses + 5);
+	}
+
+	/**
+	 * Checks that the cache evicts decisions to stay within its bound,
+	 * counting each, and keeps the newest of decisions used as often.
+	 */
+	private static void testEviction(WordBucket bucket) {
+		AdversaryCache.clear();
+		long evictions = AdversaryCache.getEvictionCount();
+		int[] ids = new int[IDS]; // Shared: only the cache's count matters
+		int puts = 4 * maxEntries();
+		AdversaryCache.Decision decision = new AdversaryCache.Decision();
+		for (int state = 0; state < puts; state++) {
+			AdversaryCache.put(bucket, state, 0, 0, ids);
+		}
+		check(AdversaryCache.get(bucket, puts - 1, 0, decision), "newest " +
+				"decision evicted");
+		int size = AdversaryCache.size();
+		check(size <= maxEntries(), size + " decisions kept, at most " +
+				maxEntries() + " fit");
+		check(size >= maxEntries() / 2, "only " + size + " decisions kept");
+		check(AdversaryCache.getEvictionCount() - evictions == puts - size,
+				"evicted " + (AdversaryCache.getEvictionCount() - evictions) +
+				" decisions, expected " + (puts - size));
+	}
+
+	/**
+	 * Checks that decisions used often survive a flood of new ones, and
+	 * that once no longer used they age out.
+	 */
+	private static void testDecay(WordBucket bucket) {
+		AdversaryCache.clear();
+		int[] ids = new int[IDS];
+		AdversaryCache.Decision decision = new AdversaryCache.Decision();
+		int popular = 32;
+		for (int state = 0; state < popular; state++) {
+			AdversaryCache.put(bucket, state, 1, 0, ids);
+			for (int i = 0; i < 1 << 12; i++) {
+				AdversaryCache.get(bucket, state, 1, decision);
+			}
+		}
+		flood(bucket, ids, 2 * maxEntries());
+		for (int state = 0; state < popular; state++) {
+			check(AdversaryCache.get(bucket, state, 1, decision),
+					"popular decision " + state + " evicted");
+		}
+		flood(bucket, ids, 40 * maxEntries());
+		for (int state = 0; state < popular; state++) {
+			check(!AdversaryCache.get(bucket, state, 1, decision),
+					"decision " + state + " kept long after its last use");
+		}
+	}
+
+	/**
+	 * Puts decisions of new states, used once each.
+	 */
+	private static void flood(WordBucket bucket, int[] ids, int count) {
+		for (int i = 0; i < count; i++) {
+			AdversaryCache.put(bucket, -1 - i, 2, 0, ids);
+		}
+	}
+
+	/**
+	 * Gets the most decisions of IDS ids that fit in the cache.
+	 */
+	private static int maxEntries() {
+		return (int) (MAX_WEIGHT / (IDS + ENTRY_WEIGHT));
+	}
+
+	private static void checkCounts(long hits, long misses) {
+		check(AdversaryCache.getHitCount() == hits, AdversaryCache
+				.getHitCount() + " hits counted, expected " + hits);
+		check(AdversaryCache.getMissCount() == misses, AdversaryCache
+				.getMissCount() + " misses counted, expected " + misses);
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("AdversaryCacheTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,113 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests that an Adversary Word restored to a snapshot answers guesses
+ * exactly as it did when the snapshot was taken, any number of times, and
+ * that a branch goes on independently of the word it was branched from.
+ * <p>
+ * Run with the engine classes and the dict package on the class path:
+ * <code>java engine.AdversaryWordTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AdversaryWordTest {
+
+	// Constants
+	private static final int LENGTH = 6;
+	private static final String OPENING = "ea";
+	private static final String LATER = "srtionlu";
+
+	private AdversaryWordTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 */
+	public static void main(String[] args) {
+		Dict dict = new Dict();
+		testRestore(dict);
+		testBranch(dict);
+		System.out.println("AdversaryWordTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that guesses replayed after restore() get the same answers,
+	 * and that restoring twice works as well as once.
+	 */
+	private static void testRestore(Dict dict) {
+		Word word = newWord(dict);
+		play(word, OPENING);
+		Word.Snapshot snapshot = word.snapshot();
+		String first = play(word, LATER);
+		String shown = word.toString();
+		for (int i = 0; i < 2; i++) {
+			word.restore(snapshot);
+			check(play(word, LATER).equals(first), "answers after restore " +
+					"differ");
+			check(word.toString().equals(shown), "word after restore is " +
+					word + ", expected " + shown);
+		}
+		// Restoring the start undoes every guess
+		Word fresh = newWord(dict);
+		Word.Snapshot start = fresh.snapshot();
+		String whole = play(fresh, OPENING + LATER);
+		fresh.restore(start);
+		check(play(fresh, OPENING + LATER).equals(whole), "answers after " +
+				"restoring the start differ");
+	}
+
+	/**
+	 * Checks that a branch answers as the word would have, and that
+	 * neither one's guesses affect the other.
+	 */
+	private static void testBranch(Dict dict) {
+		Word word = newWord(dict);
+		play(word, OPENING);
+		Word.Snapshot snapshot = word.snapshot();
+		Word branch = word.branch();
+		String expected = play(word, LATER);
+		word.restore(snapshot);
+
+		// Guesses the word makes meanwhile do not reach the branch
+		play(word, "zyxwvq");
+		check(play(branch, LATER).equals(expected), "branch answers differ");
+		word.restore(snapshot);
+		check(play(word, LATER).equals(expected), "word answers differ " +
+				"after its branch played");
+	}
+
+	/**
+	 * Creates the Adversary Word the tests play against.
+	 */
+	private static Word newWord(Dict dict) {
+		return new AdversaryWord(dict, LENGTH, new SplittableRandom(7));
+	}
+
+	/**
+	 * Guesses letters in turn, recording each answer's positions.
+	 * @return The answers, one per letter, as "letter:positions" entries.
+	 */
+	private static String play(Word word, String letters) {
+		StringBuilder answers = new StringBuilder();
+		for (char letter : letters.toCharArray()) {
+			answers.append(letter).append(':');
+			if (word.hasLetter(letter)) {
+				for (int pos : word.getLetterPositions(letter)) {
+					answers.append(pos);
+				}
+			}
+			answers.append(' ');
+		}
+		return answers.toString();
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
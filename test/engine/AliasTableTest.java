@@ -0,0 +1,96 @@
+package engine;
+
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Tests that an Alias Table draws each index in proportion to its weight,
+ * never draws an index of weight zero, and rejects weights with nothing to
+ * draw.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.AliasTableTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AliasTableTest {
+
+	// Constants
+	private static final int SAMPLES = 2000000;
+	private static final double TOLERANCE = 0.005; // Of each frequency
+
+	private AliasTableTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 */
+	public static void main(String[] args) {
+		testDistribution(new int[] {1, 0, 3, 6, 0, 10});
+		testDistribution(new int[] {5, 5, 5, 5});
+		testDistribution(new int[] {1, 1000000});
+		testSingleWeight();
+		testNoPositiveWeight();
+		System.out.println("AliasTableTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that the frequency of each index is close to its share of the
+	 * total weight, and exactly zero for weights of zero.
+	 */
+	private static void testDistribution(int[] weights) {
+		AliasTable table = new AliasTable(IntBuffer.wrap(weights),
+				weights.length);
+		SplittableRandom rng = new SplittableRandom(42);
+		long[] counts = new long[weights.length];
+		for (int i = 0; i < SAMPLES; i++) {
+			counts[table.sample(rng)]++;
+		}
+		long total = 0;
+		for (int weight : weights) {
+			total += weight;
+		}
+		for (int i = 0; i < weights.length; i++) {
+			double expected = (double) weights[i] / total;
+			double actual = (double) counts[i] / SAMPLES;
+			if (weights[i] == 0)
+				check(counts[i] == 0, "index " + i + " of weight 0 drawn " +
+						counts[i] + " times");
+			else
+				check(Math.abs(actual - expected) < TOLERANCE, "index " + i +
+						" drawn with frequency " + actual + ", expected " +
+						expected);
+		}
+	}
+
+	/**
+	 * Checks that a table of one weight always draws it.
+	 */
+	private static void testSingleWeight() {
+		AliasTable table = new AliasTable(IntBuffer.wrap(new int[] {7}), 1);
+		SplittableRandom rng = new SplittableRandom(1);
+		for (int i = 0; i < 1000; i++) {
+			check(table.sample(rng) == 0, "single weight not drawn");
+		}
+	}
+
+	/**
+	 * Checks that weights summing to zero are rejected.
+	 */
+	private static void testNoPositiveWeight() {
+		try {
+			new AliasTable(IntBuffer.wrap(new int[] {0, 0, 0}), 3);
+			check(false, "weights of zero accepted");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,339 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tests that an Anytime Word always answers, with the greedy answer of an
+ * Adversary Word when its deadline leaves no time to search, and otherwise
+ * with the answer of the deepest search it finished, and that it records
+ * the time and depth of every guess, in itself and in the Anytime Stats.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.AnytimeWordTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class AnytimeWordTest {
+
+	// Constants
+	private static final int LENGTH = 5;
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+	private AnytimeWordTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		Dict small = new Dict(write(randomWords(300, 1)));
+		Dict large = new Dict(write(randomWords(6000, 2)));
+		testNoTime(small);
+		testNoTime(large);
+		testDeepest(small, 10000, 10);
+		testDeepest(large, 1, 5);  // Searches often run out of time
+		testRecord(small);
+		testBadDeadline(small);
+		System.out.println("AnytimeWordTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that with no time to search, every guess gets the answer an
+	 * Adversary Word gives, at depth 0.
+	 */
+	private static void testNoTime(Dict dict) {
+		SplittableRandom rng = new SplittableRandom(3);
+		for (int game = 0; game < 10; game++) {
+			String order = shuffle(ALPHABET, rng);
+			AnytimeStats.reset();
+			AnytimeWord word = new AnytimeWord(dict, LENGTH, 6, 0,
+					new SplittableRandom(1));
+			Word greedy = new AdversaryWord(dict, LENGTH,
+					new SplittableRandom(1));
+			for (char letter : order.toCharArray()) {
+				check(Arrays.equals(word.getLetterPositions(letter),
+						greedy.getLetterPositions(letter)), "answers differ " +
+						"from the greedy ones, guesses " + order + ", at " +
+						letter);
+			}
+			int[] depths = word.getGuessDepths();
+			check(depths.length == ALPHABET.length(), depths.length +
+					" guesses recorded, expected " + ALPHABET.length());
+			for (int depth : depths) {
+				check(depth == 0, "searched with no time, to depth " + depth);
+			}
+			checkStats(word, 0);
+		}
+	}
+
+	/**
+	 * Checks that every answer is the one a plain search picks at the depth
+	 * recorded for it, and that no guess searches further ahead than the
+	 * letters left.
+	 */
+	private static void testDeepest(Dict dict, long deadline, int games) {
+		WordBucket bucket = dict.getBucket(LENGTH);
+		WordSignatures signatures = bucket.getSignatures();
+		SplittableRandom rng = new SplittableRandom(5);
+		for (int game = 0; game < games; game++) {
+			int lives = 1 + rng.nextInt(8);
+			String order = shuffle(ALPHABET, rng);
+			AnytimeStats.reset();
+			AnytimeWord word = new AnytimeWord(dict, LENGTH, lives, deadline,
+					new SplittableRandom(1));
+			int[] ids = bucket.getIds();
+			int used = 0;
+			int left = lives;
+			for (int i = 0; i < order.length(); i++) {
+				char letter = order.charAt(i);
+				int index = letter - 'a';
+				used |= 1 << index;
+				int[] positions = word.getLetterPositions(letter);
+				int depth = word.getGuessDepths()[i];
+				String guess = "lives " + lives + ", guesses " + order +
+						", at " + letter + ", depth " + depth;
+				check(depth >= 0 && depth <= ALPHABET.length() - i - 1,
+						"searched too far ahead, " + guess);
+				long pattern = choose(signatures, ids, index, used, left,
+						depth);
+				check(Arrays.equals(positions,
+						AdversaryWord.toPositions(pattern)), "answer not " +
+						"the one of the deepest search, " + guess);
+				ids = filter(signatures, ids, index, pattern);
+				if (pattern == 0)
+					left--;
+			}
+			checkStats(word, deadline);
+		}
+	}
+
+	/**
+	 * Checks that guesses undone stay in the record, which grows past one
+	 * guess per letter, and that a branch keeps a record of its own.
+	 */
+	private static void testRecord(Dict dict) {
+		AnytimeWord word = new AnytimeWord(dict, LENGTH, 6, 0,
+				new SplittableRandom(1));
+		Word.Snapshot start = word.snapshot();
+		for (int round = 1; round <= 3; round++) {
+			for (char letter : ALPHABET.toCharArray()) {
+				word.hasLetter(letter);
+			}
+			check(word.getGuessNanos().length == round * ALPHABET.length() &&
+					word.getGuessDepths().length == round *
+					ALPHABET.length(), "guesses undone not recorded");
+			word.restore(start);
+		}
+		AnytimeWord branch = (AnytimeWord) word.branch();
+		branch.hasLetter('e');
+		check(branch.getGuessDepths().length == 3 * ALPHABET.length() + 1 &&
+				word.getGuessDepths().length == 3 * ALPHABET.length(),
+				"branch shares its record");
+	}
+
+	/**
+	 * Checks that a negative deadline is refused.
+	 */
+	private static void testBadDeadline(Dict dict) {
+		try {
+			new AnytimeWord(dict, LENGTH, 6, -1, new SplittableRandom(1));
+			check(false, "negative deadline accepted");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Checks that the Anytime Stats, reset before a word's guesses, count
+	 * exactly the guesses it recorded.
+	 */
+	private static void checkStats(AnytimeWord word, long deadline) {
+		long[] nanos = word.getGuessNanos();
+		int[] depths = word.getGuessDepths();
+		check(nanos.length == depths.length, "times and depths recorded " +
+				"differ in number");
+		check(AnytimeStats.getGuessCount() == nanos.length, "counted " +
+				AnytimeStats.getGuessCount() + " guesses, expected " +
+				nanos.length);
+		long total = 0;
+		long max = 0;
+		for (long time : nanos) {
+			check(time >= 0, "negative time recorded");
+			total += time;
+			max = Math.max(max, time);
+		}
+		check(AnytimeStats.getTotalNanos() == total &&
+				AnytimeStats.getMaxNanos() == max, "times counted differ " +
+				"from the ones recorded");
+		long overruns = nanos.length - count(nanos, deadline * 1000000);
+		check(AnytimeStats.getOverrunCount() == overruns, "counted " +
+				AnytimeStats.getOverrunCount() + " overruns, expected " +
+				overruns);
+		for (int depth = 0; depth <= AnytimeStats.MAX_COUNTED_DEPTH;
+				depth++) {
+			int guesses = 0;
+			for (int recorded : depths) {
+				if (recorded == depth)
+					guesses++;
+			}
+			check(AnytimeStats.getDepthCount(depth) == guesses, "counted " +
+					AnytimeStats.getDepthCount(depth) + " guesses at depth " +
+					depth + ", expected " + guesses);
+		}
+	}
+
+	/**
+	 * Counts the times within a limit.
+	 */
+	private static int count(long[] nanos, long limit) {
+		int count = 0;
+		for (long time : nanos) {
+			if (time <= limit)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Picks the reality of a guess a plain search keeps, as in
+	 * LookaheadWordTest.
+	 * @return Its reveal pattern.
+	 */
+	private static long choose(WordSignatures signatures, int[] ids,
+			int letter, int used, int lives, int depth) {
+		PatternCounts realities = new PatternCounts();
+		for (int id : ids) {
+			realities.add(signatures.getPattern(id, letter));
+		}
+		if (depth <= 0)
+			return realities.getBestPattern();
+		int best = -1;
+		int bestScore = -1;
+		for (int i = 0; i < realities.size(); i++) {
+			long pattern = realities.getPattern(i);
+			int miss = pattern == 0 ? 1 : 0;
+			int score = miss + search(signatures, filter(signatures, ids,
+					letter, pattern), used, lives - miss, depth);
+			if (best == -1 || score > bestScore || (score == bestScore &&
+					PatternCounts.isBetter(realities.getCount(i), pattern,
+							realities.getCount(best),
+							realities.getPattern(best)))) {
+				best = i;
+				bestScore = score;
+			}
+		}
+		return realities.getPattern(best);
+	}
+
+	/**
+	 * Counts the wrong guesses the adversary can force on the model guesser
+	 * within depth guesses, searching every reality.
+	 */
+	private static int search(WordSignatures signatures, int[] ids, int used,
+			int lives, int depth) {
+		if (depth <= 0 || lives <= 0 || ids.length <= 1)
+			return 0;
+		int[] counts = new int[ALPHABET.length()];
+		for (int id : ids) {
+			for (int letter = 0; letter < counts.length; letter++) {
+				if ((used & 1 << letter) == 0 &&
+						signatures.getPattern(id, letter) != 0)
+					counts[letter]++;
+			}
+		}
+		int letter = 0;
+		for (int i = 1; i < counts.length; i++) {
+			if (counts[i] > counts[letter])
+				letter = i;
+		}
+		if (counts[letter] == 0)
+			return 0;
+		PatternCounts realities = new PatternCounts();
+		for (int id : ids) {
+			realities.add(signatures.getPattern(id, letter));
+		}
+		int best = 0;
+		for (int i = 0; i < realities.size(); i++) {
+			long pattern = realities.getPattern(i);
+			int miss = pattern == 0 ? 1 : 0;
+			best = Math.max(best, miss + search(signatures, filter(signatures,
+					ids, letter, pattern), used | 1 << letter, lives - miss,
+					depth - 1));
+		}
+		return best;
+	}
+
+	/**
+	 * Keeps the ids of the words of one reality, in order.
+	 */
+	private static int[] filter(WordSignatures signatures, int[] ids,
+			int letter, long pattern) {
+		int[] kept = new int[ids.length];
+		int count = 0;
+		for (int id : ids) {
+			if (signatures.getPattern(id, letter) == pattern)
+				kept[count++] = id;
+		}
+		return Arrays.copyOf(kept, count);
+	}
+
+	/**
+	 * Shuffles the letters of a string.
+	 */
+	private static String shuffle(String letters, SplittableRandom rng) {
+		char[] shuffled = letters.toCharArray();
+		for (int i = shuffled.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			char swap = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = swap;
+		}
+		return new String(shuffled);
+	}
+
+	/**
+	 * Makes up words of LENGTH letters from a skewed choice of letters, so
+	 * that realities differ in size and some letters repeat.
+	 */
+	private static String randomWords(int count, long seed) {
+		SplittableRandom rng = new SplittableRandom(seed);
+		StringBuilder words = new StringBuilder(count * (LENGTH + 1));
+		for (int i = 0; i < count; i++) {
+			for (int pos = 0; pos < LENGTH; pos++) {
+				double skew = rng.nextDouble();
+				words.append((char) ('a' + (int) (skew * skew * 26)));
+			}
+			words.append('\n');
+		}
+		return words.toString();
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("AnytimeWordTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,130 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tests that a Bitset Adversary Word plays exactly as an Adversary Word
+ * over the same bucket: that every guess of the same sequence gets the same
+ * answer and positions from both, words with repeated letters included.
+ * <p>
+ * Run with the engine classes and the dict package on the class path:
+ * <code>java engine.BitsetAdversaryWordTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class BitsetAdversaryWordTest {
+
+	// Constants
+	private static final String REPEATED =
+			"llama sassy eerie geese teeth tweet sheet three there these " +
+			"tease lease eases mamma mommy puppy error arrow sissy messy " +
+			"essay asses seals sales lapse llama abbey eagle legal level " +
+			"lever revel naval banal canal nanny ninny penne tenet";
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+	private static final int ORDERS = 40;
+
+	private BitsetAdversaryWordTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		testSameAnswers(new Dict(write(REPEATED)));
+		testSameAnswers(new Dict(write(randomWords(20000, 6))));
+		testSameAnswers(new Dict());
+		System.out.println("BitsetAdversaryWordTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that both words answer the same to guesses in many orders, for
+	 * every word length of a Dict.
+	 */
+	private static void testSameAnswers(Dict dict) {
+		SplittableRandom rng = new SplittableRandom(3);
+		for (int length = dict.getMinLength(); length <= Math.min(
+				dict.getMaxLength(), WordSignatures.MAX_PATTERN_LENGTH);
+				length++) {
+			if (!dict.hasLength(length))
+				continue;
+			for (int i = 0; i < ORDERS; i++) {
+				String order = shuffle(ALPHABET, rng);
+				Word list = new AdversaryWord(dict, length,
+						new SplittableRandom(1));
+				Word bitset = new BitsetAdversaryWord(dict, length,
+						new SplittableRandom(1));
+				for (char letter : order.toCharArray()) {
+					String guess = "length " + length + ", guesses " + order +
+							", at " + letter;
+					check(list.hasLetter(letter) == bitset.hasLetter(letter),
+							"answers differ, " + guess);
+					check(Arrays.equals(list.getLetterPositions(letter),
+							bitset.getLetterPositions(letter)), "positions " +
+							"differ, " + guess);
+					check(list.toString().equals(bitset.toString()), "words " +
+							"shown differ, " + guess);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shuffles the letters of a string.
+	 */
+	private static String shuffle(String letters, SplittableRandom rng) {
+		char[] shuffled = letters.toCharArray();
+		for (int i = shuffled.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			char swap = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = swap;
+		}
+		return new String(shuffled);
+	}
+
+	/**
+	 * Makes up words of one length from a skewed choice of letters, so that
+	 * many have a letter several times.
+	 */
+	private static String randomWords(int count, int length) {
+		SplittableRandom rng = new SplittableRandom(5);
+		StringBuilder words = new StringBuilder(count * (length + 1));
+		for (int i = 0; i < count; i++) {
+			for (int pos = 0; pos < length; pos++) {
+				double skew = rng.nextDouble();
+				words.append((char) ('a' + (int) (skew * skew * 26)));
+			}
+			words.append('\n');
+		}
+		return words.toString();
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("BitsetAdversaryWordTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,188 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tests that a Dict saved in the compiled format reads back as the same
+ * words, in the same order and with the same weights, that a Dict opened
+ * from a compiled file keeps its words when the file is recompiled, and
+ * that a truncated or corrupted compiled file is rejected rather than
+ * read.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.DictFormatTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class DictFormatTest {
+
+	// Constants
+	private static final String PLAIN =
+			"the quick brown fox jumps over the lazy dog\n" +
+			"a an ant antelope x42 Zebra zebra\n";
+	private static final String WEIGHTED =
+			"the\t50\nquick\t3\nbrown\t0\nfox\t12\njumps\nover\t7\n";
+
+	private DictFormatTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		testRoundTrip(PLAIN);
+		testRoundTrip(WEIGHTED);
+		testRecompile();
+		testTruncated();
+		testCorrupt(PLAIN, new byte[] {'A'});
+		testCorrupt(PLAIN, new byte[] {0});
+		testCorrupt(PLAIN, new byte[] {'{'});
+		testCorrupt(WEIGHTED, new byte[] {0, 0, 0, 0});
+		testCorrupt(WEIGHTED, new byte[] {(byte) 0x80, 0, 0, 7});
+		System.out.println("DictFormatTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that a text dictionary saved and read back holds the same
+	 * words and weights.
+	 */
+	private static void testRoundTrip(String text) throws IOException {
+		File source = write(text);
+		File compiled = File.createTempFile("DictFormatTest", "." +
+				DictFormat.EXTENSION);
+		compiled.deleteOnExit();
+		Dict dict = new Dict(source);
+		dict.save(compiled);
+		check(!DictFormat.isCompiled(source), "text file taken as compiled");
+		check(DictFormat.isCompiled(compiled), "saved file not compiled");
+
+		Dict read = new Dict(compiled);
+		check(read.getTotalWords() == dict.getTotalWords(), "read " +
+				read.getTotalWords() + " words, saved " + dict.getTotalWords());
+		check(read.getMinLength() == dict.getMinLength() &&
+				read.getMaxLength() == dict.getMaxLength(), "lengths differ");
+		check(read.isWeighted() == dict.isWeighted(), "weighting differs");
+		for (int length = 1; length <= dict.getMaxLength(); length++) {
+			check(read.hasLength(length) == dict.hasLength(length),
+					"length " + length + " differs");
+			if (!dict.hasLength(length))
+				continue;
+			check(read.getWordList(length).equals(dict.getWordList(length)),
+					"words of length " + length + " differ: " +
+					read.getWordList(length) + " vs " +
+					dict.getWordList(length));
+			WordBucket saved = dict.getBucket(length);
+			WordBucket loaded = read.getBucket(length);
+			for (int id = 0; id < saved.size(); id++) {
+				check(loaded.getWeight(id) == saved.getWeight(id), "weight " +
+						"of " + saved.getWord(id) + " differs");
+			}
+		}
+	}
+
+	/**
+	 * Checks that a Dict opened from a compiled file still reads its words
+	 * after a smaller dictionary is compiled over the file, and that the
+	 * file then opens as the new dictionary.
+	 */
+	private static void testRecompile() throws IOException {
+		File compiled = File.createTempFile("DictFormatTest", "." +
+				DictFormat.EXTENSION);
+		compiled.deleteOnExit();
+		Dict before = new Dict(write(PLAIN));
+		before.save(compiled);
+		Dict opened = new Dict(compiled);
+		Dict after = new Dict(write(WEIGHTED));
+		after.save(compiled);
+
+		for (int length = 1; length <= before.getMaxLength(); length++) {
+			if (before.hasLength(length))
+				check(opened.getWordList(length).equals(
+						before.getWordList(length)), "words of length " +
+						length + " changed to " + opened.getWordList(length));
+		}
+		Dict reopened = new Dict(compiled);
+		check(reopened.getTotalWords() == after.getTotalWords() &&
+				reopened.isWeighted(), "recompiled file not read as the new " +
+				"dictionary");
+	}
+
+	/**
+	 * Checks that a compiled file cut short is rejected.
+	 */
+	private static void testTruncated() throws IOException {
+		File compiled = File.createTempFile("DictFormatTest", "." +
+				DictFormat.EXTENSION);
+		compiled.deleteOnExit();
+		new Dict(write(PLAIN)).save(compiled);
+		RandomAccessFile file = new RandomAccessFile(compiled, "rw");
+		try {
+			file.setLength(file.length() - 3);
+		} finally {
+			file.close();
+		}
+		try {
+			new Dict(compiled);
+			check(false, "truncated file read");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Checks that a compiled file is rejected when its last bytes are
+	 * overwritten: the last letters of an unweighted file, or the last
+	 * weight of a weighted one.
+	 * @param text  The dictionary to compile.
+	 * @param bytes The bytes written over the end of the file.
+	 */
+	private static void testCorrupt(String text, byte[] bytes)
+			throws IOException {
+		File compiled = File.createTempFile("DictFormatTest", "." +
+				DictFormat.EXTENSION);
+		compiled.deleteOnExit();
+		new Dict(write(text)).save(compiled);
+		RandomAccessFile file = new RandomAccessFile(compiled, "rw");
+		try {
+			file.seek(file.length() - bytes.length);
+			file.write(bytes);
+		} finally {
+			file.close();
+		}
+		try {
+			new Dict(compiled);
+			check(false, "corrupt file read: " + Arrays.toString(bytes));
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("DictFormatTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
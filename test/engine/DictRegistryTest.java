@@ -0,0 +1,260 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests that the Dict Registry shares one Dict per version of a file, tells
+ * versions apart by size and modification time, evicts the least recently
+ * used Dict beyond its bound, forgets Dicts when reloading, removing or
+ * clearing, and only cancels a shared load when its last caller gives up.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.DictRegistryTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class DictRegistryTest {
+
+	// Constants
+	private static final int MAX_ENTRIES = 4; // As in DictRegistry
+	private static final long TIMEOUT = 30;   // Seconds to wait for a load
+
+	private DictRegistryTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws Exception if a file could not be written or loaded.
+	 */
+	public static void main(String[] args) throws Exception {
+		testKey();
+		testEviction();
+		testReloadRemoveClear();
+		testCancelOne();
+		testCancelAll();
+		System.out.println("DictRegistryTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that a file is loaded once under any of its paths, and afresh
+	 * when its modification time or size changes.
+	 */
+	private static void testKey() throws IOException {
+		DictRegistry.clear();
+		File file = write("alpha beta gamma");
+		Dict dict = DictRegistry.get(file);
+		check(DictRegistry.get(file) == dict, "same file loaded twice");
+		File alias = new File(new File(file.getParentFile(), "."),
+				file.getName());
+		check(DictRegistry.get(alias) == dict, "same file under another " +
+				"path loaded twice");
+
+		check(file.setLastModified(file.lastModified() - 60000),
+				"could not set the modification time");
+		Dict touched = DictRegistry.get(file);
+		check(touched != dict, "file of a new modification time not " +
+				"loaded afresh");
+		check(DictRegistry.get(file) == touched, "touched file loaded twice");
+
+		long modified = file.lastModified();
+		overwrite(file, "alpha beta gamma delta");
+		check(file.setLastModified(modified), "could not set the " +
+				"modification time");
+		Dict grown = DictRegistry.get(file);
+		check(grown != touched && grown.getTotalWords() == 4, "file of a " +
+				"new size not loaded afresh");
+	}
+
+	/**
+	 * Checks that only the most recently used Dicts are kept.
+	 */
+	private static void testEviction() throws IOException {
+		DictRegistry.clear();
+		File[] files = new File[MAX_ENTRIES + 1];
+		Dict[] dicts = new Dict[files.length];
+		for (int i = 0; i < MAX_ENTRIES; i++) {
+			files[i] = write("word" + "abcde".charAt(i));
+			dicts[i] = DictRegistry.get(files[i]);
+		}
+		DictRegistry.get(files[0]); // Now the most recently used
+		files[MAX_ENTRIES] = write("extra");
+		DictRegistry.get(files[MAX_ENTRIES]); // Evicts files[1]
+
+		check(DictRegistry.get(files[0]) == dicts[0], "recently used Dict " +
+				"evicted");
+		for (int i = 2; i < MAX_ENTRIES; i++) {
+			check(DictRegistry.get(files[i]) == dicts[i], "Dict " + i +
+					" evicted early");
+		}
+		check(DictRegistry.get(files[1]) != dicts[1], "least recently " +
+				"used Dict kept");
+		check(DictRegistry.getDefault() == DictRegistry.getDefault(),
+				"default Dict not kept");
+	}
+
+	/**
+	 * Checks that reload(), remove() and clear() make the next get() load
+	 * afresh, and that reload() keeps what it loaded.
+	 */
+	private static void testReloadRemoveClear() throws IOException {
+		DictRegistry.clear();
+		File file = write("alpha beta");
+		File other = write("gamma delta");
+		Dict dict = DictRegistry.get(file);
+		Dict otherDict = DictRegistry.get(other);
+
+		Dict reloaded = DictRegistry.reload(file);
+		check(reloaded != dict, "reload() did not load afresh");
+		check(DictRegistry.get(file) == reloaded, "reloaded Dict not kept");
+		check(DictRegistry.get(other) == otherDict, "reload() dropped " +
+				"another file");
+
+		DictRegistry.remove(file);
+		Dict removed = DictRegistry.get(file);
+		check(removed != reloaded, "remove() kept the Dict");
+		check(DictRegistry.get(other) == otherDict, "remove() dropped " +
+				"another file");
+
+		Dict defaultDict = DictRegistry.getDefault();
+		DictRegistry.clear();
+		check(DictRegistry.get(file) != removed &&
+				DictRegistry.get(other) != otherDict, "clear() kept Dicts");
+		check(DictRegistry.getDefault() == defaultDict, "clear() dropped " +
+				"the default Dict");
+	}
+
+	/**
+	 * Checks that cancelling one caller's Future leaves the shared load to
+	 * finish for another, and keeps its Dict.
+	 */
+	private static void testCancelOne() throws Exception {
+		DictRegistry.clear();
+		File file = write("alpha beta gamma");
+		BlockingListener listener = new BlockingListener();
+		Future<Dict> first = DictRegistry.getAsync(file, listener);
+		Future<Dict> second = DictRegistry.getAsync(file, null);
+		check(first != second, "callers share a Future");
+		listener.awaitStarted();
+
+		check(first.cancel(false) && first.isCancelled() && first.isDone(),
+				"Future not cancelled at once");
+		try {
+			first.get();
+			check(false, "cancelled Future returned a Dict");
+		} catch (CancellationException e) {
+			// Expected
+		}
+		listener.release();
+		Dict dict = second.get(TIMEOUT, TimeUnit.SECONDS);
+		check(dict.getTotalWords() == 3, "shared load cancelled with " +
+				"one of its callers");
+
+		BlockingListener unused = new BlockingListener();
+		Future<Dict> later = DictRegistry.getAsync(file, unused);
+		check(later.isDone() && later.get() == dict && !unused.wasCalled(),
+				"finished load not kept");
+		check(DictRegistry.get(file) == dict, "finished load not kept");
+	}
+
+	/**
+	 * Checks that the shared load is cancelled, and forgotten, once every
+	 * caller has given up on it.
+	 */
+	private static void testCancelAll() throws Exception {
+		DictRegistry.clear();
+		File file = write("alpha beta gamma");
+		BlockingListener listener = new BlockingListener();
+		Future<Dict> first = DictRegistry.getAsync(file, listener);
+		Future<Dict> second = DictRegistry.getAsync(file, null);
+		listener.awaitStarted();
+		first.cancel(true);
+		second.cancel(true);
+		listener.release();
+
+		BlockingListener fresh = new BlockingListener();
+		fresh.release();
+		Future<Dict> again = DictRegistry.getAsync(file, fresh);
+		try {
+			check(again.get(TIMEOUT, TimeUnit.SECONDS).getTotalWords() == 3,
+					"load after cancelling read the wrong words");
+		} catch (ExecutionException e) {
+			throw new AssertionError("load after cancelling failed", e);
+		}
+		check(fresh.wasCalled(), "cancelled load kept in the registry");
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("DictRegistryTest", ".txt");
+		file.deleteOnExit();
+		overwrite(file, text);
+		return file;
+	}
+
+	/**
+	 * Replaces the text of a file.
+	 */
+	private static void overwrite(File file, String text) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+
+	// Private utility classes
+	/**
+	 * A Blocking Listener holds up the load it listens to at its first
+	 * progress report, until released.
+	 */
+	private static class BlockingListener implements DictLoadListener {
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch released = new CountDownLatch(1);
+		private final AtomicBoolean called = new AtomicBoolean();
+
+		@Override
+		public void progressMade(long bytesRead, long totalBytes,
+				long wordsAccepted) {
+			called.set(true);
+			started.countDown();
+			try {
+				released.await(TIMEOUT, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt(); // Cancelled
+			}
+		}
+
+		void awaitStarted() throws InterruptedException {
+			check(started.await(TIMEOUT, TimeUnit.SECONDS), "load did not " +
+					"start");
+		}
+
+		void release() {
+			released.countDown();
+		}
+
+		boolean wasCalled() {
+			return called.get();
+		}
+	}
+}
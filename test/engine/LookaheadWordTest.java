@@ -0,0 +1,293 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tests that a Lookahead Word chooses its depth by the number of possible
+ * words, and that its answers, pruned, remembered and searched in parallel
+ * as they are, are the ones a plain search of every reality to the same
+ * depth picks: the reality that makes the model guesser guess wrong the
+ * most, of those the one an Adversary Word would keep.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.LookaheadWordTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class LookaheadWordTest {
+
+	// Constants
+	private static final int MAX_DEPTH = 6;        // As in LookaheadWord
+	private static final int WORK_LIMIT = 1 << 21; // As in LookaheadWord
+	private static final int LENGTH = 5;
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+	private LookaheadWordTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		testChooseDepth();
+		Dict small = new Dict(write(randomWords(300, 1)));
+		testSearchRealities(small);
+		testGames(small, 20);
+		// Enough words for the first guesses to be searched in parallel
+		testGames(new Dict(write(randomWords(6000, 2))), 3);
+		System.out.println("LookaheadWordTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that small word lists are searched MAX_DEPTH guesses ahead,
+	 * larger ones less deep within the work limit, and the largest not at
+	 * all.
+	 */
+	private static void testChooseDepth() {
+		check(LookaheadWord.chooseDepth(1) == MAX_DEPTH, "one word not " +
+				"searched to the most depth");
+		check(LookaheadWord.chooseDepth(WORK_LIMIT / MAX_DEPTH) == MAX_DEPTH,
+				"words within the work limit not searched to the most depth");
+		check(LookaheadWord.chooseDepth(WORK_LIMIT / 3) == 3, "depth " +
+				LookaheadWord.chooseDepth(WORK_LIMIT / 3) + " for " +
+				WORK_LIMIT / 3 + " words, expected 3");
+		check(LookaheadWord.chooseDepth(WORK_LIMIT / 3 + 1) == 2, "work " +
+				"limit exceeded");
+		check(LookaheadWord.chooseDepth(WORK_LIMIT + 1) == 0, "words past " +
+				"the work limit searched");
+		int previous = MAX_DEPTH;
+		for (int words = 1; words <= 4 * WORK_LIMIT; words += words / 7 + 1) {
+			int depth = LookaheadWord.chooseDepth(words);
+			check(depth >= 0 && depth <= previous && depth * (long) words <=
+					WORK_LIMIT, "depth " + depth + " for " + words + " words");
+			previous = depth;
+		}
+	}
+
+	/**
+	 * Checks the reality picked for first guesses over subsets of a bucket,
+	 * at every depth and number of lives, with and without results of
+	 * other searches in the table.
+	 */
+	private static void testSearchRealities(Dict dict) {
+		WordBucket bucket = dict.getBucket(LENGTH);
+		WordSignatures signatures = bucket.getSignatures();
+		SplittableRandom rng = new SplittableRandom(7);
+		for (int round = 0; round < 30; round++) {
+			int[] ids = subset(bucket.getIds(), 2 + rng.nextInt(200), rng);
+			int letter = rng.nextInt(ALPHABET.length());
+			int used = 1 << letter;
+			long state = TranspositionTable.initialKey(LENGTH);
+			PatternCounts realities = new PatternCounts();
+			int[][] groups = LookaheadWord.partition(signatures, ids, letter,
+					realities);
+			TranspositionTable shared = new TranspositionTable(1 << 10);
+			for (int depth = 0; depth <= 4; depth++) {
+				for (int lives = 0; lives <= 5; lives++) {
+					long expected = choose(signatures, ids, letter, used,
+							lives, depth);
+					for (TranspositionTable table : new TranspositionTable[] {
+							new TranspositionTable(1 << 10), shared}) {
+						int best = LookaheadWord.searchRealities(signatures,
+								table, groups, realities, letter, used, state,
+								lives, depth, LookaheadWord.NO_DEADLINE);
+						check(realities.getPattern(best) == expected,
+								"picked " + realities.getPattern(best) +
+								", expected " + expected + ", round " +
+								round + ", depth " + depth + ", lives " +
+								lives);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks every answer of games of random guesses against a plain search
+	 * at the depth chosen for the words left.
+	 */
+	private static void testGames(Dict dict, int games) {
+		WordBucket bucket = dict.getBucket(LENGTH);
+		WordSignatures signatures = bucket.getSignatures();
+		SplittableRandom rng = new SplittableRandom(9);
+		for (int game = 0; game < games; game++) {
+			int lives = 1 + rng.nextInt(8);
+			String order = shuffle(ALPHABET, rng);
+			Word word = new LookaheadWord(dict, LENGTH, lives,
+					new SplittableRandom(1));
+			int[] ids = bucket.getIds();
+			int used = 0;
+			int left = lives;
+			for (char letter : order.toCharArray()) {
+				int index = letter - 'a';
+				used |= 1 << index;
+				long pattern = choose(signatures, ids, index, used, left,
+						LookaheadWord.chooseDepth(ids.length));
+				String guess = "lives " + lives + ", guesses " + order +
+						", at " + letter;
+				check(Arrays.equals(word.getLetterPositions(letter),
+						AdversaryWord.toPositions(pattern)), "answers " +
+						"differ, " + guess);
+				ids = filter(signatures, ids, index, pattern);
+				check(word.toString().equals(bucket.getWord(ids[0])),
+						"words shown differ, " + guess);
+				if (pattern == 0)
+					left--;
+			}
+		}
+	}
+
+	/**
+	 * Picks the reality of a guess a plain search keeps.
+	 * @return Its reveal pattern.
+	 */
+	private static long choose(WordSignatures signatures, int[] ids,
+			int letter, int used, int lives, int depth) {
+		PatternCounts realities = new PatternCounts();
+		for (int id : ids) {
+			realities.add(signatures.getPattern(id, letter));
+		}
+		if (depth <= 0)
+			return realities.getBestPattern();
+		int best = -1;
+		int bestScore = -1;
+		for (int i = 0; i < realities.size(); i++) {
+			long pattern = realities.getPattern(i);
+			int miss = pattern == 0 ? 1 : 0;
+			int score = miss + search(signatures, filter(signatures, ids,
+					letter, pattern), used, lives - miss, depth);
+			if (best == -1 || score > bestScore || (score == bestScore &&
+					PatternCounts.isBetter(realities.getCount(i), pattern,
+							realities.getCount(best),
+							realities.getPattern(best)))) {
+				best = i;
+				bestScore = score;
+			}
+		}
+		return realities.getPattern(best);
+	}
+
+	/**
+	 * Counts the wrong guesses the adversary can force on the model guesser
+	 * within depth guesses, searching every reality.
+	 */
+	private static int search(WordSignatures signatures, int[] ids, int used,
+			int lives, int depth) {
+		if (depth <= 0 || lives <= 0 || ids.length <= 1)
+			return 0;
+		int[] counts = new int[ALPHABET.length()];
+		for (int id : ids) {
+			for (int letter = 0; letter < counts.length; letter++) {
+				if ((used & 1 << letter) == 0 &&
+						signatures.getPattern(id, letter) != 0)
+					counts[letter]++;
+			}
+		}
+		int letter = 0;
+		for (int i = 1; i < counts.length; i++) {
+			if (counts[i] > counts[letter])
+				letter = i;
+		}
+		if (counts[letter] == 0)
+			return 0;
+		PatternCounts realities = new PatternCounts();
+		for (int id : ids) {
+			realities.add(signatures.getPattern(id, letter));
+		}
+		int best = 0;
+		for (int i = 0; i < realities.size(); i++) {
+			long pattern = realities.getPattern(i);
+			int miss = pattern == 0 ? 1 : 0;
+			best = Math.max(best, miss + search(signatures, filter(signatures,
+					ids, letter, pattern), used | 1 << letter, lives - miss,
+					depth - 1));
+		}
+		return best;
+	}
+
+	/**
+	 * Keeps the ids of the words of one reality, in order.
+	 */
+	private static int[] filter(WordSignatures signatures, int[] ids,
+			int letter, long pattern) {
+		int[] kept = new int[ids.length];
+		int count = 0;
+		for (int id : ids) {
+			if (signatures.getPattern(id, letter) == pattern)
+				kept[count++] = id;
+		}
+		return Arrays.copyOf(kept, count);
+	}
+
+	/**
+	 * Picks some ids at random, keeping their order.
+	 */
+	private static int[] subset(int[] ids, int count, SplittableRandom rng) {
+		int[] picked = new int[Math.min(count, ids.length)];
+		for (int i = 0, left = picked.length; left > 0; i++) {
+			if (rng.nextInt(ids.length - i) < left)
+				picked[picked.length - left--] = ids[i];
+		}
+		return picked;
+	}
+
+	/**
+	 * Shuffles the letters of a string.
+	 */
+	private static String shuffle(String letters, SplittableRandom rng) {
+		char[] shuffled = letters.toCharArray();
+		for (int i = shuffled.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			char swap = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = swap;
+		}
+		return new String(shuffled);
+	}
+
+	/**
+	 * Makes up words of LENGTH letters from a skewed choice of letters, so
+	 * that realities differ in size and some letters repeat.
+	 */
+	private static String randomWords(int count, long seed) {
+		SplittableRandom rng = new SplittableRandom(seed);
+		StringBuilder words = new StringBuilder(count * (LENGTH + 1));
+		for (int i = 0; i < count; i++) {
+			for (int pos = 0; pos < LENGTH; pos++) {
+				double skew = rng.nextDouble();
+				words.append((char) ('a' + (int) (skew * skew * 26)));
+			}
+			words.append('\n');
+		}
+		return words.toString();
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("LookaheadWordTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,175 @@
+package engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tests that Pattern Counts count patterns exactly, that isBetter() orders
+ * realities by word count, then by fewest positions revealed, then by
+ * earliest positions, whatever order the patterns were counted in, and
+ * that an Adversary Word choosing between reveal patterns of a repeated
+ * letter follows the same order.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.PatternCountsTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class PatternCountsTest {
+
+	private PatternCountsTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		testCounts();
+		testTieBreaks();
+		testBestIgnoresOrder();
+		// More words beat fewer positions revealed
+		testRepeatedLetter("sheet sheep tweet these three", new int[] {2, 3});
+		// As many words: fewer positions revealed win
+		testRepeatedLetter("these theme crane plane", new int[] {4});
+		// As many positions: earlier ones win
+		testRepeatedLetter("fever lever reeds seeds", new int[] {1, 2});
+		// Not revealing wins every tie
+		testRepeatedLetter("geese eerie sheet stamp", null);
+		System.out.println("PatternCountsTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks counts, indices and clearing, past the initial table size.
+	 */
+	private static void testCounts() {
+		PatternCounts counts = new PatternCounts();
+		for (int round = 0; round < 2; round++) {
+			counts.clear();
+			check(counts.size() == 0 && counts.getBestPattern() == 0,
+					"cleared counts not empty");
+			for (long pattern = 0; pattern < 100; pattern++) {
+				for (int i = 0; i <= pattern % 5; i++) {
+					counts.add(pattern << 20);
+				}
+			}
+			check(counts.size() == 100, "counted " + counts.size() +
+					" patterns, expected 100");
+			for (long pattern = 0; pattern < 100; pattern++) {
+				int index = counts.indexOf(pattern << 20);
+				check(index == pattern && counts.getPattern(index) ==
+						pattern << 20 && counts.getCount(index) ==
+						pattern % 5 + 1, "pattern " + pattern +
+						" miscounted");
+			}
+			check(counts.indexOf(1) == -1, "absent pattern found");
+		}
+	}
+
+	/**
+	 * Checks each rule of isBetter(), and that it is a strict order.
+	 */
+	private static void testTieBreaks() {
+		check(PatternCounts.isBetter(3, 0b111, 2, 0), "more words lost");
+		check(!PatternCounts.isBetter(2, 0, 3, 0b111), "fewer words won");
+		check(PatternCounts.isBetter(2, 0b1000, 2, 0b0011),
+				"fewer positions lost");
+		check(PatternCounts.isBetter(2, 0, 2, 0b1), "not revealing lost");
+		check(PatternCounts.isBetter(2, 0b0011, 2, 0b0101),
+				"earlier positions lost");
+		check(PatternCounts.isBetter(2, 0b1001, 2, 0b1010),
+				"earlier positions lost");
+		check(!PatternCounts.isBetter(2, 0b0110, 2, 0b0110),
+				"a pattern beat itself");
+
+		SplittableRandom rng = new SplittableRandom(11);
+		for (int i = 0; i < 100000; i++) {
+			int count = 1 + rng.nextInt(3);
+			int otherCount = 1 + rng.nextInt(3);
+			long pattern = rng.nextLong() & 0xFF;
+			long other = rng.nextLong() & 0xFF;
+			boolean better = PatternCounts.isBetter(count, pattern,
+					otherCount, other);
+			boolean worse = PatternCounts.isBetter(otherCount, other, count,
+					pattern);
+			boolean same = count == otherCount && pattern == other;
+			check(same ? !better && !worse : better != worse, "isBetter " +
+					"not a strict order for " + count + ":" + pattern +
+					" and " + otherCount + ":" + other);
+		}
+	}
+
+	/**
+	 * Checks that the best pattern does not depend on the order patterns
+	 * were counted in.
+	 */
+	private static void testBestIgnoresOrder() {
+		long[] words = {0b100, 0b011, 0b101, 0b110, 0b011, 0b101, 0b110,
+			0b1000, 0b0001};
+		SplittableRandom rng = new SplittableRandom(2);
+		PatternCounts counts = new PatternCounts();
+		for (int i = 0; i < 100; i++) {
+			counts.clear();
+			for (long pattern : shuffle(words, rng)) {
+				counts.add(pattern);
+			}
+			check(counts.getBestPattern() == 0b011, "best pattern " +
+					counts.getBestPattern() + ", expected 0b011");
+		}
+	}
+
+	/**
+	 * Checks where an Adversary Word reveals 'e' among words of length 5.
+	 * @param words    The words, separated by spaces.
+	 * @param expected The positions revealed, or null for none.
+	 */
+	private static void testRepeatedLetter(String words, int[] expected)
+			throws IOException {
+		Dict dict = new Dict(write(words));
+		for (int i = 0; i < 10; i++) {
+			Word word = new AdversaryWord(dict, 5, new SplittableRandom(i));
+			int[] positions = word.getLetterPositions('e');
+			check(Arrays.equals(positions, expected), "e revealed at " +
+					Arrays.toString(positions) + " among " + words +
+					", expected " + Arrays.toString(expected));
+		}
+	}
+
+	private static long[] shuffle(long[] values, SplittableRandom rng) {
+		long[] shuffled = values.clone();
+		for (int i = shuffled.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			long swap = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = swap;
+		}
+		return shuffled;
+	}
+
+	/**
+	 * Writes text to a temporary file.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("PatternCountsTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
@@ -0,0 +1,195 @@
+package engine;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Tests that the Text Dict Loader reads exactly the words the Scanner based
+ * parser it replaced did, in the same order and with the same duplicates,
+ * across chunk boundaries and whatever the whitespace or the end of the
+ * file, and that counts after tabs are taken as weights.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.TextDictLoaderTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class TextDictLoaderTest {
+
+	// Constants
+	private static final int CHUNK_SIZE = 4 << 20; // As in TextDictLoader
+	private static final String MIXED =
+			"The quick\tbrown  fox\r\njumps\u2003over the \u212Aelvin " +
+			"x42 na\u00EFve don't Zebra zebra\u00A0zebra a \u212A\n" +
+			"\u212A\u212A zebra\u000B\u001Cend\u3000ok\u2028\n";
+	private static final String COUNTS =
+			"the\t50\nquick\t3\nfox 12\nover\t\t7\njumps\t\nthe\t2\n" +
+			"dog\t0\n42\tlazy\n";
+	private static final String STRADDLING = "straddling";
+
+	private TextDictLoaderTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 * @throws IOException if a temporary file could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		testMatchesScanner(MIXED);
+		testMatchesScanner("alpha beta\ngamma");
+		testMatchesScanner("");
+		testMatchesScanner(COUNTS);
+		testCounts();
+		testChunkBoundary();
+		System.out.println("TextDictLoaderTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that a text file loads as the words the Scanner parser finds.
+	 */
+	private static void testMatchesScanner(String text) throws IOException {
+		File file = write(text);
+		compare(new Dict(file), parse(file));
+	}
+
+	/**
+	 * Checks that a count after tabs weighs the word before it, a count of 0
+	 * weighs it 1, and digits anywhere else are ignored.
+	 */
+	private static void testCounts() throws IOException {
+		Dict dict = new Dict(write(COUNTS));
+		check(dict.isWeighted(), "counts not read as weights");
+		checkWeights(dict.getBucket(3), new String[] {"the", "fox", "the",
+				"dog"}, new int[] {50, 1, 2, 1});
+		checkWeights(dict.getBucket(4), new String[] {"over", "lazy"},
+				new int[] {7, 1});
+		checkWeights(dict.getBucket(5), new String[] {"quick", "jumps"},
+				new int[] {3, 1});
+	}
+
+	/**
+	 * Checks that a file of several chunks loads as the Scanner parser reads
+	 * it, with a word cut by the first chunk boundary kept whole, and no
+	 * newline at the end of the file.
+	 */
+	private static void testChunkBoundary() throws IOException {
+		String[] filler = {"ab ", "cde\n", "\u212Aey ", "x1 ", "fg\u2003hij ",
+				"klmno\t"};
+		StringBuilder text = new StringBuilder(2 * CHUNK_SIZE + 100);
+		int bytes = 0;
+		int start = CHUNK_SIZE - STRADDLING.length() / 2; // Of the word
+		for (int i = 0; bytes < start; i++) {
+			String next = filler[i % filler.length];
+			if (bytes + next.getBytes(StandardCharsets.UTF_8).length > start)
+				next = " ";
+			text.append(next);
+			bytes += next.getBytes(StandardCharsets.UTF_8).length;
+		}
+		text.append(STRADDLING).append('\n');
+		for (int i = 0; text.length() < 2 * CHUNK_SIZE + 50; i++) {
+			text.append(filler[i % filler.length]);
+		}
+		text.append("last");
+
+		File file = write(text.toString());
+		Dict dict = new Dict(file);
+		compare(dict, parse(file));
+		check(dict.getWordList(STRADDLING.length()).contains(STRADDLING),
+				"word cut by the chunk boundary lost");
+	}
+
+	/**
+	 * Checks that a Dict holds the same words as the Scanner parser found.
+	 */
+	private static void compare(Dict dict, List<List<String>> expected) {
+		check(dict.getTotalWords() == count(expected), "loaded " +
+				dict.getTotalWords() + " words, expected " + count(expected));
+		for (int length = 1; length <= expected.size(); length++) {
+			List<String> words = expected.get(length - 1);
+			check(dict.hasLength(length) == !words.isEmpty(), "length " +
+					length + " differs");
+			if (!words.isEmpty())
+				check(dict.getWordList(length).equals(words), "words of " +
+						"length " + length + " differ: " +
+						dict.getWordList(length) + " vs " + words);
+		}
+	}
+
+	/**
+	 * Checks the words of a bucket and their weights.
+	 */
+	private static void checkWeights(WordBucket bucket, String[] words,
+			int[] weights) {
+		check(bucket.size() == words.length, "bucket of length " +
+				bucket.getWordLength() + " has " + bucket.size() + " words");
+		for (int id = 0; id < words.length; id++) {
+			check(bucket.getWord(id).equals(words[id]) &&
+					bucket.getWeight(id) == weights[id], "word " + id +
+					" is " + bucket.getWord(id) + " of weight " +
+					bucket.getWeight(id) + ", expected " + words[id] +
+					" of weight " + weights[id]);
+		}
+	}
+
+	/**
+	 * Finds the words of a UTF-8 text file the way the Scanner based parser
+	 * did.
+	 * @return The words of each length, in file order, index = length - 1.
+	 */
+	private static List<List<String>> parse(File file)
+			throws FileNotFoundException {
+		List<List<String>> words = new ArrayList<List<String>>();
+		Scanner in = new Scanner(file, "UTF-8");
+		try {
+			while (in.hasNext()) {
+				String next = in.next().toLowerCase();
+				if (!next.matches("[a-zA-Z]+"))
+					continue;
+				while (next.length() > words.size()) {
+					words.add(new ArrayList<String>());
+				}
+				words.get(next.length() - 1).add(next);
+			}
+		} finally {
+			in.close();
+		}
+		return words;
+	}
+
+	private static int count(List<List<String>> words) {
+		int count = 0;
+		for (List<String> list : words) {
+			count += list.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Writes text to a temporary file, as UTF-8.
+	 */
+	private static File write(String text) throws IOException {
+		File file = File.createTempFile("TextDictLoaderTest", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
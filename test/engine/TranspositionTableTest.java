@@ -0,0 +1,189 @@
+package engine;
+
+/**
+ * Tests that a Transposition Table keeps the deepest search stored in each
+ * bucket and overwrites the most recent one otherwise, that lookups find
+ * the deepest result of a state, that an entry only stands in for a
+ * search of its own depth and, within that depth, its own lives, and that
+ * keys tell states apart.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.TranspositionTableTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class TranspositionTableTest {
+
+	private TranspositionTableTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 */
+	public static void main(String[] args) {
+		testReplacement();
+		testSameState();
+		testBuckets();
+		testAnswers();
+		testKeys();
+		System.out.println("TranspositionTableTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that the deepest entry of a bucket survives shallower ones,
+	 * which overwrite each other, and gives way to one as deep or deeper.
+	 */
+	private static void testReplacement() {
+		TranspositionTable table = new TranspositionTable(4);
+		long deep = key(0, 1);
+		long shallow = key(0, 2);
+		long recent = key(0, 3);
+		long asDeep = key(0, 4);
+		table.put(deep, 3, 5, 1, 0b1);
+		table.put(shallow, 1, 5, 2, 0b10);
+		checkEntry(table, deep, 3, 5, 1, 0b1);
+		checkEntry(table, shallow, 1, 5, 2, 0b10);
+
+		table.put(recent, 2, 5, 3, 0b100); // Overwrites the shallow entry
+		check(table.get(shallow) == null, "most recent entry kept");
+		checkEntry(table, deep, 3, 5, 1, 0b1);
+		checkEntry(table, recent, 2, 5, 3, 0b100);
+
+		table.put(asDeep, 3, 5, 4, 0b1000); // Replaces the deep entry
+		check(table.get(deep) == null, "deepest entry kept over as deep " +
+				"a later one");
+		checkEntry(table, asDeep, 3, 5, 4, 0b1000);
+		checkEntry(table, recent, 2, 5, 3, 0b100);
+	}
+
+	/**
+	 * Checks that the deeper of two results of a state is found, whichever
+	 * slot it is in, and that a new result as deep replaces the old one.
+	 */
+	private static void testSameState() {
+		TranspositionTable table = new TranspositionTable(4);
+		long state = key(0, 1);
+		table.put(state, 4, 5, 1, 0b1);
+		table.put(state, 2, 5, 2, 0b10);
+		checkEntry(table, state, 4, 5, 1, 0b1);
+		table.put(state, 4, 5, 3, 0b100);
+		checkEntry(table, state, 4, 5, 3, 0b100);
+
+		table = new TranspositionTable(4);
+		table.put(key(0, 2), 5, 5, 0, 0);
+		table.put(state, 1, 5, 1, 0b1);  // Both in the recent slot
+		table.put(state, 3, 5, 2, 0b10);
+		checkEntry(table, state, 3, 5, 2, 0b10);
+		table.put(state, 6, 5, 3, 0b100); // In the deep slot, the other kept
+		checkEntry(table, state, 6, 5, 3, 0b100);
+		table.put(key(0, 3), 1, 5, 0, 0);
+		checkEntry(table, state, 6, 5, 3, 0b100);
+	}
+
+	/**
+	 * Checks that buckets are kept apart, and a capacity rounded down to a
+	 * power of two.
+	 */
+	private static void testBuckets() {
+		TranspositionTable table = new TranspositionTable(7); // As 4
+		table.put(key(0, 1), 3, 5, 1, 0b1);
+		table.put(key(2, 1), 3, 5, 2, 0b10);
+		table.put(key(2, 2), 1, 5, 3, 0b100);
+		table.put(key(2, 3), 1, 5, 4, 0b1000);
+		checkEntry(table, key(0, 1), 3, 5, 1, 0b1);
+		checkEntry(table, key(2, 1), 3, 5, 2, 0b10);
+		check(table.get(key(2, 2)) == null, "overwritten entry found");
+		checkEntry(table, key(2, 3), 1, 5, 4, 0b1000);
+		table.put(key(4, 1), 1, 5, 5, 0b10000); // Bucket 0 again
+		checkEntry(table, key(0, 1), 3, 5, 1, 0b1);
+		checkEntry(table, key(4, 1), 1, 5, 5, 0b10000);
+		check(table.get(key(4, 2)) == null, "absent state found");
+
+		try {
+			new TranspositionTable(1);
+			check(false, "table of one slot created");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Checks which searches an entry's score stands in for.
+	 */
+	private static void testAnswers() {
+		TranspositionTable table = new TranspositionTable(2);
+		table.put(1, 3, 5, 2, 0);
+		TranspositionTable.Entry entry = table.get(1);
+		check(entry.answers(3, 5), "entry does not answer its own search");
+		check(entry.answers(3, 3) && entry.answers(3, 4) &&
+				entry.answers(3, 9), "lives beyond the depth not ignored");
+		check(!entry.answers(3, 2) && !entry.answers(3, 0), "fewer lives " +
+				"than the depth answered");
+		check(!entry.answers(2, 5) && !entry.answers(4, 5), "another depth " +
+				"answered");
+
+		table.put(1, 3, 2, 1, 0);
+		entry = table.get(1);
+		check(entry.answers(3, 2), "entry does not answer its own search");
+		check(!entry.answers(3, 1) && !entry.answers(3, 3) &&
+				!entry.answers(3, 5), "other lives within the depth answered");
+		check(!entry.answers(2, 2), "another depth answered");
+
+		table = new TranspositionTable(2);
+		table.put(1, 0, 0, 0, 0);
+		check(table.get(1).answers(0, 0) && table.get(1).answers(0, 7),
+				"search of no depth not answered");
+	}
+
+	/**
+	 * Checks that keys tell word lengths, guessed letters and revealed
+	 * positions apart.
+	 */
+	private static void testKeys() {
+		int e = 'e' - 'a';
+		int a = 'a' - 'a';
+		long start = TranspositionTable.initialKey(5);
+		check(start != TranspositionTable.initialKey(6), "lengths share " +
+				"a key");
+		long[] patterns = {0, 0b1, 0b10, 0b11, 0b10001};
+		for (int i = 0; i < patterns.length; i++) {
+			check(TranspositionTable.guessKey(e, patterns[i]) !=
+					TranspositionTable.guessKey(a, patterns[i]), "letters " +
+					"share a key");
+			for (int j = 0; j < i; j++) {
+				check(TranspositionTable.guessKey(e, patterns[i]) !=
+						TranspositionTable.guessKey(e, patterns[j]),
+						"patterns " + patterns[i] + " and " + patterns[j] +
+						" share a key");
+			}
+		}
+	}
+
+	/**
+	 * Checks the entry found for a state.
+	 */
+	private static void checkEntry(TranspositionTable table, long key,
+			int depth, int lives, int score, long pattern) {
+		TranspositionTable.Entry entry = table.get(key);
+		check(entry != null, "entry of depth " + depth + " lost");
+		check(entry.answers(depth, lives) && entry.getScore() == score &&
+				entry.getPattern() == pattern, "entry of depth " + depth +
+				" found as another");
+	}
+
+	/**
+	 * Makes a key whose high half picks the table slot, in a table of four
+	 * slots: buckets 0 and 2, for even high halves.
+	 */
+	private static long key(int high, int low) {
+		return (long) high << 32 | low;
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}
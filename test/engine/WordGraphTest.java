@@ -0,0 +1,131 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests that a Word Graph holds exactly the words of the bucket it was
+ * built from: that its ids enumerate them in alphabetical order, repeats
+ * included, and that a fully revealed word matches if and only if the
+ * graph contains it.
+ * <p>
+ * Run with the engine classes on the class path:
+ * <code>java engine.WordGraphTest</code>
+ *
+ * @author agent
+ * Created: Oct 16, 2026
+ *
+ */
+class WordGraphTest {
+
+	// Constants
+	private static final String[] WORDS = {
+		"lake", "bake", "cake", "bike", "like", "bake", "lime", "time",
+		"tile", "bile", "mile", "mild", "wild", "bald", "bold", "cold"
+	};
+	private static final String[] ABSENT = {
+		"make", "bide", "tame", "aaaa", "zzzz", "colt", "baked"
+	};
+
+	private WordGraphTest() {} // Not instantiable
+
+	/**
+	 * Runs the tests, exiting with an error on the first failure.
+	 * @param args Not used.
+	 */
+	public static void main(String[] args) {
+		WordBucket packed = pack(WORDS);
+		WordBucket graph = packed.toGraph();
+		check(graph.isGraph(), "toGraph() did not build a graph");
+		testEnumeration(graph);
+		testContains(graph);
+		testMinimized(packed);
+		System.out.println("WordGraphTest passed.");
+	}
+
+	// Private methods
+	/**
+	 * Checks that the graph's ids list every word in alphabetical order,
+	 * and that single letters agree with whole words.
+	 */
+	private static void testEnumeration(WordBucket graph) {
+		List<String> expected = new ArrayList<String>(Arrays.asList(WORDS));
+		Collections.sort(expected);
+		check(graph.size() == expected.size(), "graph has " + graph.size() +
+				" words, expected " + expected.size());
+		for (int id = 0; id < graph.size(); id++) {
+			String word = graph.getWord(id);
+			check(word.equals(expected.get(id)), "word " + id + " is " +
+					word + ", expected " + expected.get(id));
+			for (int pos = 0; pos < word.length(); pos++) {
+				check(graph.getLetter(id, pos) == word.charAt(pos), "letter " +
+						pos + " of word " + id + " disagrees with " + word);
+			}
+		}
+	}
+
+	/**
+	 * Checks that fully revealed words match once per copy in the list if
+	 * present, and not at all if absent.
+	 */
+	private static void testContains(WordBucket graph) {
+		for (String word : WORDS) {
+			int copies = Collections.frequency(Arrays.asList(WORDS), word);
+			check(countMatches(graph, word) == copies, word + " matched " +
+					countMatches(graph, word) + " times, expected " + copies);
+		}
+		for (String word : ABSENT) {
+			if (word.length() == graph.getWordLength())
+				check(countMatches(graph, word) == 0, "absent word " + word +
+						" matched");
+		}
+	}
+
+	/**
+	 * Checks that shared suffixes are merged: the graph has fewer edges than
+	 * the words have letters.
+	 */
+	private static void testMinimized(WordBucket packed) {
+		WordGraph graph = new WordGraph(packed, WordGraph.sort(packed));
+		int letters = WORDS.length * packed.getWordLength();
+		check(graph.getEdgeCount() < letters, "graph has " +
+				graph.getEdgeCount() + " edges for " + letters + " letters");
+	}
+
+	/**
+	 * Counts the words of a bucket that match a fully revealed word.
+	 */
+	private static int countMatches(WordBucket bucket, String word) {
+		int[] pattern = new int[word.length()];
+		for (int pos = 0; pos < pattern.length; pos++) {
+			pattern[pos] = word.charAt(pos) - 'a';
+		}
+		int count = 0;
+		for (long bits : bucket.match(pattern, 0)) {
+			count += Long.bitCount(bits);
+		}
+		return count;
+	}
+
+	/**
+	 * Packs words of one length into a bucket, in the order given.
+	 */
+	private static WordBucket pack(String[] words) {
+		int length = words[0].length();
+		ByteBuffer letters = ByteBuffer.allocate(words.length * length);
+		for (String word : words) {
+			letters.put(word.getBytes(StandardCharsets.US_ASCII));
+		}
+		letters.flip();
+		return new WordBucket(letters, length, words.length, null);
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition)
+			throw new AssertionError(failure);
+	}
+}